@@ -0,0 +1,18 @@
+package com.aurionpro.papms.Enum;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Delimited text formats for report exports.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DelimitedFormat {
+    CSV(',', "csv", "text/csv"),
+    TSV('\t', "tsv", "text/tab-separated-values");
+
+    private final char delimiter;
+    private final String fileExtension;
+    private final String contentType;
+}
@@ -0,0 +1,10 @@
+package com.aurionpro.papms.Enum;
+
+public enum LedgerMode {
+    // Single organizations.internal_balance row, changed with conditional atomic updates
+    ATOMIC,
+    // Balance spread over organization_balance_shards rows; internal_balance is a periodically refreshed aggregate
+    SHARDED,
+    // Append-only: balance = latest balance_snapshots row + transactions recorded after it
+    JOURNAL
+}
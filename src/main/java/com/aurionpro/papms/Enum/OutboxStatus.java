@@ -0,0 +1,7 @@
+package com.aurionpro.papms.Enum;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,37 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.Enum.LedgerMode;
+import com.aurionpro.papms.service.BalanceShardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceShardRefreshTask {
+
+    private final BalanceShardService balanceShardService;
+
+    @Value("${app.ledger.mode:ATOMIC}")
+    private LedgerMode ledgerMode;
+
+    /**
+     * In sharded ledger mode, copies the sum of each organization's balance shards into
+     * organizations.internal_balance every few seconds so balance reads stay cheap.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.balance-refresh-ms:5000}")
+    public void refreshCachedBalances() {
+        if (ledgerMode != LedgerMode.SHARDED) {
+            return;
+        }
+        try {
+            int refreshed = balanceShardService.refreshCachedBalances();
+            log.debug("Refreshed cached balance of {} sharded organizations.", refreshed);
+        } catch (Exception e) {
+            log.error("Error while refreshing cached organization balances", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.Enum.LedgerMode;
+import com.aurionpro.papms.repository.JournalAccountRepository;
+import com.aurionpro.papms.service.JournalLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotCompactionTask {
+
+    private final JournalLedgerService journalLedgerService;
+    private final JournalAccountRepository accountRepository;
+
+    @Value("${app.ledger.mode:ATOMIC}")
+    private LedgerMode ledgerMode;
+
+    /**
+     * In journal ledger mode, folds the transaction tail of every journaled organization into a
+     * new balance snapshot so balance reads only scan recent transactions.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.journal.compaction-interval-ms:60000}")
+    public void compactJournal() {
+        if (ledgerMode != LedgerMode.JOURNAL) {
+            return;
+        }
+        int compacted = 0;
+        for (Integer organizationId : accountRepository.findOrganizationIds()) {
+            try {
+                if (journalLedgerService.compact(organizationId)) {
+                    compacted++;
+                }
+            } catch (Exception e) {
+                log.error("Error while compacting the transaction journal of organization {}", organizationId, e);
+            }
+        }
+        if (compacted > 0) {
+            log.info("Wrote balance snapshots for {} organizations.", compacted);
+        }
+    }
+}
@@ -5,84 +5,48 @@ import com.aurionpro.papms.Enum.OwnerType;
 import com.aurionpro.papms.Enum.Role;
 import com.aurionpro.papms.dto.CsvEmployeeRecord;
 import com.aurionpro.papms.entity.*;
-import com.aurionpro.papms.repository.AppUserRepository;
-import com.aurionpro.papms.repository.BankAccountRepository;
+import com.aurionpro.papms.service.AccountActivationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.stereotype.Component; // Add this
+import org.springframework.util.StringUtils;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 public class EmployeeCsvItemProcessor implements ItemProcessor<CsvEmployeeRecord, Employee> {
 
-    private final AppUserRepository appUserRepository;
-    private final BankAccountRepository bankAccountRepository;
-    private final PasswordEncoder passwordEncoder;
-
-    // In-memory sets for fast lookups
-    private Set<String> existingUsernames = new HashSet<>();
-    private Set<String> existingAccountNumbers = new HashSet<>();
-
-    /**
-     * This method is executed by Spring Batch BEFORE the step starts.
-     * We use it to load all necessary validation data into memory one time.
-     */
-    @BeforeStep
-    public void loadExistingData(StepExecution stepExecution) {
-        log.info("Pre-loading existing usernames and account numbers for validation.");
-
-        // Fetch all usernames from the DB in one query
-        existingUsernames = appUserRepository.findAll().stream()
-                .map(User::getUsername)
-                .collect(Collectors.toSet());
-
-        // Fetch all account numbers from the DB in one query
-        existingAccountNumbers = bankAccountRepository.findAll().stream()
-                .map(BankAccount::getAccountNumber)
-                .collect(Collectors.toSet());
-
-        log.info("Pre-loading complete. Found {} usernames and {} account numbers.", existingUsernames.size(), existingAccountNumbers.size());
-    }
+    // Shared by all partitions of the import; safe to call from several threads
+    private final EmployeeImportDuplicateGuard duplicateGuard;
+    private final PasswordHashingWriter passwordHashingWriter;
+    // Send activation links instead of hashing the passwords in the file
+    private final boolean activationTokens;
 
     @Override
     public Employee process(CsvEmployeeRecord record) throws Exception {
         // --- EFFICIENT VALIDATION LOGIC ---
-        if (existingUsernames.contains(record.getUsername())) {
-            log.warn("Skipping record. Username already exists: {}", record.getUsername());
-            // Add the username to the set so we can also detect duplicates within the SAME file
+        // Also catches duplicates within the file itself
+        if (!duplicateGuard.reserve(record.getUsername(), record.getAccountNumber())) {
             return null;
         }
 
-        if (existingAccountNumbers.contains(record.getAccountNumber())) {
-            log.warn("Skipping record. Bank account number already exists: {}", record.getAccountNumber());
-            return null;
-        }
-
-        // Add to sets to handle duplicates within the file itself
-        existingUsernames.add(record.getUsername());
-        existingAccountNumbers.add(record.getAccountNumber());
-
-
         // --- TRANSFORMATION LOGIC (remains the same) ---
         // ... (rest of your process method)
         User user = User.builder()
                 .username(record.getUsername())
-                .password(passwordEncoder.encode(record.getPassword()))
                 .fullName(record.getFullName())
                 .email(record.getEmail())
                 .role(Role.EMPLOYEE)
                 .isActive(true)
                 .requiresPasswordChange(true)
                 .build();
+        if (activationTokens || !StringUtils.hasText(record.getPassword())) {
+            user.setPassword(AccountActivationService.PENDING_ACTIVATION_PASSWORD);
+        } else {
+            // Hashed on the pool; set by the writer before the chunk is saved
+            passwordHashingWriter.hashLater(user, record.getPassword());
+        }
 
         Employee employee = Employee.builder()
                 .user(user)
@@ -0,0 +1,49 @@
+package com.aurionpro.papms.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Usernames and bank account numbers claimed by one run of the employee import. Shared by every
+ * partition of the job, so a duplicate within the file is caught whichever worker thread sees it
+ * second; keys already in the database are checked against the shared {@link ImportUniquenessIndex}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class EmployeeImportDuplicateGuard {
+
+    private final ImportUniquenessIndex uniquenessIndex;
+
+    private final Set<String> usernames = ConcurrentHashMap.newKeySet();
+    private final Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Claims the username and account number for a new employee. Returns false, claiming neither,
+     * when either is already taken, in the database or earlier in the import.
+     */
+    public boolean reserve(String username, String accountNumber) {
+        if (!usernames.add(username)) {
+            log.warn("Skipping record. Username already exists: {}", username);
+            return false;
+        }
+        // Taken ones stay claimed, so a repeat is rejected without asking the index again
+        if (uniquenessIndex.isUsernameTaken(username)) {
+            log.warn("Skipping record. Username already exists: {}", username);
+            return false;
+        }
+        if (!accountNumbers.add(accountNumber)) {
+            usernames.remove(username);
+            log.warn("Skipping record. Bank account number already exists: {}", accountNumber);
+            return false;
+        }
+        if (uniquenessIndex.isAccountNumberTaken(accountNumber)) {
+            usernames.remove(username);
+            log.warn("Skipping record. Bank account number already exists: {}", accountNumber);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package com.aurionpro.papms.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link EmployeeImportDuplicateGuard} per running import, looked up by job execution id.
+ * Job scope does not reach the partition worker threads, so the guard is shared this way instead.
+ * Registered as a listener on the import job, which drops the guard when the job ends.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeImportDuplicateGuards implements JobExecutionListener {
+
+    private final ImportUniquenessIndex uniquenessIndex;
+
+    private final Map<Long, EmployeeImportDuplicateGuard> guards = new ConcurrentHashMap<>();
+
+    public EmployeeImportDuplicateGuard forJobExecution(Long jobExecutionId) {
+        return guards.computeIfAbsent(jobExecutionId, id -> new EmployeeImportDuplicateGuard(uniquenessIndex));
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        guards.remove(jobExecution.getId());
+    }
+}
@@ -0,0 +1,72 @@
+package com.aurionpro.papms.batch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts employee CSV imports asynchronously, at most {@code app.employee-import.job.max-concurrent-jobs}
+ * at a time. The returned execution has its id but the import is still running, so callers can
+ * hand the id out right away. Boot's own JobLauncher would run the whole import on the caller's thread.
+ * <p>
+ * Imports beyond the limit wait in a queue of {@code app.employee-import.job.queue-capacity}; once
+ * that is full, {@link #launch} throws {@link TaskRejectedException} instead of blocking the caller.
+ */
+@Component
+@Slf4j
+public class EmployeeImportJobLauncher {
+
+    private final Job job;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final TaskExecutorJobLauncher launcher;
+
+    public EmployeeImportJobLauncher(JobRepository jobRepository,
+                                     Job employeeCsvImportJob,
+                                     @Value("${app.employee-import.job.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                     @Value("${app.employee-import.job.queue-capacity:20}") int queueCapacity) throws Exception {
+        this.job = employeeCsvImportJob;
+
+        this.jobExecutor = new ThreadPoolTaskExecutor();
+        jobExecutor.setCorePoolSize(maxConcurrentJobs);
+        jobExecutor.setMaxPoolSize(maxConcurrentJobs);
+        jobExecutor.setQueueCapacity(queueCapacity);
+        jobExecutor.setThreadNamePrefix("employee-import-job-");
+        jobExecutor.initialize();
+        this.launcher = new TaskExecutorJobLauncher();
+        this.launcher.setJobRepository(jobRepository);
+        this.launcher.setTaskExecutor(jobExecutor);
+        this.launcher.afterPropertiesSet();
+    }
+
+    /**
+     * @throws TaskRejectedException when the queue is full; the execution is then recorded as FAILED
+     */
+    public JobExecution launch(JobParameters parameters) throws JobExecutionException {
+        JobExecution execution = launcher.run(job, parameters);
+        if (wasRejected(execution)) {
+            throw new TaskRejectedException("Employee import queue is full; job execution " + execution.getId() + " was not started");
+        }
+        log.info("Launched employee import job execution {}", execution.getId());
+        return execution;
+    }
+
+    // The launcher records a rejected execution as FAILED and returns it rather than rethrowing; it never started
+    static boolean wasRejected(JobExecution execution) {
+        return execution.getStatus() == BatchStatus.FAILED && execution.getStartTime() == null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdown();
+    }
+}
@@ -0,0 +1,135 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.dto.CsvEmployeeRecord;
+import com.aurionpro.papms.entity.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer meters for the employee CSV import, registered on the import job and its worker step:
+ * <ul>
+ *     <li>{@code papms.employee.import.items} counts rows by {@code outcome}: read, written, or
+ *     filtered as invalid or duplicate. Its rate is the import's throughput.</li>
+ *     <li>{@code papms.employee.import.chunk} times each chunk, with a percentile histogram, so
+ *     slow chunks can be alerted on.</li>
+ *     <li>{@code papms.employee.import.job} times whole imports by {@code status}, and
+ *     {@code papms.employee.import.active} is the number of imports running.</li>
+ * </ul>
+ * Meters are registered on the application's {@link MeterRegistry}, so they are exported with the
+ * rest of the actuator metrics.
+ */
+@Component
+public class EmployeeImportMetrics implements JobExecutionListener, ChunkListener,
+        ItemReadListener<CsvEmployeeRecord>, ItemProcessListener<CsvEmployeeRecord, Employee>, ItemWriteListener<Employee> {
+
+    private static final String CHUNK_START = EmployeeImportMetrics.class.getName() + ".chunkStart";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final Counter readItems;
+    private final Counter writtenItems;
+    private final Counter filteredItems;
+    private final Timer completedChunks;
+    private final Timer failedChunks;
+
+    public EmployeeImportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("papms.employee.import.active", activeJobs, AtomicInteger::get)
+                .description("Employee CSV imports running")
+                .register(registry);
+        this.readItems = items("read");
+        this.writtenItems = items("written");
+        this.filteredItems = items("filtered");
+        this.completedChunks = chunkTimer("success");
+        this.failedChunks = chunkTimer("failure");
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        activeJobs.incrementAndGet();
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        activeJobs.decrementAndGet();
+        LocalDateTime start = jobExecution.getStartTime();
+        if (start != null) {
+            LocalDateTime end = jobExecution.getEndTime() != null ? jobExecution.getEndTime() : LocalDateTime.now();
+            Timer.builder("papms.employee.import.job")
+                    .description("Duration of employee CSV imports")
+                    .tag("status", jobExecution.getStatus().name())
+                    .register(registry)
+                    .record(Duration.between(start, end));
+        }
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(CHUNK_START, System.nanoTime());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        record(context, completedChunks);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        record(context, failedChunks);
+    }
+
+    @Override
+    public void afterRead(CsvEmployeeRecord item) {
+        readItems.increment();
+    }
+
+    @Override
+    public void afterProcess(CsvEmployeeRecord item, Employee result) {
+        if (result == null) {
+            filteredItems.increment();
+        }
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends Employee> items) {
+        writtenItems.increment(items.size());
+    }
+
+    private void record(ChunkContext context, Timer timer) {
+        if (context.getAttribute(CHUNK_START) instanceof Long start) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            context.removeAttribute(CHUNK_START);
+        }
+    }
+
+    private Counter items(String outcome) {
+        return Counter.builder("papms.employee.import.items")
+                .description("Employee CSV import rows by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Timer chunkTimer(String outcome) {
+        return Timer.builder("papms.employee.import.chunk")
+                .description("Time to read, process and write one chunk of the employee CSV import")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,174 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.repository.AppUserRepository;
+import com.aurionpro.papms.repository.BankAccountRepository;
+import com.aurionpro.papms.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Which usernames and bank account numbers are already taken, for the employee imports. Each is a
+ * {@link BloomFilter} built from a projection query the first time it is needed, so a lookup that
+ * misses needs no query, and a hit is confirmed with an exists query. The filters take a couple of
+ * bytes per key and are shared by every import.
+ * <p>
+ * {@link UniquenessIndexListener} adds keys as users and bank accounts are saved, and again when
+ * their transaction commits, so a key committed while a filter is being built is not missed (bank
+ * account numbers have no unique constraint to fall back on). A filter that has taken more keys
+ * than it was sized for is rebuilt; lookups made while a build runs go to the database.
+ */
+@Component
+@Slf4j
+public class ImportUniquenessIndex {
+
+    private static final long MIN_CAPACITY = 10_000;
+
+    private final AppUserRepository appUserRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionTemplate readOnly;
+
+    private final KeyFilter usernames;
+    private final KeyFilter accountNumbers;
+
+    @Value("${app.employee-import.uniqueness-index.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    public ImportUniquenessIndex(AppUserRepository appUserRepository,
+                                 BankAccountRepository bankAccountRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.appUserRepository = appUserRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.usernames = new KeyFilter("usernames", appUserRepository::count,
+                appUserRepository::streamAllUsernames, appUserRepository::existsByUsername);
+        this.accountNumbers = new KeyFilter("account numbers", bankAccountRepository::count,
+                bankAccountRepository::streamAllAccountNumbers, bankAccountRepository::existsByAccountNumber);
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return usernames.isTaken(username);
+    }
+
+    public boolean isAccountNumberTaken(String accountNumber) {
+        return accountNumbers.isTaken(accountNumber);
+    }
+
+    /**
+     * Adds a username saved without going through Hibernate, which {@link UniquenessIndexListener} would see.
+     */
+    public void usernameSaved(String username) {
+        usernames.add(username);
+    }
+
+    public void accountNumberSaved(String accountNumber) {
+        accountNumbers.add(accountNumber);
+    }
+
+    private final class KeyFilter {
+
+        private final String name;
+        private final LongSupplier count;
+        private final Supplier<Stream<String>> keys;
+        private final Predicate<String> exists;
+        private final ReentrantLock buildLock = new ReentrantLock();
+
+        private volatile BloomFilter filter;
+        // Receives saved keys while a rebuild is reading the table
+        private volatile BloomFilter building;
+
+        KeyFilter(String name, LongSupplier count, Supplier<Stream<String>> keys, Predicate<String> exists) {
+            this.name = name;
+            this.count = count;
+            this.keys = keys;
+            this.exists = exists;
+        }
+
+        boolean isTaken(String key) {
+            if (key == null) {
+                return false;
+            }
+            // No usable filter means another thread is building one; the database answers meanwhile
+            BloomFilter current = current();
+            return (current == null || current.mightContain(key)) && exists.test(key);
+        }
+
+        /**
+         * Adds the key now and, inside a transaction, again after commit: a key persisted before a
+         * build starts but committed after the build's read is then still added to the new filter.
+         */
+        void add(String key) {
+            if (key == null) {
+                return;
+            }
+            put(key);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        put(key);
+                    }
+                });
+            }
+        }
+
+        // Reads building before filter; build() publishes in the opposite order, so no key falls between them
+        private void put(String key) {
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(key);
+            }
+            BloomFilter current = filter;
+            if (current != null) {
+                current.put(key);
+            }
+        }
+
+        private BloomFilter current() {
+            BloomFilter current = filter;
+            if (current != null && !current.isSaturated()) {
+                return current;
+            }
+            if (!buildLock.tryLock()) {
+                return null;
+            }
+            try {
+                if (filter == current) {
+                    build();
+                }
+                return filter;
+            } finally {
+                buildLock.unlock();
+            }
+        }
+
+        // Caller holds buildLock
+        private void build() {
+            BloomFilter next = BloomFilter.create(Math.max(MIN_CAPACITY, 2 * count.getAsLong()), falsePositiveRate);
+            // Installed before the table is read, so keys saved from here on are not missed
+            building = next;
+            try {
+                readOnly.executeWithoutResult(status -> {
+                    try (Stream<String> stream = keys.get()) {
+                        stream.forEach(next::put);
+                    }
+                });
+                filter = next;
+            } finally {
+                building = null;
+            }
+            log.info("Built the import uniqueness index for {} ({} KB)", name, next.sizeInBytes() / 1024);
+        }
+    }
+}
@@ -20,19 +20,30 @@ public class JobCompletionNotificationListener implements JobExecutionListener {
             log.error("!!! EMPLOYEE IMPORT JOB FAILED! Check logs for details.");
         }
 
-        // Cleanup the temporary file
+        // Cleanup the temporary file, whatever the outcome. It holds plaintext passwords, and a
+        // failed import is uploaded again rather than restarted.
         String filePath = jobExecution.getJobParameters().getString("filePath");
         if (filePath != null) {
-            try {
-                File file = new File(filePath);
-                if (file.delete()) {
-                    log.info("Successfully deleted temporary file: {}", filePath);
-                } else {
-                    log.warn("Could not delete temporary file: {}", filePath);
-                }
-            } catch (Exception e) {
-                log.error("Error deleting temporary file: {}", filePath, e);
+            deleteTemporaryFile(new File(filePath));
+        }
+    }
+
+    /**
+     * Deletes an uploaded CSV and the temporary directory created for it.
+     */
+    public static void deleteTemporaryFile(File file) {
+        try {
+            if (file.delete()) {
+                log.info("Successfully deleted temporary file: {}", file);
+            } else if (file.exists()) {
+                log.warn("Could not delete temporary file: {}", file);
+            }
+            File directory = file.getParentFile();
+            if (directory != null && directory.getName().startsWith("csv-import-")) {
+                directory.delete();
             }
+        } catch (Exception e) {
+            log.error("Error deleting temporary file: {}", file, e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.aurionpro.papms.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits a CSV file with one header line into contiguous ranges of data lines, one per partition.
+ * Each partition's context holds {@link #START_LINE} (0-based, after the header) and
+ * {@link #LINE_COUNT}. Lines are counted on raw newlines, so quoted values must not span lines.
+ */
+public class LineRangePartitioner implements Partitioner {
+
+    public static final String START_LINE = "startLine";
+    public static final String LINE_COUNT = "lineCount";
+
+    private final Path file;
+
+    public LineRangePartitioner(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        long dataLines = Math.max(0, countLines() - 1);
+        int partitions = (int) Math.max(1, Math.min(gridSize, dataLines));
+        long size = dataLines / partitions;
+        long remainder = dataLines % partitions;
+
+        Map<String, ExecutionContext> contexts = new HashMap<>();
+        long start = 0;
+        for (int i = 0; i < partitions; i++) {
+            // The first `remainder` partitions take one extra line
+            long count = size + (i < remainder ? 1 : 0);
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(START_LINE, start);
+            context.putLong(LINE_COUNT, count);
+            contexts.put("partition" + i, context);
+            start += count;
+        }
+        return contexts;
+    }
+
+    // A last line without a trailing newline still counts
+    private long countLines() {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            byte[] buffer = new byte[64 * 1024];
+            long lines = 0;
+            int read;
+            int last = '\n';
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (read > 0) {
+                    last = buffer[read - 1];
+                }
+            }
+            return last == '\n' ? lines : lines + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import file " + file, e);
+        }
+    }
+}
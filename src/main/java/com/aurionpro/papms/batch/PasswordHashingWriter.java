@@ -0,0 +1,42 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.service.BulkPasswordHasher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sets the passwords of a chunk's new users once they are hashed. The processor starts each hash
+ * with {@link #hashLater} as the record goes by, so the chunk's passwords are hashed on the
+ * {@link BulkPasswordHasher} pool while the rest of the chunk is read; this writer runs first and
+ * waits for them before anything is saved. One instance per step execution, used by one thread.
+ */
+@RequiredArgsConstructor
+public class PasswordHashingWriter implements ItemWriter<Employee> {
+
+    private final BulkPasswordHasher bulkPasswordHasher;
+
+    private final Map<User, CompletableFuture<String>> pending = new IdentityHashMap<>();
+
+    public void hashLater(User user, String rawPassword) {
+        pending.put(user, bulkPasswordHasher.encodeAsync(rawPassword));
+    }
+
+    @Override
+    public void write(Chunk<? extends Employee> employees) {
+        for (Employee employee : employees) {
+            CompletableFuture<String> hash = pending.get(employee.getUser());
+            if (hash != null) {
+                employee.getUser().setPassword(hash.join());
+            }
+        }
+        // Records filtered out after hashing started are dropped with the chunk
+        pending.clear();
+    }
+}
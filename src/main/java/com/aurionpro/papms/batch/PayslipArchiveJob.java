@@ -0,0 +1,104 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.config.PayslipBatchConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Renders all payslips of a payroll batch and zips them, one job instance per payroll batch.
+ * <p>
+ * The job is built here rather than declared as a bean, so the employee import stays the only
+ * Job bean for Boot's startup job runner. Jobs are launched asynchronously, at most
+ * {@code app.payslips.job.max-concurrent-jobs} at a time, with up to
+ * {@code app.payslips.job.queue-capacity} more waiting; beyond that the launch is rejected with
+ * {@link TaskRejectedException} rather than blocking the request. A completed or running job is not
+ * started again; a failed one is restarted and only renders the payslips that are missing.
+ */
+@Component
+@Slf4j
+public class PayslipArchiveJob {
+
+    public static final String NAME = "payslipArchiveJob";
+
+    private final Job job;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final TaskExecutorJobLauncher launcher;
+
+    public PayslipArchiveJob(JobRepository jobRepository,
+                             JobExplorer jobExplorer,
+                             @Qualifier(PayslipBatchConfig.RENDER_STEP) Step renderStep,
+                             @Qualifier(PayslipBatchConfig.ARCHIVE_STEP) Step archiveStep,
+                             @Value("${app.payslips.job.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                             @Value("${app.payslips.job.queue-capacity:20}") int queueCapacity) throws Exception {
+        this.jobRepository = jobRepository;
+        this.jobExplorer = jobExplorer;
+        this.job = new JobBuilder(NAME, jobRepository)
+                .start(renderStep)
+                .next(archiveStep)
+                .build();
+
+        this.jobExecutor = new ThreadPoolTaskExecutor();
+        jobExecutor.setCorePoolSize(maxConcurrentJobs);
+        jobExecutor.setMaxPoolSize(maxConcurrentJobs);
+        jobExecutor.setQueueCapacity(queueCapacity);
+        jobExecutor.setThreadNamePrefix("payslip-job-");
+        jobExecutor.initialize();
+        this.launcher = new TaskExecutorJobLauncher();
+        this.launcher.setJobRepository(jobRepository);
+        this.launcher.setTaskExecutor(jobExecutor);
+        this.launcher.afterPropertiesSet();
+    }
+
+    public JobExecution launch(Long payrollBatchId) throws JobExecutionException {
+        JobParameters parameters = parameters(payrollBatchId);
+        JobExecution last = jobRepository.getLastJobExecution(NAME, parameters);
+        if (last != null && (last.isRunning() || last.getStatus() == BatchStatus.COMPLETED)) {
+            return last;
+        }
+        log.info("Starting payslip job for payroll batch {}", payrollBatchId);
+        JobExecution execution = launcher.run(job, parameters);
+        if (EmployeeImportJobLauncher.wasRejected(execution)) {
+            throw new TaskRejectedException("Payslip job queue is full; payroll batch " + payrollBatchId + " was not started");
+        }
+        return execution;
+    }
+
+    /**
+     * The latest execution for the payroll batch, with its step executions, as last persisted.
+     */
+    public Optional<JobExecution> lastExecution(Long payrollBatchId) {
+        JobExecution last = jobRepository.getLastJobExecution(NAME, parameters(payrollBatchId));
+        return last == null ? Optional.empty() : Optional.ofNullable(jobExplorer.getJobExecution(last.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdown();
+    }
+
+    private static JobParameters parameters(Long payrollBatchId) {
+        return new JobParametersBuilder()
+                .addLong(PayslipBatchConfig.PAYROLL_BATCH_ID, payrollBatchId)
+                .toJobParameters();
+    }
+}
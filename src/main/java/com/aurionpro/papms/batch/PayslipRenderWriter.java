@@ -0,0 +1,38 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import com.aurionpro.papms.service.PayslipFileStore;
+import com.aurionpro.papms.service.PayslipPdfService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Renders a chunk of payslips and stores them as files. The chunk's payments are loaded with one
+ * query, and payslips that are already stored are skipped, so restarting a failed job only
+ * renders what is missing.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayslipRenderWriter implements ItemWriter<Long> {
+
+    private final PayrollPaymentRepository payrollPaymentRepository;
+    private final PayslipPdfService payslipPdfService;
+    private final PayslipFileStore payslipFileStore;
+
+    @Override
+    public void write(Chunk<? extends Long> paymentIds) {
+        List<PayrollPayment> payments = payrollPaymentRepository.findWithDetailsByIdIn(List.copyOf(paymentIds.getItems()));
+        for (PayrollPayment payment : payments) {
+            Long payrollBatchId = payment.getPayrollBatch().getId();
+            if (payslipFileStore.findPayslip(payrollBatchId, payment.getId()).isEmpty()) {
+                payslipFileStore.storePayslip(payrollBatchId, payment.getId(), payslipPdfService.renderVersion(payment),
+                        payslipPdfService.renderPayslip(payment));
+            }
+        }
+    }
+}
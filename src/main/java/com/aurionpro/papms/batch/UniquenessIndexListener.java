@@ -0,0 +1,30 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.entity.BankAccount;
+import com.aurionpro.papms.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps {@link ImportUniquenessIndex} up to date with users and bank accounts saved anywhere in
+ * the application. Registered on the entities and created by Hibernate through Spring's bean
+ * container; the index is looked up lazily because it needs the repositories, which need the
+ * entity manager factory being built when this listener is created.
+ */
+@RequiredArgsConstructor
+public class UniquenessIndexListener {
+
+    private final ObjectProvider<ImportUniquenessIndex> uniquenessIndex;
+
+    @PostPersist
+    @PostUpdate
+    void saved(Object entity) {
+        if (entity instanceof User user) {
+            uniquenessIndex.getObject().usernameSaved(user.getUsername());
+        } else if (entity instanceof BankAccount bankAccount) {
+            uniquenessIndex.getObject().accountNumberSaved(bankAccount.getAccountNumber());
+        }
+    }
+}
@@ -258,15 +258,26 @@ package com.aurionpro.papms.config;
 
 import com.aurionpro.papms.batch.CsvEmployeeFieldSetMapper;
 import com.aurionpro.papms.batch.EmployeeCsvItemProcessor;
+import com.aurionpro.papms.batch.EmployeeImportDuplicateGuards;
+import com.aurionpro.papms.batch.EmployeeImportMetrics;
 import com.aurionpro.papms.batch.JobCompletionNotificationListener;
+import com.aurionpro.papms.batch.LineRangePartitioner;
+import com.aurionpro.papms.batch.PasswordHashingWriter;
 import com.aurionpro.papms.dto.CsvEmployeeRecord;
 import com.aurionpro.papms.entity.Employee;
 import com.aurionpro.papms.entity.Organization;
 import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.repository.*;
+import com.aurionpro.papms.service.AccountActivationService;
+import com.aurionpro.papms.service.BulkPasswordHasher;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.StepScope;
@@ -286,34 +297,73 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
 import java.util.List;
 
+/**
+ * The employee CSV import job. The file is split into line ranges that run as partitions of one
+ * worker step on a bounded pool of {@code app.employee-import.partitions} threads; each partition
+ * commits every {@code app.employee-import.chunk-size} records. Progress is recorded in the
+ * JobRepository for the status endpoints, but the job is not restartable: the uploaded file holds
+ * plaintext passwords and is deleted however the job ends, so a failed import is uploaded again.
+ * <p>
+ * Passwords are hashed on the {@link BulkPasswordHasher} pool while a chunk is read. With
+ * {@code app.employee-import.activation-tokens}, or for rows without a password, nothing is hashed:
+ * the employee is sent an activation link instead of the welcome email.
+ */
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
 public class BatchConfig {
 
+    public static final String JOB_NAME = "employeeCsvImportJob";
+    public static final String WORKER_STEP = "employeeCsvImportStep";
+
     // Dependencies are injected via the constructor
     private final EntityManagerFactory entityManagerFactory;
-    private final AppUserRepository appUserRepository;
-    private final BankAccountRepository bankAccountRepository;
     private final OrganizationRepository organizationRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final BulkPasswordHasher bulkPasswordHasher;
+    private final AccountActivationService accountActivationService;
     private final com.aurionpro.papms.emails.EmailService emailService;
+    private final EmployeeImportDuplicateGuards employeeImportDuplicateGuards;
+    private final EmployeeImportMetrics employeeImportMetrics;
+
+    @Value("${app.employee-import.partitions:4}")
+    private int partitions;
+
+    @Value("${app.employee-import.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${app.employee-import.activation-tokens:false}")
+    private boolean activationTokens;
+
+    // Not a bean, so it does not replace Boot's application task executor
+    private ThreadPoolTaskExecutor partitionExecutor;
 
     // =================================================================
     // 1. READER
     // =================================================================
+    @Bean
+    @StepScope
+    public LineRangePartitioner employeeCsvPartitioner(@Value("#{jobParameters['filePath']}") String filePath) {
+        return new LineRangePartitioner(Path.of(filePath));
+    }
+
     @Bean
     @StepScope
     public FlatFileItemReader<CsvEmployeeRecord> employeeCsvReader(
-            @Value("#{jobParameters['filePath']}") String filePath) {
-        return new FlatFileItemReaderBuilder<CsvEmployeeRecord>()
+            @Value("#{jobParameters['filePath']}") String filePath,
+            @Value("#{stepExecutionContext['" + LineRangePartitioner.START_LINE + "']}") Long startLine,
+            @Value("#{stepExecutionContext['" + LineRangePartitioner.LINE_COUNT + "']}") Long lineCount) {
+        // Reads only its partition's lines. No read position is saved, as there is no file to restart from
+        FlatFileItemReader<CsvEmployeeRecord> reader = new FlatFileItemReaderBuilder<CsvEmployeeRecord>()
                 .name("employeeCsvReader")
+                .saveState(false)
                 .resource(new FileSystemResource(filePath))
-                .linesToSkip(1)
+                .linesToSkip(1 + startLine.intValue())
                 .delimited()
                 .names("username", "password", "fullName", "email", "employeeCode",
                         "dateOfJoining", "department", "jobTitle", "accountHolderName",
@@ -321,6 +371,8 @@ public class BatchConfig {
                         "da", "pfContribution", "otherAllowances", "effectiveFromDate")
                 .fieldSetMapper(new CsvEmployeeFieldSetMapper())
                 .build();
+        reader.setMaxItemCount(lineCount.intValue());
+        return reader;
     }
 
     // =================================================================
@@ -328,12 +380,15 @@ public class BatchConfig {
     // =================================================================
     @Bean
     @StepScope
-    public EmployeeCsvItemProcessor employeeCsvProcessor() {
-        // Processor for validation and transformation from CsvRecord to Employee
+    public EmployeeCsvItemProcessor employeeCsvProcessor(
+            @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId,
+            PasswordHashingWriter employeePasswordWriter) {
+        // Processor for validation and transformation from CsvRecord to Employee;
+        // the duplicate guard is shared by all partitions of the job execution
         return new EmployeeCsvItemProcessor(
-                appUserRepository,
-                bankAccountRepository,
-                passwordEncoder
+                employeeImportDuplicateGuards.forJobExecution(jobExecutionId),
+                employeePasswordWriter,
+                activationTokens
         );
     }
 
@@ -355,11 +410,20 @@ public class BatchConfig {
     // =================================================================
     // 3. WRITERS (Efficient, separated logic)
     // =================================================================
+    @Bean
+    @StepScope
+    public PasswordHashingWriter employeePasswordWriter() {
+        // Shared with the step's processor, which starts the hashes this writer waits for
+        return new PasswordHashingWriter(bulkPasswordHasher);
+    }
+
     @Bean
     public JpaItemWriter<Employee> employeeJpaWriter() {
-        // Highly optimized writer for saving JPA entities in bulk
+        // Highly optimized writer for saving JPA entities in bulk; persist, so that the
+        // chunk's users have their ids when activation tokens are issued for them
         return new JpaItemWriterBuilder<Employee>()
                 .entityManagerFactory(entityManagerFactory)
+                .usePersist(true)
                 .build();
     }
 
@@ -374,6 +438,11 @@ public class BatchConfig {
         return chunk -> {
             for (Employee employee : chunk) {
                 try {
+                    if (AccountActivationService.isPendingActivation(employee.getUser())) {
+                        accountActivationService.sendActivationLink(employee.getUser(),
+                                organization.getContactEmail(), organization.getCompanyName());
+                        continue;
+                    }
                     String subject = "Welcome to " + organization.getCompanyName();
                     String body = String.format("""
                         <h3>Hello %s,</h3>
@@ -391,17 +460,18 @@ public class BatchConfig {
 
     @Bean
     public CompositeItemWriter<Employee> compositeEmployeeWriter(
+            PasswordHashingWriter employeePasswordWriter,
             JpaItemWriter<Employee> employeeJpaWriter,
             ItemWriter<Employee> employeeEmailWriter
     ) {
-        // Combines the DB writer and Email writer to run in sequence for each chunk
+        // Combines the password, DB and Email writers to run in sequence for each chunk
         CompositeItemWriter<Employee> writer = new CompositeItemWriter<>();
-        writer.setDelegates(List.of(employeeJpaWriter, employeeEmailWriter));
+        writer.setDelegates(List.of(employeePasswordWriter, employeeJpaWriter, employeeEmailWriter));
         return writer;
     }
 
     // =================================================================
-    // 4. THE CORRECTED STEP CONFIGURATION (The main fix)
+    // 4. STEP CONFIGURATION: one worker step, run once per line range
     // =================================================================
     @Bean
     public Step employeeCsvImportStep(JobRepository jobRepository,
@@ -411,14 +481,29 @@ public class BatchConfig {
                                       ItemProcessor<Employee, Employee> employeeOrganizationProcessor,
                                       CompositeItemWriter<Employee> compositeEmployeeWriter) {
 
-        return new StepBuilder("employeeCsvImportStep", jobRepository)
-                .<CsvEmployeeRecord, Employee>chunk(10, transactionManager) // Increased chunk size for performance
+        return new StepBuilder(WORKER_STEP, jobRepository)
+                .<CsvEmployeeRecord, Employee>chunk(chunkSize, transactionManager)
                 .reader(employeeCsvReader)
                 .processor(new CompositeItemProcessorBuilder<CsvEmployeeRecord, Employee>()
                         .delegates(employeeCsvProcessor, employeeOrganizationProcessor)
                         .build())
                 .writer(compositeEmployeeWriter) // Use the efficient composite writer
-                .listener(employeeCsvProcessor) // Add listener for @BeforeStep data loading
+                .listener((ItemReadListener<CsvEmployeeRecord>) employeeImportMetrics)
+                .listener((ItemProcessListener<CsvEmployeeRecord, Employee>) employeeImportMetrics)
+                .listener((ItemWriteListener<Employee>) employeeImportMetrics)
+                .listener((ChunkListener) employeeImportMetrics)
+                .build();
+    }
+
+    @Bean
+    public Step employeeCsvPartitionStep(JobRepository jobRepository,
+                                         Step employeeCsvImportStep,
+                                         LineRangePartitioner employeeCsvPartitioner) {
+        return new StepBuilder("employeeCsvPartitionStep", jobRepository)
+                .partitioner(WORKER_STEP, employeeCsvPartitioner)
+                .step(employeeCsvImportStep)
+                .gridSize(partitions)
+                .taskExecutor(partitionExecutor())
                 .build();
     }
 
@@ -427,13 +512,34 @@ public class BatchConfig {
     // =================================================================
     @Bean
     public Job employeeCsvImportJob(JobRepository jobRepository,
-                                    Step employeeCsvImportStep,
+                                    Step employeeCsvPartitionStep,
                                     JobCompletionNotificationListener listener) {
-        return new JobBuilder("employeeCsvImportJob", jobRepository)
+        return new JobBuilder(JOB_NAME, jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .preventRestart()
                 .listener(listener)
-                .flow(employeeCsvImportStep)
+                .listener(employeeImportDuplicateGuards)
+                .listener(employeeImportMetrics)
+                .flow(employeeCsvPartitionStep)
                 .end()
                 .build();
     }
-}
\ No newline at end of file
+
+    private synchronized ThreadPoolTaskExecutor partitionExecutor() {
+        if (partitionExecutor == null) {
+            partitionExecutor = new ThreadPoolTaskExecutor();
+            partitionExecutor.setCorePoolSize(partitions);
+            partitionExecutor.setMaxPoolSize(partitions);
+            partitionExecutor.setThreadNamePrefix("employee-import-");
+            partitionExecutor.initialize();
+        }
+        return partitionExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (partitionExecutor != null) {
+            partitionExecutor.shutdown();
+        }
+    }
+}
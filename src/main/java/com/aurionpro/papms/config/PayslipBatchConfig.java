@@ -0,0 +1,95 @@
+package com.aurionpro.papms.config;
+
+import com.aurionpro.papms.batch.PayslipRenderWriter;
+import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import com.aurionpro.papms.service.PayslipFileStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.item.support.SynchronizedItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Steps of the payslip archive job (see {@link com.aurionpro.papms.batch.PayslipArchiveJob}):
+ * render every payslip of a payroll batch to disk across a bounded pool, then zip them.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class PayslipBatchConfig {
+
+    public static final String PAYROLL_BATCH_ID = "payrollBatchId";
+    public static final String RENDER_STEP = "payslipRenderStep";
+    public static final String ARCHIVE_STEP = "payslipArchiveStep";
+
+    private final PayrollPaymentRepository payrollPaymentRepository;
+    private final PayslipFileStore payslipFileStore;
+
+    @Value("${app.payslips.job.threads:4}")
+    private int threads;
+
+    @Value("${app.payslips.job.chunk-size:25}")
+    private int chunkSize;
+
+    // Not a bean, so it does not replace Boot's application task executor
+    private ThreadPoolTaskExecutor renderExecutor;
+
+    @Bean
+    @StepScope
+    public ItemReader<Long> payslipPaymentIdReader(@Value("#{jobParameters['" + PAYROLL_BATCH_ID + "']}") Long payrollBatchId) {
+        // Ids only; the writer loads each chunk's payments with one query
+        return new SynchronizedItemReader<>(new ListItemReader<>(payrollPaymentRepository.findIdsByPayrollBatchId(payrollBatchId)));
+    }
+
+    @Bean
+    public Step payslipRenderStep(JobRepository jobRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ItemReader<Long> payslipPaymentIdReader,
+                                  PayslipRenderWriter payslipRenderWriter) {
+        return new StepBuilder(RENDER_STEP, jobRepository)
+                .<Long, Long>chunk(chunkSize, transactionManager)
+                .reader(payslipPaymentIdReader)
+                .writer(payslipRenderWriter)
+                .taskExecutor(renderExecutor())
+                .build();
+    }
+
+    @Bean
+    public Step payslipArchiveStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        return new StepBuilder(ARCHIVE_STEP, jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    Long payrollBatchId = chunkContext.getStepContext().getStepExecution()
+                            .getJobParameters().getLong(PAYROLL_BATCH_ID);
+                    contribution.incrementWriteCount(payslipFileStore.writeArchive(payrollBatchId));
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+    }
+
+    private synchronized ThreadPoolTaskExecutor renderExecutor() {
+        if (renderExecutor == null) {
+            renderExecutor = new ThreadPoolTaskExecutor();
+            renderExecutor.setCorePoolSize(threads);
+            renderExecutor.setMaxPoolSize(threads);
+            renderExecutor.setThreadNamePrefix("payslip-render-");
+            renderExecutor.initialize();
+        }
+        return renderExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (renderExecutor != null) {
+            renderExecutor.shutdown();
+        }
+    }
+}
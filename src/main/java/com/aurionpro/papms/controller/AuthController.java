@@ -8,6 +8,7 @@ import com.aurionpro.papms.dto.*;
 import com.aurionpro.papms.entity.User;
 import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.repository.AppUserRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUserCache;
 import com.aurionpro.papms.security.jwt.JwtService;
 import jakarta.validation.Valid;
 import com.aurionpro.papms.service.PasswordResetService;
@@ -44,6 +45,7 @@ public class AuthController {
     private final PasswordResetService passwordResetService;
     private final EmployeeService employeeService; // INJECT EMPLOYEE SERVICE
     private final OrganizationRepository organizationRepository;
+    private final AuthenticatedUserCache userCache;
 
 	@Value("${app.jwt.expiration}")
 	private long jwtExp;
@@ -149,6 +151,7 @@ public ResponseEntity<LoginResponseDto> login(@RequestBody AuthRequest req) {
         user.setPassword(encoder.encode(request.getNewPassword()));
         user.setRequiresPasswordChange(false);
         userRepo.save(user);
+        userCache.evict(user.getUsername());
 
         return ResponseEntity.ok("Password has been changed successfully. Please log in again.");
     }
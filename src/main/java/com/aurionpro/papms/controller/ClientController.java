@@ -3,17 +3,17 @@ package com.aurionpro.papms.controller;
 import com.aurionpro.papms.dto.*;
 import com.aurionpro.papms.service.ClientService;
 import com.aurionpro.papms.service.InvoicePdfService;
+import com.aurionpro.papms.utils.PdfDownloadResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -81,13 +81,8 @@ public class ClientController {
 
     @GetMapping("/invoices/{invoiceId}/download")
     @PreAuthorize("hasAnyRole('ORG_ADMIN', 'CLIENT')")
-    public ResponseEntity<byte[]> downloadInvoicePdf(@PathVariable Integer invoiceId) {
-        byte[] pdfBytes = invoicePdfService.generateInvoicePdf(invoiceId);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "invoice-" + invoiceId + ".pdf");
-
-        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+    public ResponseEntity<byte[]> downloadInvoicePdf(@PathVariable Integer invoiceId, WebRequest request) {
+        RenderedPdf pdf = invoicePdfService.generateInvoicePdf(invoiceId, request::checkNotModified);
+        return PdfDownloadResponses.attachment(pdf, "invoice-" + invoiceId + ".pdf", request);
     }
 }
\ No newline at end of file
@@ -3,9 +3,13 @@ package com.aurionpro.papms.controller;
 import com.aurionpro.papms.dto.*;
 import com.aurionpro.papms.dto.payroll.MyPayslipHistoryDto;
 import com.aurionpro.papms.service.EmployeeService;
+import com.aurionpro.papms.service.EmployeeImportStatusService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
@@ -14,14 +18,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.aurionpro.papms.service.PayslipPdfService;
 import com.aurionpro.papms.service.PayrollExcelReportService;
+import com.aurionpro.papms.service.PayrollCsvReportService;
+import com.aurionpro.papms.utils.PdfDownloadResponses;
+import com.aurionpro.papms.Enum.DelimitedFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import java.io.IOException;
 import com.aurionpro.papms.dto.payroll.PayrollPaymentResponse;
 import com.aurionpro.papms.service.PayrollService;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -32,7 +43,13 @@ public class EmployeeController {
     private final EmployeeService employeeService;
     private final PayslipPdfService payslipPdfService; // Inject new service
     private final PayrollExcelReportService payrollExcelReportService;
+    private final PayrollCsvReportService payrollCsvReportService;
     private final PayrollService payrollService;
+    private final EmployeeImportStatusService employeeImportStatusService;
+
+    // Streamed uploads of large files run well past the container's default async timeout (30 s on Tomcat)
+    @Value("${app.employee-import.streaming.request-timeout:PT30M}")
+    private Duration streamingRequestTimeout;
 
     @PostMapping
     @PreAuthorize("hasRole('ORG_ADMIN')")
@@ -54,6 +71,29 @@ public class EmployeeController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(path = "/bulk-upload-stream", consumes = "multipart/form-data")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "Bulk upload employees via CSV, streaming progress and failures as NDJSON",
+            description = "The stream is cut off after app.employee-import.streaming.request-timeout (30 minutes by default); "
+                    + "batches committed by then stay imported.")
+    public ResponseEntity<StreamingResponseBody> streamBulkUploadEmployees(
+            @PathVariable Integer organizationId,
+            @RequestParam("file") MultipartFile file,
+            HttpServletRequest request) throws IOException {
+
+        // Checked here, so a rejected upload gets an error status rather than a 200 with an empty stream
+        EmployeeService.BulkUploadWriter upload = employeeService.streamBulkAddEmployees(organizationId, file);
+
+        // One JSON event per line: each failure as it is found, progress after every batch, then a summary
+        StreamingResponseBody body = upload::writeTo;
+        // Only this request: other async responses keep spring.mvc.async.request-timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(streamingRequestTimeout.toMillis());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ORG_ADMIN', 'BANK_ADMIN')")
     public ResponseEntity<Page<EmployeeResponseDto>> getEmployeesByOrganization(
@@ -195,6 +235,10 @@ public class EmployeeController {
         try {
             String responseMessage = employeeService.launchCsvImportJob(organizationId, file);
             return ResponseEntity.accepted().body(responseMessage); // Return 202 Accepted
+        } catch (TaskRejectedException e) {
+            // Every import slot and queue place is taken
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many CSV imports are waiting to run. Please try again later.");
         } catch (Exception e) {
             // This catches exceptions during job LAUNCH, not during job EXECUTION
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -202,34 +246,67 @@ public class EmployeeController {
         }
     }
 
+    @GetMapping("/import-jobs")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "List the organization's running and finished CSV import jobs, newest first")
+    public ResponseEntity<List<EmployeeImportJobStatusResponse>> getImportJobs(
+            @PathVariable Integer organizationId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(employeeImportStatusService.getImportJobs(organizationId, limit));
+    }
+
+    @GetMapping("/import-jobs/{jobExecutionId}")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "Get the progress of a CSV import job")
+    public ResponseEntity<EmployeeImportJobStatusResponse> getImportJob(
+            @PathVariable Integer organizationId,
+            @PathVariable Long jobExecutionId) {
+        return ResponseEntity.ok(employeeImportStatusService.getImportJob(organizationId, jobExecutionId));
+    }
+
     @GetMapping("/payslips/{paymentId}/download")
     @PreAuthorize("hasRole('EMPLOYEE')")
     @Operation(summary = "Download a salary slip as PDF", description = "Employees can download their own salary slips.")
-    public ResponseEntity<byte[]> downloadPayslip(@PathVariable Integer organizationId, @PathVariable Long paymentId) {
-        byte[] pdfBytes = payslipPdfService.generatePayslip(paymentId);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "payslip-" + paymentId + ".pdf");
-
-        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+    public ResponseEntity<byte[]> downloadPayslip(@PathVariable Integer organizationId, @PathVariable Long paymentId, WebRequest request) {
+        RenderedPdf pdf = payslipPdfService.generatePayslip(paymentId, request::checkNotModified);
+        return PdfDownloadResponses.attachment(pdf, "payslip-" + paymentId + ".pdf", request);
     }
 
     @GetMapping("/payrolls/report/excel")
     @PreAuthorize("hasRole('ORG_ADMIN')")
     @Operation(summary = "Download a monthly payroll report as Excel")
-    public ResponseEntity<byte[]> downloadPayrollReport(
+    public ResponseEntity<StreamingResponseBody> downloadPayrollReport(
             @PathVariable Integer organizationId,
             @RequestParam int year,
-            @RequestParam int month) throws IOException {
+            @RequestParam int month) {
 
-        byte[] excelBytes = payrollExcelReportService.generatePayrollReport(organizationId, year, month);
+        // Written straight to the response as rows are read, instead of being buffered first
+        StreamingResponseBody body = out -> payrollExcelReportService.writePayrollReport(organizationId, year, month, out);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
         headers.setContentDispositionFormData("attachment", "payroll-report-" + month + "-" + year + ".xlsx");
 
-        return new ResponseEntity<>(excelBytes, headers, HttpStatus.OK);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+    @GetMapping("/payrolls/report/delimited")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "Download a monthly payroll report as CSV or TSV, optionally gzip-compressed")
+    public ResponseEntity<StreamingResponseBody> downloadDelimitedPayrollReport(
+            @PathVariable Integer organizationId,
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(defaultValue = "CSV") DelimitedFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        StreamingResponseBody body = out -> payrollCsvReportService.writePayrollReport(organizationId, year, month, format, gzip, out);
+
+        String fileName = "payroll-report-" + month + "-" + year + "." + format.getFileExtension() + (gzip ? ".gz" : "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"));
+        headers.setContentDispositionFormData("attachment", fileName);
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
     @GetMapping("/payslips/{paymentId}")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ORG_ADMIN')")
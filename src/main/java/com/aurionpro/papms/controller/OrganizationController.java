@@ -103,8 +103,8 @@ public class OrganizationController {
     @GetMapping("/pending")
    // @PreAuthorize("hasAuthority('BANK_ADMIN')")
     @PreAuthorize("hasRole('BANK_ADMIN')")
-    public ResponseEntity<List<Organization>> getPendingOrganizations() {
-        List<Organization> pendingOrgs = organizationService.getPendingOrganizations();
+    public ResponseEntity<List<OrganizationResponseDto>> getPendingOrganizations() {
+        List<OrganizationResponseDto> pendingOrgs = organizationService.getPendingOrganizations();
         return ResponseEntity.ok(pendingOrgs);
     }
 
@@ -122,12 +122,12 @@ public class OrganizationController {
     @GetMapping("/by-name/{companyName}")
    @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('BANK_ADMIN', 'ORG_ADMIN')")
-    public ResponseEntity<OrganizationResponseDtowithEmployee> getOrganizationByName(@PathVariable String companyName) {
+    public ResponseEntity<OrganizationResponseDto> getOrganizationByName(@PathVariable String companyName) {
 //        ResponseEntity<Organization> ORG = organizationService.getOrganizationByName(companyName)
 //                .map(ResponseEntity::ok)
 //                .orElse(ResponseEntity.notFound().build());
         return organizationService.getOrganizationByName(companyName)
-                .map(org -> ResponseEntity.ok(OrganizationMapper.toDtoWithEmployees(org)))
+                .map(org -> ResponseEntity.ok(OrganizationMapper.toDto(org)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -154,18 +154,25 @@ public class OrganizationController {
     @PutMapping("/{id}/reject")
     //@PreAuthorize("hasAuthority('BANK_ADMIN')")
     @PreAuthorize("hasRole('BANK_ADMIN')")
-    public ResponseEntity<Organization> rejectOrganization(@PathVariable Integer id, @RequestBody String rejectionReason) {
+    public ResponseEntity<OrganizationResponseDto> rejectOrganization(@PathVariable Integer id, @RequestBody String rejectionReason) {
         Organization rejectedOrg = organizationService.rejectOrganization(id, rejectionReason);
-        return ResponseEntity.ok(rejectedOrg);
+        return ResponseEntity.ok(OrganizationMapper.toDto(rejectedOrg));
     }
 
     // Endpoint for Bank Admin to suspend an organization
     @PutMapping("/{id}/suspend")
     //@PreAuthorize("hasAuthority('BANK_ADMIN')")
     @PreAuthorize("hasRole('BANK_ADMIN')")
-    public ResponseEntity<Organization> suspendOrganization(@PathVariable Integer id) {
+    public ResponseEntity<OrganizationResponseDto> suspendOrganization(@PathVariable Integer id) {
         Organization suspendedOrg = organizationService.suspendOrganization(id);
-        return ResponseEntity.ok(suspendedOrg);
+        return ResponseEntity.ok(OrganizationMapper.toDto(suspendedOrg));
+    }
+
+    @PutMapping(value = "/logo", consumes = "multipart/form-data")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    public ResponseEntity<OrganizationResponseDto> updateLogo(@RequestPart("logo") MultipartFile logo) {
+        Organization updatedOrg = organizationService.updateLogo(logo);
+        return ResponseEntity.ok(OrganizationMapper.toDto(updatedOrg));
     }
 
     // Endpoint to get an organization's profile
@@ -2,15 +2,21 @@ package com.aurionpro.papms.controller;
 
 import com.aurionpro.papms.dto.payroll.CreatePayrollRequest;
 import com.aurionpro.papms.dto.payroll.PayrollBatchResponse;
+import com.aurionpro.papms.dto.payroll.PayslipArchiveStatusResponse;
 import com.aurionpro.papms.service.PayrollService;
+import com.aurionpro.papms.service.PayslipArchiveService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 public class PayrollController {
 
     private final PayrollService payrollService;
+    private final PayslipArchiveService payslipArchiveService;
 
     @PostMapping("/organizations/{organizationId}/payrolls")
     @PreAuthorize("hasRole('ORG_ADMIN')")
@@ -71,4 +78,28 @@ public class PayrollController {
             @RequestBody String reason) {
         return ResponseEntity.ok(payrollService.rejectPayroll(batchId, reason));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/payrolls/{batchId}/payslips")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "Start rendering all payslips of an approved payroll batch into a ZIP")
+    public ResponseEntity<PayslipArchiveStatusResponse> startPayslipArchive(@PathVariable Long batchId) {
+        return ResponseEntity.accepted().body(payslipArchiveService.startArchive(batchId));
+    }
+
+    @GetMapping("/payrolls/{batchId}/payslips")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "Get the progress of the payslip job for a payroll batch")
+    public ResponseEntity<PayslipArchiveStatusResponse> getPayslipArchiveStatus(@PathVariable Long batchId) {
+        return ResponseEntity.ok(payslipArchiveService.getArchiveStatus(batchId));
+    }
+
+    @GetMapping("/payrolls/{batchId}/payslips/archive")
+    @PreAuthorize("hasRole('ORG_ADMIN')")
+    @Operation(summary = "Download all payslips of a payroll batch as a ZIP")
+    public ResponseEntity<Resource> downloadPayslipArchive(@PathVariable Long batchId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "payslips-" + batchId + ".zip");
+        return new ResponseEntity<>(new FileSystemResource(payslipArchiveService.getArchive(batchId)), headers, HttpStatus.OK);
+    }
+}
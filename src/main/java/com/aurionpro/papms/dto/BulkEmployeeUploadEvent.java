@@ -0,0 +1,40 @@
+package com.aurionpro.papms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a streamed bulk upload: a failed row, progress after a batch, the final summary, or
+ * an error that ended the upload early. Only the fields that apply to the event's type are present.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkEmployeeUploadEvent {
+
+    public enum Type { FAILURE, PROGRESS, SUMMARY, ERROR }
+
+    private Type type;
+
+    // FAILURE
+    private FailedEmployeeRecord failure;
+
+    // PROGRESS and SUMMARY
+    private Long rowsProcessed;
+    private Long totalRows;
+    private Integer successfulImports;
+    private Integer failedImports;
+
+    // SUMMARY and ERROR
+    private String message;
+    private BigDecimal totalMonthlySalary;
+    private Integer employeesWithBankAccounts;
+    private Integer employeesWithSalaryStructure;
+}
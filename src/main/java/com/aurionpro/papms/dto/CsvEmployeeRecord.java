@@ -7,6 +7,9 @@ import java.time.LocalDate;
 
 @Data
 public class CsvEmployeeRecord {
+    // Position in the uploaded file, for reporting; 0 when not read from a file
+    private long recordNumber;
+
     // User fields
     private String username;
     private String password;
@@ -0,0 +1,40 @@
+package com.aurionpro.papms.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class EmployeeImportJobStatusResponse {
+    private Long jobExecutionId;
+    private String status; // Spring Batch status of the import job, e.g. STARTED, COMPLETED, FAILED
+    private String exitDescription;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+    private long totalRows;
+    private long readCount;
+    private long writeCount;
+    private long filterCount; // invalid or duplicate rows
+    private long skipCount;
+    private long rollbackCount;
+    private double itemsPerSecond;
+    private Long estimatedSecondsRemaining; // only while running
+    private List<PartitionStatus> partitions;
+
+    @Data
+    @Builder
+    public static class PartitionStatus {
+        private String name;
+        private String status;
+        private long totalRows;
+        private long readCount;
+        private long writeCount;
+        private long filterCount;
+        private long skipCount;
+        private long commitCount;
+        private Double averageChunkMillis;
+    }
+}
@@ -0,0 +1,17 @@
+package com.aurionpro.papms.dto;
+
+/**
+ * A rendered PDF and its entity tag. The tag is derived from the document's inputs, so it changes
+ * whenever the document would render differently. The content is null when the client already
+ * holds this version and nothing was read or rendered.
+ */
+public record RenderedPdf(String etag, byte[] content) {
+
+    public static RenderedPdf notModified(String etag) {
+        return new RenderedPdf(etag, null);
+    }
+
+    public boolean isNotModified() {
+        return content == null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.aurionpro.papms.dto.payroll;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PayslipArchiveStatusResponse {
+    private Long payrollBatchId;
+    private String status; // Spring Batch status of the payslip job, e.g. STARTED, COMPLETED, FAILED
+    private int totalPayslips;
+    private long renderedPayslips;
+    private boolean archiveReady;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+}
@@ -1,37 +1,294 @@
 package com.aurionpro.papms.emails;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.aurionpro.papms.entity.NotificationOutbox;
+import com.aurionpro.papms.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.mail.javamail.MimeMessagePreparator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Sends application mail through an asynchronous pipeline.
+ * <p>
+ * Messages requested inside a transaction are queued only after it commits, so a rollback sends
+ * nothing and SMTP latency never holds database connections or row locks. A small pool of
+ * workers drains the bounded queue in batches; each batch goes through a single
+ * {@link JavaMailSender#send(MimeMessage...)} call, which reuses one SMTP connection for all
+ * of its messages. Failed messages are retried with exponential backoff. When the queue is full
+ * the caller sends the message itself, which slows producers down instead of dropping mail.
+ * <p>
+ * Setting {@code app.mail.async.enabled=false} restores synchronous sending. With
+ * {@code app.mail.outbox.enabled=true} messages are instead written to the notification outbox
+ * in the caller's transaction and delivered by {@link NotificationOutboxRelay}, which survives
+ * restarts between commit and send.
+ */
 @Service
+@Slf4j
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private final JavaMailSender mailSender;
+    private final NotificationOutboxRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    @Value("${app.mail.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${app.mail.async.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.async.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.async.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.async.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    private BlockingQueue<OutgoingEmail> queue;
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private Timer sendTimer;
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    public EmailService(JavaMailSender mailSender, NotificationOutboxRepository outboxRepository, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.outboxRepository = outboxRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        sendTimer = Timer.builder("papms.mail.send")
+                .description("Time taken to hand a batch of messages to the SMTP server")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("papms.mail.messages", "outcome", "sent");
+        retriedCounter = meterRegistry.counter("papms.mail.messages", "outcome", "retried");
+        failedCounter = meterRegistry.counter("papms.mail.messages", "outcome", "failed");
+
+        if (!asyncEnabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("papms.mail.queue.depth", queue, BlockingQueue::size)
+                .description("Messages waiting to be sent")
+                .register(meterRegistry);
+
+        running = true;
+        AtomicInteger workerNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::drainQueue);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!asyncEnabled) {
+            return;
+        }
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Mail workers did not finish in time; {} message(s) left unsent.", queue.size());
+            workerPool.shutdownNow();
+        }
+    }
 
     // Send email with custom from address (for different organizations or the bank)
     public void sendEmail(String from, String to, String subject, String body) {
-        MimeMessagePreparator messagePreparator = mimeMessage -> {
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
-            helper.setFrom(from);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true); // true means HTML content
-        };
-        mailSender.send(messagePreparator);
+        submit(List.of(new OutgoingEmail(from, to, subject, body)));
     }
 
     // Send email to multiple employees (e.g., salary notification)
     public void sendEmailsToMultiple(List<String> toEmails, String from, String subject, String body) {
-        for (String to : toEmails) {
-            sendEmail(from, to, subject, body);
+        submit(toEmails.stream().map(to -> new OutgoingEmail(from, to, subject, body)).toList());
+    }
+
+    /**
+     * Sends the messages right away on the calling thread, over a single SMTP connection, and
+     * returns the messages that failed with their cause. An empty map means everything was sent.
+     */
+    public Map<OutgoingEmail, Exception> deliver(List<OutgoingEmail> emails) {
+        Map<OutgoingEmail, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, OutgoingEmail> messages = new IdentityHashMap<>();
+        for (OutgoingEmail email : emails) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MailException e) {
+                failures.put(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // Only the messages listed as failed went wrong; the rest of the batch went through
+                Map<Object, Exception> failed = e.getFailedMessages();
+                if (failed.isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, e));
+                } else {
+                    failed.forEach((message, cause) -> {
+                        OutgoingEmail email = messages.get(message);
+                        if (email != null) {
+                            failures.put(email, cause);
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e));
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        sentCounter.increment(emails.size() - failures.size());
+        return failures;
+    }
+
+    private void submit(List<OutgoingEmail> emails) {
+        if (outboxEnabled) {
+            // Written in the caller's transaction; NotificationOutboxRelay sends them once committed
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.saveAll(emails.stream().map(email -> NotificationOutbox.builder()
+                    .fromAddress(email.from())
+                    .toAddress(email.to())
+                    .subject(email.subject())
+                    .body(email.body())
+                    .nextAttemptAt(now)
+                    .build()).toList());
+            return;
+        }
+        if (!asyncEnabled) {
+            Map<OutgoingEmail, Exception> failures = deliver(emails);
+            if (!failures.isEmpty()) {
+                failedCounter.increment(failures.size());
+                throw new MailSendException("Failed to send " + failures.size() + " email(s)", failures.values().iterator().next());
+            }
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(emails);
+                }
+            });
+        } else {
+            enqueue(emails);
+        }
+    }
+
+    private void enqueue(List<OutgoingEmail> emails) {
+        for (OutgoingEmail email : emails) {
+            if (!running || !queue.offer(email)) {
+                log.warn("Mail queue unavailable or full; sending message to {} on the calling thread.", email.to());
+                sendBatch(List.of(email));
+            }
+        }
+    }
+
+    private void drainQueue() {
+        List<OutgoingEmail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutgoingEmail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in mail worker", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<OutgoingEmail> batch) {
+        deliver(batch).forEach(this::retry);
+    }
+
+    private void retry(OutgoingEmail email, Exception cause) {
+        if (email.attempt() >= maxAttempts || retryScheduler == null || retryScheduler.isShutdown()) {
+            log.error("Giving up on email '{}' to {} after {} attempt(s)", email.subject(), email.to(), email.attempt(), cause);
+            failedCounter.increment();
+            return;
+        }
+        long delay = initialBackoffMs << (email.attempt() - 1);
+        log.warn("Sending email to {} failed (attempt {}), retrying in {} ms: {}", email.to(), email.attempt(), delay, cause.getMessage());
+        retriedCounter.increment();
+        retryScheduler.schedule(() -> enqueue(List.of(email.nextAttempt())), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private MimeMessage toMimeMessage(OutgoingEmail email) {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
+            helper.setFrom(email.from());
+            helper.setTo(email.to());
+            helper.setSubject(email.subject());
+            helper.setText(email.body(), true); // true means HTML content
+            if (email.messageId() != null) {
+                // JavaMailSenderImpl keeps a Message-ID that is already set instead of generating a new one
+                mimeMessage.setHeader("Message-ID", email.messageId());
+            }
+        } catch (MessagingException e) {
+            throw new MailSendException("Could not prepare email to " + email.to(), e);
         }
+        return mimeMessage;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.aurionpro.papms.emails;
+
+import com.aurionpro.papms.Enum.OutboxStatus;
+import com.aurionpro.papms.entity.NotificationOutbox;
+import com.aurionpro.papms.repository.NotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the notification outbox to the mailer in batches.
+ * <p>
+ * Each batch is claimed with row locks, sent, and marked SENT in the same transaction, so a
+ * notification committed by a business transaction is never lost. If the process dies after the
+ * SMTP hand-off but before that transaction commits, the batch is sent again on the next poll;
+ * every message carries a Message-ID derived from its outbox id, so the copies are recognisable
+ * as the same message downstream.
+ */
+@Component
+@Slf4j
+public class NotificationOutboxRelay {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.mail.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.mail.outbox.retention-days:14}")
+    private long retentionDays;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   EmailService emailService,
+                                   PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void relay() {
+        if (!outboxEnabled) {
+            return;
+        }
+        try {
+            int dispatched;
+            do {
+                Integer count = transactionTemplate.execute(status -> dispatchBatch());
+                dispatched = count != null ? count : 0;
+            } while (dispatched == batchSize);
+        } catch (Exception e) {
+            log.error("Error while relaying the notification outbox", e);
+        }
+    }
+
+    /**
+     * Runs every day at 4:00 AM server time to remove delivered notifications older than the retention period.
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void purgeSentNotifications() {
+        if (!outboxEnabled) {
+            return;
+        }
+        try {
+            Integer purged = transactionTemplate.execute(status -> outboxRepository.deleteByStatusAndSentAtBefore(
+                    OutboxStatus.SENT, LocalDateTime.now().minusDays(retentionDays)));
+            log.info("Purged {} delivered notifications from the outbox.", purged);
+        } catch (Exception e) {
+            log.error("Error during notification outbox cleanup", e);
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> due = outboxRepository.claimDueForDispatch(now, batchSize);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<OutgoingEmail, NotificationOutbox> emails = new IdentityHashMap<>();
+        for (NotificationOutbox notification : due) {
+            emails.put(new OutgoingEmail(notification.getFromAddress(), notification.getToAddress(),
+                    notification.getSubject(), notification.getBody(),
+                    "<outbox-" + notification.getId() + "@papms>", notification.getAttempts() + 1), notification);
+        }
+
+        Map<OutgoingEmail, Exception> failures = emailService.deliver(List.copyOf(emails.keySet()));
+
+        emails.forEach((email, notification) -> {
+            notification.setAttempts(notification.getAttempts() + 1);
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                notification.setStatus(OutboxStatus.SENT);
+                notification.setSentAt(now);
+                notification.setLastError(null);
+                return;
+            }
+            notification.setLastError(truncate(failure.getMessage()));
+            if (notification.getAttempts() >= maxAttempts) {
+                notification.setStatus(OutboxStatus.FAILED);
+                log.error("Giving up on outbox notification {} to {} after {} attempts", notification.getId(), notification.getToAddress(), notification.getAttempts());
+            } else {
+                notification.setNextAttemptAt(now.plusSeconds(initialBackoffSeconds << (notification.getAttempts() - 1)));
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            log.warn("{} of {} outbox notification(s) failed and will be retried", failures.size(), due.size());
+        }
+        return due.size();
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.aurionpro.papms.emails;
+
+/**
+ * A message waiting in the mail pipeline. {@code attempt} starts at 1 and grows with every retry.
+ * {@code messageId}, when set, becomes the Message-ID header so that a message delivered twice
+ * can be recognised as the same message by the receiving side.
+ */
+public record OutgoingEmail(String from, String to, String subject, String body, String messageId, int attempt) {
+
+    public OutgoingEmail(String from, String to, String subject, String body) {
+        this(from, to, subject, body, null, 1);
+    }
+
+    OutgoingEmail nextAttempt() {
+        return new OutgoingEmail(from, to, subject, body, messageId, attempt + 1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.aurionpro.papms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compacted balance of an organization in journal ledger mode: the balance after every
+ * transaction up to and including {@code lastTransactionId}, and the running total of journal
+ * debits at that point (see {@link JournalAccount#getDebitedTotal()}).
+ */
+@Entity
+@Table(name = "balance_snapshots",
+        indexes = @Index(name = "idx_balance_snapshot_org_txn", columnList = "organization_id, last_transaction_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id", nullable = false)
+    private Organization organization;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @Column(name = "debited_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal debitedTotal;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
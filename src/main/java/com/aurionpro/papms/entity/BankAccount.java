@@ -1,6 +1,7 @@
 package com.aurionpro.papms.entity;
 
 import com.aurionpro.papms.Enum.OwnerType;
+import com.aurionpro.papms.batch.UniquenessIndexListener;
 import com.aurionpro.papms.entity.vendorEntity.Vendor;
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,6 +11,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UniquenessIndexListener.class)
 @Table(name = "bank_accounts")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,33 @@
+package com.aurionpro.papms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which organization started an employee CSV import job execution, recorded at launch so an
+ * organization's imports can be listed without scanning every job instance in the JobRepository.
+ */
+@Entity
+@Table(name = "employee_import_jobs",
+        indexes = @Index(name = "idx_employee_import_jobs_org", columnList = "organization_id, job_execution_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeImportJob {
+
+    @Id
+    @Column(name = "job_execution_id")
+    private Long jobExecutionId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Integer organizationId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.aurionpro.papms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An organization's entry point to the journal ledger, created on its first journal write.
+ * It records where the journal starts (the balance and last transaction before the switch) and
+ * the running total of journal debits. Debits lock this row, so each one sees every earlier debit.
+ */
+@Entity
+@Table(name = "journal_accounts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalAccount {
+
+    @Id
+    @Column(name = "organization_id")
+    private Integer organizationId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id")
+    private Organization organization;
+
+    @Column(name = "seed_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal seedBalance;
+
+    @Column(name = "seed_transaction_id", nullable = false)
+    private Long seedTransactionId;
+
+    @Column(name = "debited_total", nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private BigDecimal debitedTotal = BigDecimal.ZERO;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -4,7 +4,9 @@ import com.aurionpro.papms.Enum.OrganizationStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import java.math.BigDecimal;
@@ -17,6 +19,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Only write changed columns, so an unrelated update never overwrites internal_balance with a stale value
+@DynamicUpdate
 public class Organization {
 
     @Id
@@ -58,7 +62,9 @@ public class Organization {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
-    @OneToMany(mappedBy = "organization", fetch = FetchType.EAGER)
+    // Never fetched with the organization; page through EmployeeRepository.findByOrganizationId instead
+    @OneToMany(mappedBy = "organization", fetch = FetchType.LAZY)
+    @JsonIgnore
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Employee> employees;
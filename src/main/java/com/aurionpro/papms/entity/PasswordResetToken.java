@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
@@ -36,6 +37,15 @@ public class PasswordResetToken {
         this.expiryDate = calculateExpiryDate();
     }
 
+    /**
+     * A token with its own validity, such as an account activation link sent with a new account.
+     */
+    public PasswordResetToken(String token, User user, Duration validity) {
+        this.token = token;
+        this.user = user;
+        this.expiryDate = LocalDateTime.now().plus(validity);
+    }
+
     private LocalDateTime calculateExpiryDate() {
         return LocalDateTime.now().plusMinutes(EXPIRATION_MINUTES);
     }
@@ -1,6 +1,7 @@
 package com.aurionpro.papms.entity;
 
 import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.batch.UniquenessIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UniquenessIndexListener.class)
 @Table(name = "users") // Changed from 'user' to 'users' for consistency
 @Data
 @NoArgsConstructor
@@ -3,6 +3,7 @@ package com.aurionpro.papms.exception;
 import java.time.Instant;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -27,6 +28,14 @@ public class GlobalExceptionHandler {
 				.body(new ApiError(Instant.now(), 400, "Bad Request", ex.getMessage(), req.getRequestURI()));
 	}
 
+	// A job launcher's queue is full; the request can be retried later
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity<ApiError> handleTaskRejected(TaskRejectedException ex, HttpServletRequest req) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.body(new ApiError(Instant.now(), 503, "Service Unavailable",
+						"Too many jobs are waiting to run. Please try again later.", req.getRequestURI()));
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ApiError> handleGeneric(Exception ex, HttpServletRequest req) {
 		log.error("Unexpected error", ex);
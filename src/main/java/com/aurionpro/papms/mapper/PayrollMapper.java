@@ -6,11 +6,22 @@ import com.aurionpro.papms.entity.PayrollBatch;
 import com.aurionpro.papms.entity.PayrollPayment;
 
 import java.math.BigDecimal; // Import BigDecimal
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class PayrollMapper {
 
     public static PayrollBatchResponse toDto(PayrollBatch batch) {
+        return toDto(batch, batch.getPayments());
+    }
+
+    // Without the payments, whose count grows with headcount; getPayrollById returns them
+    public static PayrollBatchResponse toSummaryDto(PayrollBatch batch) {
+        return toDto(batch, null);
+    }
+
+    // Used when the payments were written outside the batch's collection (JDBC bulk insert)
+    public static PayrollBatchResponse toDto(PayrollBatch batch, List<PayrollPayment> payments) {
         return PayrollBatchResponse.builder()
                 .id(batch.getId())
                 .organizationId(batch.getOrganization().getId())
@@ -24,7 +35,7 @@ public class PayrollMapper {
                 .approvedBy(batch.getApprovedByUser() != null ? batch.getApprovedByUser().getFullName() : "N/A")
                 .rejectionReason(batch.getRejectionReason())
                 .createdAt(batch.getCreatedAt())
-                .payments(batch.getPayments().stream().map(PayrollMapper::toDto).collect(Collectors.toList()))
+                .payments(payments != null ? payments.stream().map(PayrollMapper::toDto).collect(Collectors.toList()) : null)
                 .build();
     }
 
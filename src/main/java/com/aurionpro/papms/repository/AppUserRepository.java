@@ -2,20 +2,37 @@ package com.aurionpro.papms.repository;
 
 import com.aurionpro.papms.Enum.Role;
 import com.aurionpro.papms.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface AppUserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
     Long countUserByRoleEquals(Role role);
     List<User> findByOrganizationId(Integer organizationId);
 
     @Query("SELECT u FROM User u WHERE u.organizationId = :organizationId AND u.role = :role")
     List<User> findByOrganizationIdAndRole(@Param("organizationId") Integer organizationId,
                                            @Param("role") Role role);
+
+    // Every username as a cursor, for the import uniqueness index; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamAllUsernames();
 }
\ No newline at end of file
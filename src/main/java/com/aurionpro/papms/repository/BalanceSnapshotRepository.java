@@ -0,0 +1,13 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findTopByOrganizationIdOrderByLastTransactionIdDesc(Integer organizationId);
+}
@@ -1,19 +1,28 @@
 package com.aurionpro.papms.repository;
 
 import com.aurionpro.papms.entity.BankAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
 
     boolean existsByAccountNumber(String accountNumber);
 
+    @Query("SELECT ba.accountNumber FROM BankAccount ba WHERE ba.accountNumber IN :accountNumbers")
+    Set<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
     Optional<BankAccount> findByEmployeeId(Long employeeId);
 
     List<BankAccount> findByEmployeeOrganizationId(Integer organizationId);
@@ -39,10 +48,19 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
 
     List<BankAccount> findByVendorId(Long vendorId);
 
+    // Primary accounts for a page of vendors, so a listing does not look them up one vendor at a time
+    @Query("SELECT ba FROM BankAccount ba WHERE ba.vendor.id IN :vendorIds AND ba.isPrimary = true")
+    List<BankAccount> findPrimaryByVendorIdIn(@Param("vendorIds") Collection<Long> vendorIds);
+
 
     @Query("SELECT ba FROM BankAccount ba WHERE ba.vendor.id = :vendorId AND ba.ownerType = 'VENDOR'")
     Optional<BankAccount> findPrimaryByVendorId(@Param("vendorId") Long vendorId);
 
     @Query("SELECT ba FROM BankAccount ba WHERE ba.ownerType = 'VENDOR' AND ba.vendor.organization.id = :organizationId")
     List<BankAccount> findVendorAccountsByOrganizationId(@Param("organizationId") Integer organizationId);
-}
\ No newline at end of file
+
+    // Every account number as a cursor, for the import uniqueness index; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT ba.accountNumber FROM BankAccount ba")
+    Stream<String> streamAllAccountNumbers();
+}
@@ -0,0 +1,152 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.entity.BankAccount;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.SalaryStructure;
+import com.aurionpro.papms.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Inserts new employees with JDBC batches, one per table: their users, the employees, their
+ * primary bank accounts and their salary structures. All four entities use IDENTITY ids, which
+ * Hibernate cannot batch, so a cascaded save costs four INSERTs per employee. Here each table
+ * gets one batch (a single multi-row INSERT when the MySQL driver runs with
+ * {@code rewriteBatchedStatements=true}), and the generated ids are copied back to the entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeBulkWriter {
+
+    private static final String USER_SQL =
+            "INSERT INTO users (username, password, full_name, email, role, organization_id, is_active, " +
+                    "requires_password_change, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EMPLOYEE_SQL =
+            "INSERT INTO employees (user_id, organization_id, employee_code, date_of_joining, department, job_title, " +
+                    "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String BANK_ACCOUNT_SQL =
+            "INSERT INTO bank_accounts (employee_id, owner_type, account_holder_name, account_number, bank_name, " +
+                    "ifsc_code, is_primary, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SALARY_STRUCTURE_SQL =
+            "INSERT INTO salary_structures (employee_id, basic_salary, hra, da, pf_contribution, other_allowances, " +
+                    "effective_from_date, is_active, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @FunctionalInterface
+    private interface RowSetter<T> {
+        void setValues(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    /**
+     * Inserts the employees, each with its user, bank account and salary structures, which must
+     * all be new. Must run inside a transaction so the four tables commit or roll back together.
+     */
+    public void insertAll(List<Employee> employees) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        insert(USER_SQL, employees.stream().map(Employee::getUser).toList(), (ps, user) -> {
+            ps.setString(1, user.getUsername());
+            ps.setString(2, user.getPassword());
+            ps.setString(3, user.getFullName());
+            ps.setString(4, user.getEmail());
+            ps.setString(5, user.getRole().name());
+            ps.setObject(6, user.getOrganizationId());
+            ps.setObject(7, user.getIsActive());
+            ps.setObject(8, user.getRequiresPasswordChange());
+            ps.setTimestamp(9, timestamp);
+            ps.setTimestamp(10, timestamp);
+        }, User::setId);
+
+        insert(EMPLOYEE_SQL, employees, (ps, employee) -> {
+            ps.setLong(1, employee.getUser().getId());
+            ps.setInt(2, employee.getOrganization().getId());
+            ps.setString(3, employee.getEmployeeCode());
+            ps.setDate(4, employee.getDateOfJoining() != null ? Date.valueOf(employee.getDateOfJoining()) : null);
+            ps.setString(5, employee.getDepartment());
+            ps.setString(6, employee.getJobTitle());
+            ps.setObject(7, employee.getIsActive());
+            ps.setTimestamp(8, timestamp);
+            ps.setTimestamp(9, timestamp);
+        }, Employee::setId);
+
+        insert(BANK_ACCOUNT_SQL, employees.stream().map(Employee::getBankAccount).toList(), (ps, account) -> {
+            ps.setLong(1, account.getEmployee().getId());
+            ps.setString(2, account.getOwnerType().name());
+            ps.setString(3, account.getAccountHolderName());
+            ps.setString(4, account.getAccountNumber());
+            ps.setString(5, account.getBankName());
+            ps.setString(6, account.getIfscCode());
+            ps.setBoolean(7, account.isPrimary());
+            ps.setTimestamp(8, timestamp);
+            ps.setTimestamp(9, timestamp);
+        }, BankAccount::setId);
+
+        insert(SALARY_STRUCTURE_SQL, employees.stream().flatMap(e -> e.getSalaryStructures().stream()).toList(), (ps, salary) -> {
+            ps.setLong(1, salary.getEmployee().getId());
+            ps.setBigDecimal(2, salary.getBasicSalary());
+            ps.setBigDecimal(3, salary.getHra());
+            ps.setBigDecimal(4, salary.getDa());
+            ps.setBigDecimal(5, salary.getPfContribution());
+            ps.setBigDecimal(6, salary.getOtherAllowances());
+            ps.setDate(7, Date.valueOf(salary.getEffectiveFromDate()));
+            ps.setObject(8, salary.getIsActive());
+            ps.setTimestamp(9, timestamp);
+        }, SalaryStructure::setId);
+
+        for (Employee employee : employees) {
+            employee.setCreatedAt(now);
+            employee.setUpdatedAt(now);
+            employee.getUser().setCreatedAt(now);
+            employee.getUser().setUpdatedAt(now);
+            employee.getBankAccount().setCreatedAt(now);
+            employee.getBankAccount().setUpdatedAt(now);
+            employee.getSalaryStructures().forEach(salary -> salary.setCreatedAt(now));
+        }
+    }
+
+    private <T> void insert(String sql, List<T> rows, RowSetter<T> setter, BiConsumer<T, Long> idSetter) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setter.setValues(ps, rows.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+
+        // The next table refers to these ids, so a missing one must not go unnoticed
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids but the driver returned " + keys.size());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            idSetter.accept(rows.get(i), ((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.entity.EmployeeImportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmployeeImportJobRepository extends JpaRepository<EmployeeImportJob, Long> {
+
+    // Newest first; execution ids grow with each launch
+    @Query("SELECT j.jobExecutionId FROM EmployeeImportJob j WHERE j.organizationId = :organizationId " +
+            "ORDER BY j.jobExecutionId DESC")
+    List<Long> findJobExecutionIds(Integer organizationId, Pageable pageable);
+}
@@ -4,21 +4,34 @@ import com.aurionpro.papms.entity.BankAccount;
 import com.aurionpro.papms.entity.Employee;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByUserId(Long userId);
     List<Employee> findByOrganizationId(Integer organizationId);
 
+    @EntityGraph(attributePaths = {"user", "organization", "bankAccount", "salaryStructures"})
+    List<Employee> findWithDetailsByOrganizationId(Integer organizationId);
+
     //paginaon ke leye dekhte he
+    // bankAccount is the inverse side of a one-to-one, which Hibernate would otherwise load row by row
+    @EntityGraph(attributePaths = {"user", "organization", "bankAccount"})
     Page<Employee> findByOrganizationId(Integer organizationId, Pageable pageable);
+    long countByOrganizationIdAndIsActiveTrue(Integer organizationId);
     boolean existsByOrganizationIdAndEmployeeCode(Integer organizationId, String employeeCode);
 
+    @Query("SELECT e.employeeCode FROM Employee e WHERE e.organization.id = :organizationId AND e.employeeCode IN :employeeCodes")
+    Set<String> findExistingEmployeeCodes(@Param("organizationId") Integer organizationId,
+                                          @Param("employeeCodes") Collection<String> employeeCodes);
+
     @Query("SELECT e FROM Employee e WHERE e.organization.id = :organizationId AND e.user.username = :username")
     Optional<Employee> findByOrganizationIdAndUsername(@Param("organizationId") Integer organizationId,
                                                        @Param("username") String username);
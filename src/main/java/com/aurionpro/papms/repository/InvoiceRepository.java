@@ -1,6 +1,7 @@
 package com.aurionpro.papms.repository;
 
 import com.aurionpro.papms.entity.Invoice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -34,4 +35,13 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Integer> {
      * @return An Optional containing the invoice if found.
      */
     Optional<Invoice> findByInvoiceNumberAndOrganizationId(String invoiceNumber, Integer organizationId);
-}
\ No newline at end of file
+
+    /**
+     * Finds an invoice together with the organization, client and client user shown on its PDF.
+     *
+     * @param id The ID of the invoice.
+     * @return An Optional containing the invoice if found.
+     */
+    @EntityGraph(attributePaths = {"organization", "client", "client.user"})
+    Optional<Invoice> findWithPartiesById(Integer id);
+}
@@ -0,0 +1,40 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.entity.JournalAccount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface JournalAccountRepository extends JpaRepository<JournalAccount, Integer> {
+
+    interface AccountState {
+        BigDecimal getSeedBalance();
+
+        Long getSeedTransactionId();
+
+        BigDecimal getDebitedTotal();
+    }
+
+    /**
+     * Locks the account and reads its latest committed state, including debits committed while waiting for the lock.
+     */
+    @Query(value = "SELECT seed_balance AS seedBalance, seed_transaction_id AS seedTransactionId, debited_total AS debitedTotal " +
+            "FROM journal_accounts WHERE organization_id = :organizationId FOR UPDATE", nativeQuery = true)
+    AccountState lockState(Integer organizationId);
+
+    @Query("SELECT a.seedBalance AS seedBalance, a.seedTransactionId AS seedTransactionId, a.debitedTotal AS debitedTotal " +
+            "FROM JournalAccount a WHERE a.organizationId = :organizationId")
+    AccountState findState(Integer organizationId);
+
+    @Modifying
+    @Query("UPDATE JournalAccount a SET a.debitedTotal = a.debitedTotal + :amount WHERE a.organizationId = :organizationId")
+    int addDebit(Integer organizationId, BigDecimal amount);
+
+    @Query("SELECT a.organizationId FROM JournalAccount a")
+    List<Integer> findOrganizationIds();
+}
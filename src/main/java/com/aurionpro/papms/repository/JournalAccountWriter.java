@@ -0,0 +1,40 @@
+package com.aurionpro.papms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Creates journal accounts with a plain INSERT on the caller's connection. Kept out of
+ * {@link JournalAccountRepository} because a failed statement there would mark the caller's
+ * transaction rollback-only, while losing the race to a concurrent creator is expected here.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JournalAccountWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO journal_accounts (organization_id, seed_balance, seed_transaction_id, debited_total, created_at) " +
+                    "VALUES (?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the account unless it exists. A concurrent creator makes this wait for its commit
+     * and then fail on the primary key, which rolls back only this statement; returns the number
+     * of rows inserted.
+     */
+    public int insertIfAbsent(Integer organizationId, BigDecimal seedBalance, Long seedTransactionId) {
+        try {
+            return jdbcTemplate.update(INSERT_SQL, organizationId, seedBalance, seedTransactionId,
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException alreadyCreated) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.Enum.OutboxStatus;
+import com.aurionpro.papms.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Claims the next due notifications. Rows locked by another relay instance are skipped, so
+     * several instances can drain the outbox side by side without sending the same row twice.
+     * Native because Hibernate only renders SKIP LOCKED for some dialects and otherwise waits on the lock.
+     * Ordered along the status/next-attempt index, so the scan stops at the limit instead of
+     * locking every due row before sorting.
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> claimDueForDispatch(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status = :status AND n.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(OutboxStatus status, LocalDateTime before);
+}
@@ -0,0 +1,69 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.entity.OrganizationBalanceShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface OrganizationBalanceShardRepository extends JpaRepository<OrganizationBalanceShard, Long> {
+
+    @Query("SELECT s.shardIndex FROM OrganizationBalanceShard s WHERE s.organization.id = :organizationId")
+    List<Integer> findShardIndexesByOrganizationId(Integer organizationId);
+
+    /**
+     * Shard balances in shard order, read without locks.
+     */
+    @Query("SELECT s.balance FROM OrganizationBalanceShard s WHERE s.organization.id = :organizationId ORDER BY s.shardIndex")
+    List<BigDecimal> findBalancesByOrganizationId(Integer organizationId);
+
+    @Modifying
+    @Query("UPDATE OrganizationBalanceShard s SET s.balance = s.balance + :amount " +
+            "WHERE s.organization.id = :organizationId AND s.shardIndex = :shardIndex")
+    int creditShard(Integer organizationId, int shardIndex, BigDecimal amount);
+
+    interface ShardBalance {
+        int getShardIndex();
+
+        BigDecimal getBalance();
+    }
+
+    @Modifying
+    @Query("UPDATE OrganizationBalanceShard s SET s.balance = s.balance - :amount " +
+            "WHERE s.organization.id = :organizationId AND s.shardIndex = :shardIndex AND s.balance >= :amount")
+    int debitShard(Integer organizationId, int shardIndex, BigDecimal amount);
+
+    /**
+     * Locks the shards in the given index range, in shard order, and returns their balances.
+     */
+    @Query(value = "SELECT shard_index AS shardIndex, balance FROM organization_balance_shards " +
+            "WHERE organization_id = :organizationId AND shard_index BETWEEN :fromIndex AND :toIndex " +
+            "ORDER BY shard_index FOR UPDATE", nativeQuery = true)
+    List<ShardBalance> lockShards(Integer organizationId, int fromIndex, int toIndex);
+
+    /**
+     * Locks the shards in the given index range that no other transaction holds, without waiting
+     * for the others, and returns their balances. Native for SKIP LOCKED, as in the outbox claim.
+     */
+    @Query(value = "SELECT shard_index AS shardIndex, balance FROM organization_balance_shards " +
+            "WHERE organization_id = :organizationId AND shard_index BETWEEN :fromIndex AND :toIndex " +
+            "ORDER BY shard_index FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ShardBalance> lockFreeShards(Integer organizationId, int fromIndex, int toIndex);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM OrganizationBalanceShard s WHERE s.organization.id = :organizationId")
+    BigDecimal sumBalanceByOrganizationId(Integer organizationId);
+
+    /**
+     * Rewrites the cached organizations.internal_balance of every sharded organization from its shards.
+     */
+    @Modifying
+    @Query(value = "UPDATE organizations o SET internal_balance = " +
+            "(SELECT SUM(s.balance) FROM organization_balance_shards s WHERE s.organization_id = o.id) " +
+            "WHERE EXISTS (SELECT 1 FROM organization_balance_shards s WHERE s.organization_id = o.id)",
+            nativeQuery = true)
+    int refreshCachedOrganizationBalances();
+}
@@ -1,12 +1,17 @@
 package com.aurionpro.papms.repository;
 
 import com.aurionpro.papms.Enum.OrganizationStatus;
+import com.aurionpro.papms.dto.OrganizationProfileResponse;
 import com.aurionpro.papms.entity.Organization;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +22,11 @@ public interface OrganizationRepository extends JpaRepository<Organization, Inte
     
     Optional<Organization> findByCompanyName(String companyName);
 
+    boolean existsByCompanyName(String companyName);
+
+    @EntityGraph(attributePaths = "documents")
+    Optional<Organization> findWithDocumentsByCompanyName(String companyName);
+
     
     //List<Organization> findByStatus(OrganizationStatus status);
 
@@ -24,7 +34,35 @@ public interface OrganizationRepository extends JpaRepository<Organization, Inte
     Page<Organization> findByStatus(OrganizationStatus status, Pageable pageable);
 
     // ADD THIS NEW METHOD: A non-paginated method to get all pending organizations
+    @EntityGraph(attributePaths = "documents")
     List<Organization> findAllByStatus(OrganizationStatus status);
 
+    @Query("SELECT new com.aurionpro.papms.dto.OrganizationProfileResponse(o.id, o.companyName, o.contactEmail, o.logoUrl, CAST(o.status AS String)) " +
+           "FROM Organization o WHERE o.id = :id")
+    Optional<OrganizationProfileResponse> findProfileById(Integer id);
+
     Optional<Organization> findByBankAssignedAccountNumber(java.lang.String newAccountNumber);
-}
\ No newline at end of file
+
+    /**
+     * Atomically subtracts the amount if, and only if, the balance covers it.
+     * Returns 0 when the organization does not exist or funds are insufficient.
+     */
+    @Modifying
+    @Query("UPDATE Organization o SET o.internalBalance = o.internalBalance - :amount WHERE o.id = :id AND o.internalBalance >= :amount")
+    int debitBalance(Integer id, BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Organization o SET o.internalBalance = o.internalBalance + :amount WHERE o.id = :id")
+    int creditBalance(Integer id, BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Organization o SET o.internalBalance = :balance WHERE o.id = :id")
+    int setInternalBalance(Integer id, BigDecimal balance);
+
+    @Query("SELECT o.internalBalance FROM Organization o WHERE o.id = :id")
+    BigDecimal findInternalBalanceById(Integer id);
+
+    // Row lock on the organization without loading (and eagerly fetching) the entity
+    @Query(value = "SELECT id FROM organizations WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Integer lockById(Integer id);
+}
@@ -4,6 +4,7 @@ import com.aurionpro.papms.Enum.PayrollStatus;
 import com.aurionpro.papms.entity.PayrollBatch;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -15,10 +16,12 @@ public interface PayrollBatchRepository extends JpaRepository<PayrollBatch, Long
 
     boolean existsByOrganizationIdAndPayrollMonthAndPayrollYear(Integer organizationId, int month, int year);
 
+    @EntityGraph(attributePaths = {"organization", "submittedByUser", "approvedByUser"})
     Page<PayrollBatch> findByOrganizationId(Integer organizationId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"organization", "submittedByUser", "approvedByUser"})
     Page<PayrollBatch> findByStatus(PayrollStatus status, Pageable pageable);
 
     @Query("SELECT pb FROM PayrollBatch pb JOIN FETCH pb.organization JOIN FETCH pb.submittedByUser WHERE pb.id = :id")
     Optional<PayrollBatch> findByIdWithDetails(Long id);
-}
\ No newline at end of file
+}
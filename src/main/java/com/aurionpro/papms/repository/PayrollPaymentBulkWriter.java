@@ -0,0 +1,88 @@
+package com.aurionpro.papms.repository;
+
+import com.aurionpro.papms.entity.PayrollPayment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts payroll payments with JDBC batches instead of cascading them through Hibernate.
+ * {@link PayrollPayment} uses IDENTITY ids, which Hibernate cannot batch, so a cascaded save
+ * costs one INSERT per employee. Here every {@code batchSize} rows go to the database as one
+ * batch (a single multi-row INSERT when the MySQL driver runs with
+ * {@code rewriteBatchedStatements=true}), and the generated ids are copied back to the entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PayrollPaymentBulkWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payroll_payments (payroll_batch_id, employee_id, net_salary_paid, basic_salary, hra, da, " +
+                    "pf_contribution, other_allowances, status, processed_at, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the payments of an already persisted batch. Must run inside the transaction that
+     * saved the batch so both commit or roll back together.
+     */
+    public void insertAll(Long payrollBatchId, List<PayrollPayment> payments, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, but is " + batchSize);
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int from = 0; from < payments.size(); from += batchSize) {
+            insertChunk(payrollBatchId, payments.subList(from, Math.min(from + batchSize, payments.size())), createdAt);
+        }
+    }
+
+    private void insertChunk(Long payrollBatchId, List<PayrollPayment> chunk, LocalDateTime createdAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PayrollPayment payment = chunk.get(i);
+                        ps.setLong(1, payrollBatchId);
+                        ps.setLong(2, payment.getEmployee().getId());
+                        ps.setBigDecimal(3, payment.getNetSalaryPaid());
+                        ps.setBigDecimal(4, payment.getBasicSalary());
+                        ps.setBigDecimal(5, payment.getHra());
+                        ps.setBigDecimal(6, payment.getDa());
+                        ps.setBigDecimal(7, payment.getPfContribution());
+                        ps.setBigDecimal(8, payment.getOtherAllowances());
+                        ps.setString(9, payment.getStatus().name());
+                        ps.setTimestamp(10, payment.getProcessedAt() != null ? Timestamp.valueOf(payment.getProcessedAt()) : null);
+                        ps.setTimestamp(11, Timestamp.valueOf(createdAt));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < chunk.size(); i++) {
+            PayrollPayment payment = chunk.get(i);
+            payment.setCreatedAt(createdAt);
+            if (i < keys.size()) {
+                payment.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.aurionpro.papms.repository;
 
+import com.aurionpro.papms.Enum.PaymentStatus;
 import com.aurionpro.papms.entity.PayrollPayment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page; // Import Page
 import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PayrollPaymentRepository extends JpaRepository<PayrollPayment, Long> {
@@ -15,9 +23,43 @@ public interface PayrollPaymentRepository extends JpaRepository<PayrollPayment,
     @Query("SELECT pp FROM PayrollPayment pp JOIN FETCH pp.employee emp JOIN FETCH emp.user JOIN FETCH pp.payrollBatch pb JOIN FETCH pb.organization WHERE pp.id = :paymentId")
     Optional<PayrollPayment> findByIdWithDetails(Long paymentId);
 
-    List<PayrollPayment> findByPayrollBatchOrganizationIdAndPayrollBatchPayrollYearAndPayrollBatchPayrollMonth(Integer organizationId, int year, int month);
+    /**
+     * Rows of the monthly payroll report, read as a cursor so the caller can write them out without
+     * holding the whole month in memory. Must be consumed inside a transaction and closed. On MySQL
+     * the fetch size only bounds the driver's buffer when the JDBC URL sets useCursorFetch=true.
+     * Employee.bankAccount is the inverse side of a one-to-one and would otherwise be loaded per employee.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT pp FROM PayrollPayment pp JOIN FETCH pp.employee e JOIN FETCH e.user LEFT JOIN FETCH e.bankAccount JOIN pp.payrollBatch pb " +
+           "WHERE pb.organization.id = :organizationId AND pb.payrollYear = :year AND pb.payrollMonth = :month ORDER BY e.id")
+    Stream<PayrollPayment> streamReportRows(Integer organizationId, int year, int month);
 
-    @Query(value = "SELECT pp FROM PayrollPayment pp WHERE pp.employee.id = :employeeId",
+    @Query("SELECT pp.id FROM PayrollPayment pp WHERE pp.payrollBatch.id = :payrollBatchId ORDER BY pp.id")
+    List<Long> findIdsByPayrollBatchId(Long payrollBatchId);
+
+    // Everything a payslip shows, for a chunk of payments at once
+    @Query("SELECT pp FROM PayrollPayment pp JOIN FETCH pp.employee e JOIN FETCH e.user LEFT JOIN FETCH e.bankAccount " +
+           "JOIN FETCH pp.payrollBatch pb JOIN FETCH pb.organization WHERE pp.id IN :ids")
+    List<PayrollPayment> findWithDetailsByIdIn(Collection<Long> ids);
+
+    // Payments of several batches at once, for mapping a page of batches without a query per batch
+    @Query("SELECT pp FROM PayrollPayment pp JOIN FETCH pp.employee e JOIN FETCH e.user LEFT JOIN FETCH e.bankAccount " +
+           "WHERE pp.payrollBatch.id IN :payrollBatchIds ORDER BY pp.id")
+    List<PayrollPayment> findWithEmployeeByPayrollBatchIdIn(Collection<Long> payrollBatchIds);
+
+    @Query(value = "SELECT pp FROM PayrollPayment pp JOIN FETCH pp.payrollBatch WHERE pp.employee.id = :employeeId",
             countQuery = "SELECT count(pp) FROM PayrollPayment pp WHERE pp.employee.id = :employeeId")
     Page<PayrollPayment> findByEmployeeIdWithPagination(Long employeeId, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Moves every payment of a batch to the given status in one statement. Pending changes are
+     * flushed first and the persistence context is cleared afterwards, so callers must re-read
+     * any entity they still need.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PayrollPayment pp SET pp.status = :status, pp.processedAt = :processedAt WHERE pp.payrollBatch.id = :payrollBatchId")
+    int updateStatusByPayrollBatchId(Long payrollBatchId, PaymentStatus status, LocalDateTime processedAt);
+}
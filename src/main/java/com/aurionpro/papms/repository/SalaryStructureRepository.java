@@ -20,5 +20,19 @@ public interface SalaryStructureRepository extends JpaRepository<SalaryStructure
     @Query("SELECT ss FROM SalaryStructure ss WHERE ss.employee.organization.id = :organizationId AND ss.isActive = true")
     List<SalaryStructure> findActiveByOrganizationId(@Param("organizationId") Integer organizationId);
 
+    /**
+     * Loads the active salary structure of every active employee in the organization,
+     * together with the employee, its user and its bank account, in a single round trip. Used by
+     * payroll generation so that building a batch does not lazily touch each employee; the bank
+     * account is the inverse side of a one-to-one, which Hibernate would otherwise load per employee.
+     */
+    @Query("SELECT ss FROM SalaryStructure ss " +
+            "JOIN FETCH ss.employee e " +
+            "JOIN FETCH e.user " +
+            "LEFT JOIN FETCH e.bankAccount " +
+            "WHERE e.organization.id = :organizationId AND e.isActive = true AND ss.isActive = true " +
+            "ORDER BY e.id")
+    List<SalaryStructure> findActiveForPayrollByOrganizationId(@Param("organizationId") Integer organizationId);
+
     boolean existsByEmployeeIdAndIsActiveTrue(Long employeeId);
 }
\ No newline at end of file
@@ -1,8 +1,30 @@
 // repository/TransactionRepository.java
 package com.aurionpro.papms.repository;
 
+import com.aurionpro.papms.Enum.TransactionType;
 import com.aurionpro.papms.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Net effect (credits minus debits) of the organization's transactions with afterId &lt; id &lt;= upToId.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType = :credit THEN t.amount ELSE -t.amount END), 0) " +
+            "FROM Transaction t WHERE t.organization.id = :organizationId AND t.id > :afterId AND t.id <= :upToId")
+    BigDecimal sumNetAmountBetween(Integer organizationId, Long afterId, Long upToId, TransactionType credit);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
+            "WHERE t.organization.id = :organizationId AND t.id > :afterId AND t.id <= :upToId AND t.transactionType = :type")
+    BigDecimal sumAmountBetween(Integer organizationId, Long afterId, Long upToId, TransactionType type);
+
+    @Query("SELECT MAX(t.id) FROM Transaction t WHERE t.organization.id = :organizationId")
+    Long findMaxIdByOrganizationId(Integer organizationId);
+
+    @Query("SELECT MAX(t.id) FROM Transaction t WHERE t.organization.id = :organizationId AND t.transactionDate < :before")
+    Long findMaxIdByOrganizationIdBefore(Integer organizationId, LocalDateTime before);
+}
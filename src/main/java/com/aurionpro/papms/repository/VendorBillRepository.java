@@ -21,4 +21,8 @@ public interface VendorBillRepository extends JpaRepository<VendorBill, Long> {
 //    WHERE vb.id = :id AND vb.organization.id = :organizationId: The standard conditions to find the specific bill.
     @Query("SELECT vb FROM VendorBill vb JOIN FETCH vb.organization JOIN FETCH vb.vendor WHERE vb.id = :id AND vb.organization.id = :organizationId")
     Optional<VendorBill> findByIdAndOrganizationIdWithDetails(@Param("id") Long id, @Param("organizationId") Integer organizationId);
+
+    // The bill with the organization and vendor shown on its PDF
+    @Query("SELECT vb FROM VendorBill vb JOIN FETCH vb.organization JOIN FETCH vb.vendor WHERE vb.id = :id")
+    Optional<VendorBill> findWithPartiesById(@Param("id") Long id);
 }
\ No newline at end of file
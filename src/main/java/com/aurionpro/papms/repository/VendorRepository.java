@@ -5,11 +5,21 @@ import com.aurionpro.papms.entity.vendorEntity.Vendor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 public interface VendorRepository extends JpaRepository<Vendor, Long> {
     //List<Vendor> findByOrganizationId(Integer organizationId);
     // MODIFIED: This method now supports pagination
     Page<Vendor> findByOrganizationId(Integer organizationId, Pageable pageable);
+
+    /**
+     * Vendor listing with optional filters: a null name or active flag matches every vendor.
+     * The name matches case-insensitively anywhere in the vendor name.
+     */
+    @Query("SELECT v FROM Vendor v WHERE v.organization.id = :organizationId " +
+            "AND (:name IS NULL OR LOWER(v.vendorName) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:active IS NULL OR v.isActive = :active)")
+    Page<Vendor> searchByOrganizationId(Integer organizationId, String name, Boolean active, Pageable pageable);
     boolean existsByVendorNameAndOrganizationId(String vendorName, Integer organizationId);
 }
\ No newline at end of file
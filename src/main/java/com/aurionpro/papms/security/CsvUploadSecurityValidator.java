@@ -2,22 +2,27 @@
 package com.aurionpro.papms.security;
 
 import com.aurionpro.papms.Enum.Role;
-import com.aurionpro.papms.entity.User;
-import com.aurionpro.papms.repository.AppUserRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class CsvUploadSecurityValidator {
 
-    private final AppUserRepository appUserRepository;
+    // Largest upload accepted, in records; 0 (the default) leaves uploads unlimited
+    @Value("${app.employee-import.max-records:0}")
+    private int maxRecords;
+
+    // Organizations exempt from max-records, as a comma-separated list of ids
+    @Value("${app.employee-import.trusted-organization-ids:}")
+    private Set<Integer> trustedOrganizationIds;
 
     public void validateOrganizationAccess(Integer organizationId) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = appUserRepository.findByUsername(username)
-                .orElseThrow(() -> new SecurityException("User not found"));
+        AuthenticatedUser currentUser = AuthenticatedUser.current();
 
         if (currentUser.getRole() != Role.ORG_ADMIN ||
                 !currentUser.getOrganizationId().equals(organizationId)) {
@@ -26,9 +31,11 @@ public class CsvUploadSecurityValidator {
     }
 
     public void validateCsvUploadLimit(Integer organizationId, int recordCount) {
-        // Implement rate limiting or quota checking
-        if (recordCount > 1000) {
-            throw new SecurityException("CSV upload limit exceeded. Maximum 1000 records allowed.");
+        if (maxRecords <= 0 || trustedOrganizationIds.contains(organizationId)) {
+            return;
+        }
+        if (recordCount > maxRecords) {
+            throw new SecurityException("CSV upload limit exceeded. Maximum " + maxRecords + " records allowed.");
         }
     }
 }
\ No newline at end of file
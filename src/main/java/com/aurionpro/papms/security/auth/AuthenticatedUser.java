@@ -0,0 +1,70 @@
+package com.aurionpro.papms.security.auth;
+
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of a JWT-authenticated request. Carries what services need to authorize a call
+ * (id, role, organization, active flag), so they do not have to load the user again.
+ * The password hash is deliberately not kept.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final Integer organizationId;
+    private final boolean active;
+    private final boolean requiresPasswordChange;
+    private final List<GrantedAuthority> authorities;
+
+    private AuthenticatedUser(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.role = user.getRole();
+        this.organizationId = user.getOrganizationId();
+        this.active = Boolean.TRUE.equals(user.getIsActive());
+        this.requiresPasswordChange = Boolean.TRUE.equals(user.getRequiresPasswordChange());
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user);
+    }
+
+    /**
+     * The principal of the current request.
+     */
+    public static AuthenticatedUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new IllegalStateException("Authenticated user not found.");
+        }
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -0,0 +1,65 @@
+package com.aurionpro.papms.security.auth;
+
+import com.aurionpro.papms.repository.AppUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of {@link AuthenticatedUser} principals, so an authenticated request does
+ * not query the users table. Entries expire after {@code app.security.user-cache.ttl-seconds};
+ * code that deactivates a user, suspends an organization or changes a password calls
+ * {@link #evict(String)} so the change applies to the next request instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserCache {
+
+    private final AppUserRepository userRepository;
+
+    @Value("${app.security.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, AuthenticatedUser> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public AuthenticatedUser get(String username) {
+        return cache.get(username, key -> userRepository.findByUsername(key)
+                .map(AuthenticatedUser::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + key)));
+    }
+
+    /**
+     * Drops the cached principal. Inside a transaction it is dropped again after commit, so a
+     * request that reloaded the user before the change committed cannot leave a stale entry behind.
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
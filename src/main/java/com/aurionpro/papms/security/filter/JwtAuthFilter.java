@@ -2,15 +2,16 @@ package com.aurionpro.papms.security.filter;
 
 import java.io.IOException;
 
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.auth.AuthenticatedUserCache;
 import com.aurionpro.papms.security.jwt.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -29,7 +30,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
-    private final UserDetailsService uds;
+    private final AuthenticatedUserCache userCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -43,12 +44,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = header.substring(7);
         try {
-            String username = jwtService.extractUsername(token);
+            // Verified once; the username, expiry and password-change flag all come from these claims
+            Claims claims = jwtService.parseClaims(token);
+            String username = claims.getSubject();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails user = uds.loadUserByUsername(username);
-                if (jwtService.isValid(token, user)) {
+                AuthenticatedUser user = userCache.get(username);
+                if (jwtService.isValid(claims, user) && user.isEnabled()) {
                     // --- START: ENFORCEMENT LOGIC ---
-                    Boolean requiresPasswordChange = jwtService.extractClaim(token, "requires_password_change", Boolean.class);
+                    Boolean requiresPasswordChange = claims.get("requires_password_change", Boolean.class);
 
                     if (Boolean.TRUE.equals(requiresPasswordChange)) {
                         // Allow ONLY the force-change-password endpoint
@@ -1,7 +1,6 @@
 package com.aurionpro.papms.security.jwt;
 
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
@@ -18,8 +17,10 @@ import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Component
@@ -28,10 +29,15 @@ public class JwtService {
     private final Environment env;
     private final AppUserRepository userRepository; // Inject repository
 
-    private Key key() {
-        String secret = env.getProperty("app.jwt.secret");
-        assert secret != null;
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Built once from app.jwt.secret; both are immutable and thread-safe
+    private SecretKey key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        String secret = env.getRequiredProperty("app.jwt.secret");
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateToken(UserDetails userDetails, long expirationMs) {
@@ -54,27 +60,38 @@ public class JwtService {
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plusMillis(expirationMs)))
                 .claims(claims)
-                .signWith(key())
+                .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token once and returns its claims, so callers
+     * can read the subject and any other claim without parsing the token again.
+     */
+    public Claims parseClaims(String token) {
+        return parse(token).getPayload();
+    }
+
     public String extractUsername(String token) {
-        return parse(token).getPayload().getSubject();
+        return parseClaims(token).getSubject();
     }
 
     // ADD THIS NEW METHOD to extract any claim
     public <T> T extractClaim(String token, String claimKey, Class<T> claimType) {
-        final Claims claims = parse(token).getPayload();
-        return claims.get(claimKey, claimType);
+        return parseClaims(token).get(claimKey, claimType);
     }
 
 
     public boolean isValid(String token, UserDetails user) {
-        return user.getUsername().equals(extractUsername(token))
-                && parse(token).getPayload().getExpiration().after(new Date());
+        return isValid(parseClaims(token), user);
+    }
+
+    public boolean isValid(Claims claims, UserDetails user) {
+        return user.getUsername().equals(claims.getSubject())
+                && claims.getExpiration().after(new Date());
     }
 
     private Jws<Claims> parse(String token) {
-        return Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(token);
+        return parser.parseSignedClaims(token);
     }
-}
\ No newline at end of file
+}
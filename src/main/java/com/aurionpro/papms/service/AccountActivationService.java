@@ -0,0 +1,64 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.emails.EmailService;
+import com.aurionpro.papms.entity.PasswordResetToken;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.repository.PasswordResetTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * One-time activation links for accounts created in bulk, so no password has to be hashed while
+ * importing: the account gets {@link #PENDING_ACTIVATION_PASSWORD}, which no login can match, and
+ * the employee chooses a password through the link. Activation tokens are password reset tokens
+ * with a longer validity ({@code app.activation.token-validity-hours}), redeemed through the
+ * existing reset-password endpoint.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountActivationService {
+
+    // Not a BCrypt hash, so the password encoder never matches it
+    public static final String PENDING_ACTIVATION_PASSWORD = "{activation-pending}";
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final EmailService emailService;
+
+    @Value("${app.activation.token-validity-hours:72}")
+    private long tokenValidityHours;
+
+    @Value("${app.frontend.url}")
+    private String frontendUrl;
+
+    public static boolean isPendingActivation(User user) {
+        return PENDING_ACTIVATION_PASSWORD.equals(user.getPassword());
+    }
+
+    /**
+     * Issues an activation token for a saved user and emails the link, replacing any earlier token.
+     */
+    @Transactional
+    public void sendActivationLink(User user, String fromAddress, String organizationName) {
+        tokenRepository.deleteByUser(user);
+        String token = UUID.randomUUID().toString();
+        tokenRepository.save(new PasswordResetToken(token, user, Duration.ofHours(tokenValidityHours)));
+
+        String activationLink = frontendUrl + "/reset-password?token=" + token;
+        String subject = "Activate your " + organizationName + " account";
+        String body = String.format("""
+                <h3>Hello %s,</h3>
+                <p>An employee account has been created for you.</p>
+                <p><b>Username:</b> %s</p>
+                <p><a href="%s">Choose your password</a> to activate it. The link is valid for %d hours.</p>
+                """, user.getFullName(), user.getUsername(), activationLink, tokenValidityHours);
+        emailService.sendEmail(fromAddress, user.getEmail(), subject, body);
+        log.debug("Activation link issued for user {}", user.getUsername());
+    }
+}
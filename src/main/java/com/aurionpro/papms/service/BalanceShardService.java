@@ -0,0 +1,209 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.OrganizationBalanceShard;
+import com.aurionpro.papms.repository.OrganizationBalanceShardRepository;
+import com.aurionpro.papms.repository.OrganizationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded-balance ledger for hot organizations. The balance of an organization lives in
+ * {@code shardCount} rows of organization_balance_shards instead of the single
+ * organizations.internal_balance column, so concurrent credits and debits mostly update
+ * different rows and do not serialize on one lock.
+ * <p>
+ * Credits go to a random shard. Debits only ever wait for shards in ascending index order, so two
+ * debits can never wait on each other in a cycle: a debit starts at a random shard that looked
+ * sufficient on its own and moves on to higher shards, or, when no single shard is enough, sweeps
+ * all shards from shard 0. If the higher shards turn out short (another debit drained them in the
+ * meantime), the lower shards are taken too, but only those free right now; a payment is declined
+ * as insufficient only when all shards together cannot cover it. organizations.internal_balance is kept
+ * as a cached aggregate by {@link #refreshCachedBalances()}. The balance returned by
+ * {@link #credit} and {@link #debit} is the shard sum as seen by the current transaction, so
+ * under concurrency it is indicative rather than exact.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceShardService {
+
+    private final OrganizationBalanceShardRepository shardRepository;
+    private final OrganizationRepository organizationRepository;
+
+    // Organizations whose shards are known to exist, to skip the existence check on the hot path
+    private final Set<Integer> initializedOrganizations = ConcurrentHashMap.newKeySet();
+
+    // Tries at taking the free lower shards before a debit gives up on shards held by other transactions
+    private static final int LOWER_SHARD_ATTEMPTS = 5;
+    private static final long LOWER_SHARD_BACKOFF_MS = 10;
+
+    @Value("${app.ledger.shard-count:8}")
+    private int shardCount;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal credit(Organization organization, BigDecimal amount) {
+        Integer organizationId = organization.getId();
+        ensureShards(organizationId);
+
+        int shardIndex = ThreadLocalRandom.current().nextInt(shardCount);
+        if (shardRepository.creditShard(organizationId, shardIndex, amount) == 0) {
+            throw new IllegalStateException("Balance shard " + shardIndex + " missing for organization " + organizationId);
+        }
+        return shardRepository.sumBalanceByOrganizationId(organizationId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal debit(Organization organization, BigDecimal amount) {
+        Integer organizationId = organization.getId();
+        ensureShards(organizationId);
+        return debit(organizationId, amount, chooseFirstShard(organizationId, amount));
+    }
+
+    // Package-private so tests can start from a given shard
+    BigDecimal debit(Integer organizationId, BigDecimal amount, int firstShard) {
+        List<OrganizationBalanceShardRepository.ShardBalance> locked =
+                new ArrayList<>(shardRepository.lockShards(organizationId, firstShard, firstShard));
+        if (available(locked).compareTo(amount) < 0) {
+            // The shard was drained meanwhile; continue upwards first, keeping the lock order
+            locked.addAll(shardRepository.lockShards(organizationId, firstShard + 1, Integer.MAX_VALUE));
+        }
+        if (available(locked).compareTo(amount) < 0 && firstShard > 0) {
+            locked.addAll(lockFreeLowerShards(organizationId, firstShard, amount.subtract(available(locked))));
+        }
+
+        if (available(locked).compareTo(amount) < 0) {
+            if (locked.size() == shardCount) {
+                throw new IllegalStateException("Insufficient funds to complete this payment.");
+            }
+            // Some lower shards stayed locked by other transactions throughout
+            throw new IllegalStateException("The balance changed while the payment was processed. Please try again.");
+        }
+
+        BigDecimal remaining = amount;
+        for (OrganizationBalanceShardRepository.ShardBalance shard : locked) {
+            if (remaining.signum() == 0) {
+                break;
+            }
+            BigDecimal taken = shard.getBalance().min(remaining);
+            if (taken.signum() > 0) {
+                shardRepository.debitShard(organizationId, shard.getShardIndex(), taken);
+                remaining = remaining.subtract(taken);
+            }
+        }
+        if (locked.size() > 1) {
+            log.debug("Debit of {} for organization {} swept across {} shards", amount, organizationId, locked.size());
+        }
+        return shardRepository.sumBalanceByOrganizationId(organizationId);
+    }
+
+    /**
+     * Sum of the shards, falling back to organizations.internal_balance for organizations that
+     * have not been used in sharded mode yet.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(Integer organizationId) {
+        if (shardRepository.findShardIndexesByOrganizationId(organizationId).isEmpty()) {
+            return organizationRepository.findInternalBalanceById(organizationId);
+        }
+        return shardRepository.sumBalanceByOrganizationId(organizationId);
+    }
+
+    /**
+     * Takes the shards below {@code firstShard} while holding higher ones. Waiting for them would
+     * break the lock order, so only free shards are locked (SKIP LOCKED never waits), retrying a
+     * few times for shards another transaction is about to release.
+     */
+    private List<OrganizationBalanceShardRepository.ShardBalance> lockFreeLowerShards(Integer organizationId, int firstShard,
+                                                                                     BigDecimal shortfall) {
+        List<OrganizationBalanceShardRepository.ShardBalance> lower = List.of();
+        for (int attempt = 0; attempt < LOWER_SHARD_ATTEMPTS; attempt++) {
+            // Shards this transaction already locked are returned again, so each attempt sees the full set
+            lower = shardRepository.lockFreeShards(organizationId, 0, firstShard - 1);
+            if (lower.size() == firstShard || available(lower).compareTo(shortfall) >= 0) {
+                break;
+            }
+            try {
+                Thread.sleep(LOWER_SHARD_BACKOFF_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * A random shard whose balance, read without a lock, covers the amount on its own, or shard 0
+     * when none does, so the debit sweeps every shard.
+     */
+    private int chooseFirstShard(Integer organizationId, BigDecimal amount) {
+        // ensureShards creates every index from 0, so list positions are shard indexes
+        List<BigDecimal> balances = shardRepository.findBalancesByOrganizationId(organizationId);
+        List<Integer> sufficient = new ArrayList<>();
+        for (int i = 0; i < balances.size(); i++) {
+            if (balances.get(i).compareTo(amount) >= 0) {
+                sufficient.add(i);
+            }
+        }
+        return sufficient.isEmpty() ? 0 : sufficient.get(ThreadLocalRandom.current().nextInt(sufficient.size()));
+    }
+
+    private static BigDecimal available(List<OrganizationBalanceShardRepository.ShardBalance> shards) {
+        return shards.stream().map(OrganizationBalanceShardRepository.ShardBalance::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Creates missing shard rows. On first use the existing organizations.internal_balance moves
+     * into shard 0, so switching an organization to sharded mode keeps its balance. The
+     * organization row is locked while doing so, which serializes concurrent initializers.
+     */
+    private void ensureShards(Integer organizationId) {
+        if (initializedOrganizations.contains(organizationId)) {
+            return;
+        }
+        organizationRepository.lockById(organizationId);
+
+        Set<Integer> existing = new HashSet<>(shardRepository.findShardIndexesByOrganizationId(organizationId));
+        if (existing.size() < shardCount) {
+            Organization organization = organizationRepository.getReferenceById(organizationId);
+            BigDecimal openingBalance = existing.isEmpty()
+                    ? organizationRepository.findInternalBalanceById(organizationId)
+                    : BigDecimal.ZERO;
+            for (int i = 0; i < shardCount; i++) {
+                if (!existing.contains(i)) {
+                    shardRepository.save(OrganizationBalanceShard.builder()
+                            .organization(organization)
+                            .shardIndex(i)
+                            .balance(i == 0 ? openingBalance : BigDecimal.ZERO)
+                            .build());
+                }
+            }
+            shardRepository.flush();
+            log.info("Initialized {} balance shards for organization {}", shardCount - existing.size(), organizationId);
+            // Only remembered once a later call sees the rows committed
+            return;
+        }
+        initializedOrganizations.add(organizationId);
+    }
+
+    /**
+     * Refreshes the cached organizations.internal_balance of sharded organizations from their shards.
+     */
+    @Transactional
+    public int refreshCachedBalances() {
+        return shardRepository.refreshCachedOrganizationBalances();
+    }
+}
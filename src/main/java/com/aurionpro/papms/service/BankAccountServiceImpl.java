@@ -5,14 +5,12 @@ import com.aurionpro.papms.Enum.Role;
 import com.aurionpro.papms.dto.BankAccountResponse;
 import com.aurionpro.papms.entity.BankAccount;
 import com.aurionpro.papms.entity.Employee;
-import com.aurionpro.papms.entity.User;
 import com.aurionpro.papms.exception.NotFoundException;
-import com.aurionpro.papms.repository.AppUserRepository;
 import com.aurionpro.papms.repository.BankAccountRepository;
 import com.aurionpro.papms.repository.EmployeeRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,12 +24,11 @@ public class BankAccountServiceImpl implements BankAccountService {
 
     private final BankAccountRepository bankAccountRepository;
     private final EmployeeRepository employeeRepository;
-    private final AppUserRepository appUserRepository;
 
     @Override
     @Transactional(readOnly = true)
     public List<BankAccountResponse> getBankAccountsByOrganization(Integer organizationId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrganizationAccess(currentUser, organizationId);
 
         List<BankAccount> accounts = bankAccountRepository.findByEmployeeOrganizationId(organizationId);
@@ -44,7 +41,7 @@ public class BankAccountServiceImpl implements BankAccountService {
     @Override
     @Transactional(readOnly = true)
     public BankAccountResponse getBankAccountById(Integer organizationId, Long accountId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrganizationAccess(currentUser, organizationId);
 
         BankAccount account = bankAccountRepository.findByIdAndEmployeeOrganizationId(accountId, organizationId)
@@ -56,7 +53,7 @@ public class BankAccountServiceImpl implements BankAccountService {
     @Override
     @Transactional(readOnly = true)
     public List<BankAccountResponse> getEmployeeBankAccounts(Integer organizationId, Long employeeId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrganizationAccess(currentUser, organizationId);
 
         Employee employee = employeeRepository.findById(employeeId)
@@ -76,7 +73,7 @@ public class BankAccountServiceImpl implements BankAccountService {
     @Override
     @Transactional
     public BankAccountResponse updateBankAccount(Integer organizationId, Long accountId, BankAccountResponse request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrganizationAccess(currentUser, organizationId);
 
         BankAccount account = bankAccountRepository.findByIdAndEmployeeOrganizationId(accountId, organizationId)
@@ -98,7 +95,7 @@ public class BankAccountServiceImpl implements BankAccountService {
     @Override
     @Transactional
     public BankAccountResponse createEmployeeBankAccount(Integer organizationId, Long employeeId, BankAccountResponse request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrganizationAccess(currentUser, organizationId);
 
         Employee employee = employeeRepository.findById(employeeId)
@@ -126,13 +123,11 @@ public class BankAccountServiceImpl implements BankAccountService {
     }
 
     // Helper Methods
-    private User getLoggedInUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return appUserRepository.findByUsername(username)
-                .orElseThrow(() -> new SecurityException("Authenticated user not found"));
+    private AuthenticatedUser getLoggedInUser() {
+        return AuthenticatedUser.current();
     }
 
-    private void validateOrganizationAccess(User currentUser, Integer organizationId) {
+    private void validateOrganizationAccess(AuthenticatedUser currentUser, Integer organizationId) {
         if (currentUser.getRole() == Role.EMPLOYEE || currentUser.getRole() == Role.ORG_ADMIN) {
             if (!currentUser.getOrganizationId().equals(organizationId)) {
                 throw new SecurityException("Access denied to organization: " + organizationId);
@@ -0,0 +1,61 @@
+package com.aurionpro.papms.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing for bulk onboarding, spread over a dedicated pool so that BCrypt's deliberate
+ * cost is paid on all cores instead of one row at a time on the calling thread.
+ * <p>
+ * The pool has {@code app.password-hashing.threads} threads (all cores by default) and a queue of
+ * {@code app.password-hashing.queue-capacity}. When the queue is full the caller hashes the
+ * password itself, which slows producers down to the pool's pace instead of queueing without bound.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkPasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password-hashing.queue-capacity:256}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        log.info("Password hashing pool started with {} threads", poolSize);
+    }
+
+    /**
+     * Starts hashing the password on the pool, or on the calling thread when the pool is saturated.
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -11,10 +11,11 @@ import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.mapper.ClientMapper;
 import com.aurionpro.papms.mapper.InvoiceMapper;
 import com.aurionpro.papms.repository.*;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.auth.AuthenticatedUserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,17 +35,16 @@ public class ClientServiceImpl implements ClientService {
     private final PasswordEncoder passwordEncoder;
     private final TransactionService transactionService;
     private final EmailService emailService; // Dependency Injection for EmailService
+    private final AuthenticatedUserCache userCache;
 
-    private User getLoggedInUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new NotFoundException("Logged-in user not found."));
+    private AuthenticatedUser getLoggedInUser() {
+        return AuthenticatedUser.current();
     }
 
     @Override
     @Transactional
     public ClientResponseDto createClient(ClientRequestDto request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new DuplicateUserException("Username '" + request.getUsername() + "' is already taken.");
         }
@@ -77,7 +77,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional
     public InvoiceResponseDto createInvoice(InvoiceRequestDto request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Organization org = organizationRepository.findById(currentUser.getOrganizationId())
                 .orElseThrow(() -> new NotFoundException("Organization not found for current user."));
 
@@ -159,7 +159,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional(readOnly = true)
     public ClientResponseDto getClientById(Integer clientId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new NotFoundException("Client not found with ID: " + clientId));
 
@@ -173,7 +173,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional(readOnly = true)
     public Page<ClientResponseDto> getAllClientsForCurrentOrg(Pageable pageable) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
 
         // 1. Call the new paginated repository method
         Page<Client> clientPage = clientRepository.findByOrganizationId(currentUser.getOrganizationId(), pageable);
@@ -193,7 +193,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional
     public ClientResponseDto updateClient(Integer clientId, ClientRequestDto request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new NotFoundException("Client not found with ID: " + clientId));
 
@@ -216,7 +216,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional
     public void toggleClientStatus(Integer clientId, boolean isActive) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new NotFoundException("Client not found with ID: " + clientId));
 
@@ -228,12 +228,13 @@ public class ClientServiceImpl implements ClientService {
         client.getUser().setIsActive(isActive);
 
         clientRepository.save(client);
+        userCache.evict(client.getUser().getUsername());
     }
 
     @Override
     @Transactional(readOnly = true)
     public InvoiceResponseDto getInvoiceById(Integer invoiceId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new NotFoundException("Invoice not found with ID: " + invoiceId));
 
@@ -261,7 +262,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional(readOnly = true)
     public List<InvoiceResponseDto> getAllInvoicesForCurrentOrg() {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         return invoiceRepository.findByOrganizationId(currentUser.getOrganizationId()).stream()
                 .map(InvoiceMapper::toDto)
                 .collect(Collectors.toList());
@@ -9,15 +9,13 @@ import com.aurionpro.papms.dto.deposit.DepositResponse;
 import com.aurionpro.papms.entity.Deposit;
 import com.aurionpro.papms.entity.Organization;
 import com.aurionpro.papms.entity.Transaction;
-import com.aurionpro.papms.entity.User;
 import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.mapper.DepositMapper;
-import com.aurionpro.papms.repository.AppUserRepository;
 import com.aurionpro.papms.repository.DepositRepository;
 import com.aurionpro.papms.repository.OrganizationRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
 import com.aurionpro.papms.service.TransactionService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,16 +28,13 @@ public class DepositServiceImpl implements DepositService {
 
     private final OrganizationRepository organizationRepository;
     private final DepositRepository depositRepository;
-    private final AppUserRepository userRepository;
     private final TransactionService transactionService;
 
     @Override
     @Transactional
     public DepositResponse makeDepositForCurrentUser(DepositRequest depositRequest) {
         // currently logged-in user
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found."));
+        AuthenticatedUser currentUser = AuthenticatedUser.current();
 
         //  b_admin
         Integer organizationId = currentUser.getOrganizationId();
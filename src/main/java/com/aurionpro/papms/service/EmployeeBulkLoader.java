@@ -0,0 +1,273 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.OwnerType;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.batch.ImportUniquenessIndex;
+import com.aurionpro.papms.dto.CompleteEmployeeResponse;
+import com.aurionpro.papms.dto.CsvEmployeeRecord;
+import com.aurionpro.papms.dto.FailedEmployeeRecord;
+import com.aurionpro.papms.emails.EmailService;
+import com.aurionpro.papms.entity.BankAccount;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.SalaryStructure;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.mapper.EmployeeMapper;
+import com.aurionpro.papms.repository.AppUserRepository;
+import com.aurionpro.papms.repository.BankAccountRepository;
+import com.aurionpro.papms.repository.EmployeeBulkWriter;
+import com.aurionpro.papms.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Loads parsed CSV employee records in stages instead of one record at a time:
+ * <ol>
+ *     <li>validate every record against the file and the database, with one query per unique
+ *     column per chunk;</li>
+ *     <li>hash the passwords of the valid records on the {@link BulkPasswordHasher} pool;</li>
+ *     <li>insert each chunk with {@link EmployeeBulkWriter}, one batch per table, in its own
+ *     transaction.</li>
+ * </ol>
+ * Chunks hold {@code app.employee-import.bulk-load.chunk-size} records. A chunk that fails to
+ * insert is rolled back and its records reported as failed; the chunks before and after it are
+ * unaffected. Welcome emails and activation links go out once a chunk has committed.
+ */
+@Service
+@Slf4j
+public class EmployeeBulkLoader {
+
+    private final AppUserRepository appUserRepository;
+    private final EmployeeRepository employeeRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final EmployeeBulkWriter employeeBulkWriter;
+    private final BulkPasswordHasher bulkPasswordHasher;
+    private final AccountActivationService accountActivationService;
+    private final ImportUniquenessIndex importUniquenessIndex;
+    private final EmailService emailService;
+    private final TransactionTemplate chunkTransaction;
+
+    @Value("${app.employee-import.bulk-load.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.employee-import.activation-tokens:false}")
+    private boolean activationTokens;
+
+    public EmployeeBulkLoader(AppUserRepository appUserRepository,
+                              EmployeeRepository employeeRepository,
+                              BankAccountRepository bankAccountRepository,
+                              EmployeeBulkWriter employeeBulkWriter,
+                              BulkPasswordHasher bulkPasswordHasher,
+                              AccountActivationService accountActivationService,
+                              ImportUniquenessIndex importUniquenessIndex,
+                              EmailService emailService,
+                              PlatformTransactionManager transactionManager) {
+        this.appUserRepository = appUserRepository;
+        this.employeeRepository = employeeRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.employeeBulkWriter = employeeBulkWriter;
+        this.bulkPasswordHasher = bulkPasswordHasher;
+        this.accountActivationService = accountActivationService;
+        this.importUniquenessIndex = importUniquenessIndex;
+        this.emailService = emailService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public record Result(List<CompleteEmployeeResponse> importedEmployees, List<FailedEmployeeRecord> failedRecords) {
+    }
+
+    // A validated record with its row number and the hash of its password, being computed
+    private record StagedRecord(long rowNumber, CsvEmployeeRecord csvRecord, CompletableFuture<String> passwordHash) {
+    }
+
+    public Result load(Organization organization, List<CsvEmployeeRecord> records) {
+        List<FailedEmployeeRecord> failedRecords = new ArrayList<>();
+        List<StagedRecord> staged = validate(organization.getId(), records, failedRecords);
+
+        List<CompleteEmployeeResponse> importedEmployees = new ArrayList<>();
+        for (int from = 0; from < staged.size(); from += chunkSize) {
+            List<StagedRecord> chunk = staged.subList(from, Math.min(from + chunkSize, staged.size()));
+            List<Employee> employees = chunk.stream().map(record -> toEmployee(organization, record)).toList();
+            try {
+                chunkTransaction.executeWithoutResult(status -> employeeBulkWriter.insertAll(employees));
+            } catch (RuntimeException e) {
+                log.error("Failed to insert employees for CSV rows {} to {}", chunk.get(0).rowNumber(),
+                        chunk.get(chunk.size() - 1).rowNumber(), e);
+                for (StagedRecord record : chunk) {
+                    failedRecords.add(failed(record.rowNumber(), record.csvRecord(),
+                            "Rolled back with its chunk of " + chunk.size() + " records: " + e.getMessage()));
+                }
+                continue;
+            }
+
+            for (Employee employee : employees) {
+                importUniquenessIndex.usernameSaved(employee.getUser().getUsername());
+                importUniquenessIndex.accountNumberSaved(employee.getBankAccount().getAccountNumber());
+                notifyEmployee(organization, employee);
+                importedEmployees.add(EmployeeMapper.toCompleteDto(employee));
+            }
+        }
+        return new Result(importedEmployees, failedRecords);
+    }
+
+    private List<StagedRecord> validate(Integer organizationId, List<CsvEmployeeRecord> records,
+                                        List<FailedEmployeeRecord> failedRecords) {
+        // Values claimed by earlier rows of the file
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> employeeCodes = new HashSet<>();
+        Set<String> accountNumbers = new HashSet<>();
+
+        List<StagedRecord> staged = new ArrayList<>();
+        for (int from = 0; from < records.size(); from += chunkSize) {
+            List<CsvEmployeeRecord> chunk = records.subList(from, Math.min(from + chunkSize, records.size()));
+            Set<String> existingUsernames = appUserRepository.findExistingUsernames(values(chunk, CsvEmployeeRecord::getUsername));
+            Set<String> existingEmails = appUserRepository.findExistingEmails(values(chunk, CsvEmployeeRecord::getEmail));
+            Set<String> existingEmployeeCodes = employeeRepository.findExistingEmployeeCodes(organizationId,
+                    values(chunk, CsvEmployeeRecord::getEmployeeCode));
+            Set<String> existingAccountNumbers = bankAccountRepository.findExistingAccountNumbers(
+                    values(chunk, CsvEmployeeRecord::getAccountNumber));
+
+            for (int i = 0; i < chunk.size(); i++) {
+                CsvEmployeeRecord csvRecord = chunk.get(i);
+                // Records not read from a file are numbered by their position
+                long rowNumber = csvRecord.getRecordNumber() > 0 ? csvRecord.getRecordNumber() : from + i + 1;
+                String error = null;
+                if (existingUsernames.contains(csvRecord.getUsername()) || !usernames.add(csvRecord.getUsername())) {
+                    error = "Username already exists: " + csvRecord.getUsername();
+                } else if (existingEmails.contains(csvRecord.getEmail()) || !emails.add(csvRecord.getEmail())) {
+                    error = "Email already exists: " + csvRecord.getEmail();
+                } else if (existingEmployeeCodes.contains(csvRecord.getEmployeeCode())
+                        || !employeeCodes.add(csvRecord.getEmployeeCode())) {
+                    error = "Employee code already exists: " + csvRecord.getEmployeeCode();
+                } else if (existingAccountNumbers.contains(csvRecord.getAccountNumber())
+                        || !accountNumbers.add(csvRecord.getAccountNumber())) {
+                    error = "Bank account number already exists: " + csvRecord.getAccountNumber();
+                }
+
+                if (error != null) {
+                    failedRecords.add(failed(rowNumber, csvRecord, error));
+                } else {
+                    staged.add(new StagedRecord(rowNumber, csvRecord, activationTokens
+                            ? CompletableFuture.completedFuture(AccountActivationService.PENDING_ACTIVATION_PASSWORD)
+                            : bulkPasswordHasher.encodeAsync(csvRecord.getPassword())));
+                }
+            }
+        }
+        return staged;
+    }
+
+    private static Set<String> values(List<CsvEmployeeRecord> records, Function<CsvEmployeeRecord, String> field) {
+        Set<String> values = new HashSet<>();
+        for (CsvEmployeeRecord record : records) {
+            values.add(field.apply(record));
+        }
+        return values;
+    }
+
+    private static FailedEmployeeRecord failed(long rowNumber, CsvEmployeeRecord csvRecord, String error) {
+        return new FailedEmployeeRecord(rowNumber, toMap(csvRecord), "Failed to create employee: " + error);
+    }
+
+    private static Employee toEmployee(Organization organization, StagedRecord staged) {
+        CsvEmployeeRecord csvRecord = staged.csvRecord();
+        User user = User.builder()
+                .username(csvRecord.getUsername())
+                .password(staged.passwordHash().join())
+                .fullName(csvRecord.getFullName())
+                .email(csvRecord.getEmail())
+                .role(Role.EMPLOYEE)
+                .organizationId(organization.getId())
+                .isActive(true)
+                .build();
+
+        Employee employee = Employee.builder()
+                .user(user)
+                .organization(organization)
+                .employeeCode(csvRecord.getEmployeeCode())
+                .dateOfJoining(csvRecord.getDateOfJoining())
+                .department(csvRecord.getDepartment())
+                .jobTitle(csvRecord.getJobTitle())
+                .isActive(true)
+                .build();
+
+        employee.setBankAccount(BankAccount.builder()
+                .employee(employee)
+                .ownerType(OwnerType.EMPLOYEE)
+                .accountHolderName(csvRecord.getAccountHolderName())
+                .accountNumber(csvRecord.getAccountNumber())
+                .bankName(csvRecord.getBankName())
+                .ifscCode(csvRecord.getIfscCode())
+                .isPrimary(true)
+                .build());
+
+        employee.setSalaryStructures(List.of(SalaryStructure.builder()
+                .employee(employee)
+                .basicSalary(csvRecord.getBasicSalary())
+                .hra(csvRecord.getHra())
+                .da(csvRecord.getDa())
+                .pfContribution(csvRecord.getPfContribution())
+                .otherAllowances(csvRecord.getOtherAllowances())
+                .effectiveFromDate(csvRecord.getEffectiveFromDate())
+                .isActive(true)
+                .build()));
+        return employee;
+    }
+
+    // Welcome email, or an activation link when no password was set
+    private void notifyEmployee(Organization organization, Employee employee) {
+        User user = employee.getUser();
+        try {
+            if (AccountActivationService.isPendingActivation(user)) {
+                accountActivationService.sendActivationLink(user, organization.getContactEmail(),
+                        organization.getCompanyName());
+                return;
+            }
+            String subject = "Welcome to " + organization.getCompanyName();
+            String body = String.format("""
+                <h3>Hello %s,</h3>
+                <p>Your employee account has been created successfully.</p>
+                <p><b>Username:</b> %s</p>
+                <p><b>Employee Code:</b> %s</p>
+                <p><b>Department:</b> %s</p>
+                <p><b>Job Title:</b> %s</p>
+                <p>Please use the temporary password provided to you to log in for the first time.</p>
+                <p>We recommend changing your password after first login.</p>
+                """,
+                    user.getFullName(), user.getUsername(), employee.getEmployeeCode(),
+                    employee.getDepartment(), employee.getJobTitle());
+
+            emailService.sendEmail(organization.getContactEmail(), user.getEmail(), subject, body);
+        } catch (Exception e) {
+            log.warn("Failed to send welcome email to {}", user.getEmail(), e);
+            // Don't fail the import if email fails
+        }
+    }
+
+    private static Map<String, String> toMap(CsvEmployeeRecord record) {
+        Map<String, String> map = new HashMap<>();
+        map.put("username", record.getUsername());
+        map.put("fullName", record.getFullName());
+        map.put("email", record.getEmail());
+        map.put("employeeCode", record.getEmployeeCode());
+        map.put("department", record.getDepartment());
+        map.put("jobTitle", record.getJobTitle());
+        map.put("accountNumber", record.getAccountNumber());
+        map.put("bankName", record.getBankName());
+        return map;
+    }
+}
@@ -0,0 +1,133 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.batch.LineRangePartitioner;
+import com.aurionpro.papms.config.BatchConfig;
+import com.aurionpro.papms.dto.EmployeeImportJobStatusResponse;
+import com.aurionpro.papms.exception.NotFoundException;
+import com.aurionpro.papms.repository.EmployeeImportJobRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Progress of the Spring Batch employee imports, read from the JobRepository through
+ * {@link JobExplorer}. Counts are as of each partition's last commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeImportStatusService {
+
+    // Each listed job costs a few JobRepository reads, so a listing is capped at this many
+    private static final int MAX_LIMIT = 100;
+
+    private final JobExplorer jobExplorer;
+    private final EmployeeImportJobRepository employeeImportJobRepository;
+
+    /**
+     * The organization's latest imports, running and finished, newest first. At most
+     * {@value #MAX_LIMIT}, whatever the limit asked for.
+     */
+    public List<EmployeeImportJobStatusResponse> getImportJobs(Integer organizationId, int limit) {
+        checkAccess(organizationId);
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return employeeImportJobRepository.findJobExecutionIds(organizationId, PageRequest.of(0, pageSize)).stream()
+                .map(jobExplorer::getJobExecution)
+                .filter(Objects::nonNull)
+                .map(EmployeeImportStatusService::toStatus)
+                .toList();
+    }
+
+    public EmployeeImportJobStatusResponse getImportJob(Integer organizationId, Long jobExecutionId) {
+        checkAccess(organizationId);
+        JobExecution execution = jobExplorer.getJobExecution(jobExecutionId);
+        if (execution == null || !execution.getJobInstance().getJobName().equals(BatchConfig.JOB_NAME)
+                || !belongsTo(execution, organizationId)) {
+            throw new NotFoundException("Employee import job not found with ID: " + jobExecutionId);
+        }
+        return toStatus(execution);
+    }
+
+    private void checkAccess(Integer organizationId) {
+        AuthenticatedUser currentUser = AuthenticatedUser.current();
+        if (currentUser.getRole() != Role.ORG_ADMIN || !currentUser.getOrganizationId().equals(organizationId)) {
+            throw new SecurityException("You are not authorized to view employee imports of this organization.");
+        }
+    }
+
+    private static boolean belongsTo(JobExecution execution, Integer organizationId) {
+        Long jobOrganizationId = execution.getJobParameters().getLong("organizationId");
+        return jobOrganizationId != null && jobOrganizationId.intValue() == organizationId;
+    }
+
+    private static EmployeeImportJobStatusResponse toStatus(JobExecution execution) {
+        // The partition step's own execution only aggregates its workers once they have all finished
+        List<EmployeeImportJobStatusResponse.PartitionStatus> partitions = execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().startsWith(BatchConfig.WORKER_STEP + ":"))
+                .sorted(Comparator.comparing(StepExecution::getStepName))
+                .map(EmployeeImportStatusService::toPartitionStatus)
+                .toList();
+
+        long totalRows = partitions.stream().mapToLong(EmployeeImportJobStatusResponse.PartitionStatus::getTotalRows).sum();
+        long readCount = partitions.stream().mapToLong(EmployeeImportJobStatusResponse.PartitionStatus::getReadCount).sum();
+        double seconds = secondsBetween(execution.getStartTime(), execution.getEndTime());
+        double itemsPerSecond = seconds > 0 ? readCount / seconds : 0;
+
+        Long estimatedSecondsRemaining = null;
+        if (execution.isRunning() && itemsPerSecond > 0) {
+            estimatedSecondsRemaining = Math.round(Math.max(0, totalRows - readCount) / itemsPerSecond);
+        }
+
+        return EmployeeImportJobStatusResponse.builder()
+                .jobExecutionId(execution.getId())
+                .status(execution.getStatus().name())
+                .exitDescription(execution.getExitStatus().getExitDescription())
+                .startedAt(execution.getStartTime())
+                .endedAt(execution.getEndTime())
+                .totalRows(totalRows)
+                .readCount(readCount)
+                .writeCount(partitions.stream().mapToLong(EmployeeImportJobStatusResponse.PartitionStatus::getWriteCount).sum())
+                .filterCount(partitions.stream().mapToLong(EmployeeImportJobStatusResponse.PartitionStatus::getFilterCount).sum())
+                .skipCount(partitions.stream().mapToLong(EmployeeImportJobStatusResponse.PartitionStatus::getSkipCount).sum())
+                .rollbackCount(execution.getStepExecutions().stream()
+                        .filter(step -> step.getStepName().startsWith(BatchConfig.WORKER_STEP + ":"))
+                        .mapToLong(StepExecution::getRollbackCount).sum())
+                .itemsPerSecond(itemsPerSecond)
+                .estimatedSecondsRemaining(estimatedSecondsRemaining)
+                .partitions(partitions)
+                .build();
+    }
+
+    private static EmployeeImportJobStatusResponse.PartitionStatus toPartitionStatus(StepExecution step) {
+        double seconds = secondsBetween(step.getStartTime(), step.getEndTime());
+        return EmployeeImportJobStatusResponse.PartitionStatus.builder()
+                .name(step.getStepName().substring(BatchConfig.WORKER_STEP.length() + 1))
+                .status(step.getStatus().name())
+                .totalRows(step.getExecutionContext().getLong(LineRangePartitioner.LINE_COUNT, 0L))
+                .readCount(step.getReadCount())
+                .writeCount(step.getWriteCount())
+                .filterCount(step.getFilterCount())
+                .skipCount(step.getSkipCount())
+                .commitCount(step.getCommitCount())
+                .averageChunkMillis(step.getCommitCount() > 0 ? seconds * 1000 / step.getCommitCount() : null)
+                .build();
+    }
+
+    // Up to now while the job is still running
+    private static double secondsBetween(LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            return 0;
+        }
+        return Duration.between(start, end != null ? end : LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
@@ -9,11 +9,22 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import com.aurionpro.papms.dto.CompleteEmployeeResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface EmployeeService {
     void addEmployee(Integer organizationId, AddEmployeeRequest request);
     BulkEmployeeUploadResponse bulkAddEmployees(Integer organizationId, MultipartFile file);
+
+    // Same as bulkAddEmployees, reported as NDJSON events while the file is processed. Access, the file and the
+    // upload limit are checked before this returns; the import itself runs when the writer is called
+    BulkUploadWriter streamBulkAddEmployees(Integer organizationId, MultipartFile file) throws IOException;
+
+    interface BulkUploadWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
     //List<EmployeeResponseDto> getEmployeesByOrganization(Integer organizationId);
     // MODIFIED: Updated the method signature for pagination
     Page<EmployeeResponseDto> getEmployeesByOrganization(Integer organizationId, Pageable pageable);
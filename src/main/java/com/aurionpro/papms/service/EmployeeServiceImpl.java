@@ -3,6 +3,8 @@ package com.aurionpro.papms.service;
 
 import com.aurionpro.papms.Enum.OwnerType;
 import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.batch.EmployeeImportJobLauncher;
+import com.aurionpro.papms.batch.JobCompletionNotificationListener;
 import com.aurionpro.papms.dto.*;
 import com.aurionpro.papms.emails.EmailService;
 import com.aurionpro.papms.entity.*;
@@ -16,8 +18,9 @@ import org.slf4j.LoggerFactory;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
-import org.springframework.batch.core.Job;
-import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,12 +33,18 @@ import com.aurionpro.papms.dto.CompleteEmployeeResponse;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import com.aurionpro.papms.mapper.EmployeeMapper;
+import com.aurionpro.papms.security.CsvUploadSecurityValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.auth.AuthenticatedUserCache;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -57,15 +66,23 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final BankAccountRepository bankAccountRepository;
     private final CsvEmployeeParser csvEmployeeParser;
     private static final Logger log = LoggerFactory.getLogger(EmployeeServiceImpl.class);
-    private final JobLauncher jobLauncher;
-    private final Job employeeCsvImportJob;
+    private final EmployeeImportJobLauncher employeeImportJobLauncher;
+    private final EmployeeImportJobRepository employeeImportJobRepository;
     private final CloudinaryService cloudinaryService; // ADDED
+    private final AuthenticatedUserCache userCache;
+    private final EmployeeBulkLoader employeeBulkLoader;
+    private final CsvUploadSecurityValidator csvUploadSecurityValidator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.employee-import.streaming.batch-size:500}")
+    private int streamingBatchSize;
+
+    @Value("${app.employee-import.streaming.max-file-size-mb:100}")
+    private long streamingMaxFileSizeMb;
     private static final List<String> ALLOWED_IMAGE_TYPES = List.of("image/jpeg", "image/png", "image/gif"); // ADDED
 
-    private User getLoggedInUser() {
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        return appUserRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new RuntimeException("Logged-in user not found"));
+    private AuthenticatedUser getLoggedInUser() {
+        return AuthenticatedUser.current();
     }
 
     // ADDED HELPER METHOD
@@ -77,7 +94,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public CompleteEmployeeResponse uploadProfilePicture(Integer organizationId, Long employeeId, MultipartFile file) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found with ID: " + employeeId));
 
@@ -126,7 +143,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     // ... (rest of the existing methods in EmployeeServiceImpl remain unchanged) ...
     @Override
     public void addEmployee(Integer organizationId, AddEmployeeRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
 
         if (currentUser.getRole() != Role.ORG_ADMIN) {
             throw new SecurityException("Only Organization Admins can add employees.");
@@ -160,14 +177,15 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional(readOnly = true)
     public Page<EmployeeResponseDto> getEmployeesByOrganization(Integer organizationId, Pageable pageable) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
 
         if (currentUser.getRole() == Role.ORG_ADMIN && !currentUser.getOrganizationId().equals(organizationId)) {
             throw new SecurityException("You cannot view employees of another organization.");
         }
 
-        organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + organizationId));
+        if (!organizationRepository.existsById(organizationId)) {
+            throw new NotFoundException("Organization not found with ID: " + organizationId);
+        }
 
         // 1. Call the new paginated repository method
         Page<Employee> employeePage = employeeRepository.findByOrganizationId(organizationId, pageable);
@@ -196,7 +214,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional(readOnly = true)
     public EmployeeResponseDto getEmployeeById(Integer organizationId, Long employeeId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found with ID: " + employeeId));
 
@@ -214,7 +232,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public void deleteEmployee(Integer organizationId, Long employeeId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found with ID: " + employeeId));
 
@@ -231,6 +249,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         employee.getUser().setIsActive(false);
         employeeRepository.save(employee);
         appUserRepository.save(employee.getUser());
+        userCache.evict(employee.getUser().getUsername());
     }
 
 
@@ -256,16 +275,19 @@ public class EmployeeServiceImpl implements EmployeeService {
 //    }
     @Override
     public String launchCsvImportJob(Integer organizationId, MultipartFile file) {
+        File tempFile = null;
+        Organization organization;
+        JobExecution execution;
         try {
             // Validate organization exists
-            Organization organization = organizationRepository.findById(organizationId)
+            organization = organizationRepository.findById(organizationId)
                     .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + organizationId));
 
             // Save the file to a temporary location
             Path tempDir = Files.createTempDirectory("csv-import-");
             String timestamp = String.valueOf(System.currentTimeMillis());
             String fileName = "employees_" + timestamp + ".csv";
-            File tempFile = tempDir.resolve(fileName).toFile();
+            tempFile = tempDir.resolve(fileName).toFile();
 
             Files.copy(file.getInputStream(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             log.info("CSV file saved temporarily to: {}", tempFile.getAbsolutePath());
@@ -277,15 +299,33 @@ public class EmployeeServiceImpl implements EmployeeService {
                     .addLong("organizationId", organizationId.longValue())
                     .toJobParameters();
 
-            // Launch the job asynchronously
-            jobLauncher.run(employeeCsvImportJob, jobParameters);
-
-            return "CSV import job started successfully. Processing " + organization.getCompanyName() + "'s employee data.";
-
+            // Returns once the execution is recorded; the import runs on the job launcher's threads
+            execution = employeeImportJobLauncher.launch(jobParameters);
         } catch (Exception e) {
             log.error("Failed to start CSV import job for organization {}", organizationId, e);
+            if (tempFile != null) {
+                // The job never ran, so its listener will not clean up
+                JobCompletionNotificationListener.deleteTemporaryFile(tempFile);
+            }
+            if (e instanceof TaskRejectedException rejected) {
+                throw rejected;
+            }
             throw new RuntimeException("Failed to start CSV import job: " + e.getMessage(), e);
         }
+
+        // The job is running and owns the file now, so failing to record it must not fail the request
+        try {
+            employeeImportJobRepository.save(EmployeeImportJob.builder()
+                    .jobExecutionId(execution.getId())
+                    .organizationId(organizationId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("CSV import job execution {} of organization {} started but could not be recorded; "
+                    + "it can be looked up by id but will not be listed", execution.getId(), organizationId, e);
+        }
+
+        return "CSV import job started successfully. Processing " + organization.getCompanyName()
+                + "'s employee data. Job execution ID: " + execution.getId();
     }
 
     @Override
@@ -316,7 +356,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public CompleteEmployeeResponse addCompleteEmployee(Integer organizationId, CompleteEmployeeRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
 
         // Authorization check
         if (currentUser.getRole() != Role.ORG_ADMIN) {
@@ -372,16 +412,17 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional(readOnly = true)
     public List<CompleteEmployeeResponse> getCompleteEmployeesByOrganization(Integer organizationId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
 
         if (currentUser.getRole() == Role.ORG_ADMIN && !currentUser.getOrganizationId().equals(organizationId)) {
             throw new SecurityException("You cannot view employees of another organization.");
         }
 
-        organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + organizationId));
+        if (!organizationRepository.existsById(organizationId)) {
+            throw new NotFoundException("Organization not found with ID: " + organizationId);
+        }
 
-        return employeeRepository.findByOrganizationId(organizationId).stream()
+        return employeeRepository.findWithDetailsByOrganizationId(organizationId).stream()
                 .map(EmployeeMapper::toCompleteDto)
                 .collect(Collectors.toList());
     }
@@ -389,7 +430,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional(readOnly = true)
     public CompleteEmployeeResponse getCompleteEmployeeById(Integer organizationId, Long employeeId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found with ID: " + employeeId));
 
@@ -407,7 +448,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public void updateSalaryStructure(Long employeeId, CompleteEmployeeRequest.SalaryStructureRequest salaryRequest) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found with ID: " + employeeId));
 
@@ -450,58 +491,29 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
-    @Transactional
     public BulkEmployeeUploadResponse bulkAddEmployees(Integer organizationId, MultipartFile file) {
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + organizationId));
-
-        // Security validation
-        User currentUser = getLoggedInUser();
-        if (currentUser.getRole() != Role.ORG_ADMIN || !currentUser.getOrganizationId().equals(organizationId)) {
-            throw new SecurityException("You are not authorized to add employees to this organization.");
-        }
+        // Not one transaction: the loader commits each chunk of records on its own
+        Organization organization = getOrganizationForBulkUpload(organizationId);
 
         // File validation
-        validateCsvFile(file);
+        validateCsvFile(file, 10 * 1024 * 1024); // 10MB limit
 
         // Parse CSV
         CsvEmployeeParser.CsvParseResult parseResult = csvEmployeeParser.parseCsvFile(file);
+        csvUploadSecurityValidator.validateCsvUploadLimit(organizationId,
+                parseResult.getValidRecords().size() + parseResult.getFailedRecords().size());
+
+        EmployeeBulkLoader.Result result = employeeBulkLoader.load(organization, parseResult.getValidRecords());
 
         List<String> successfulImports = new ArrayList<>();
         List<FailedEmployeeRecord> failedRecords = new ArrayList<>(parseResult.getFailedRecords());
-        List<CompleteEmployeeResponse> importedEmployees = new ArrayList<>();
-
-        BigDecimal totalMonthlySalary = BigDecimal.ZERO;
-        int employeesWithBankAccounts = 0;
-        int employeesWithSalaryStructure = 0;
-
-        // Process valid records
-        for (CsvEmployeeRecord csvRecord : parseResult.getValidRecords()) {
-            try {
-                CompleteEmployeeResponse createdEmployee = processSingleEmployeeRecord(
-                        organization, csvRecord, parseResult.getValidRecords().indexOf(csvRecord) + 1
-                );
+        failedRecords.addAll(result.failedRecords());
+        List<CompleteEmployeeResponse> importedEmployees = result.importedEmployees();
 
-                successfulImports.add(csvRecord.getFullName() + " (" + csvRecord.getEmail() + ")");
-                importedEmployees.add(createdEmployee);
-
-                // Update statistics
-                if (createdEmployee.getCurrentSalary() != null) {
-                    totalMonthlySalary = totalMonthlySalary.add(createdEmployee.getCurrentSalary().getTotalSalary());
-                    employeesWithSalaryStructure++;
-                }
-                if (createdEmployee.getBankAccount() != null) {
-                    employeesWithBankAccounts++;
-                }
-
-            } catch (Exception e) {
-                failedRecords.add(new FailedEmployeeRecord(
-                        (long) (parseResult.getValidRecords().indexOf(csvRecord) + 1),
-                        convertCsvRecordToMap(csvRecord),
-                        "Failed to create employee: " + e.getMessage()
-                ));
-                log.error("Failed to create employee from CSV record", e);
-            }
+        BulkUploadTotals totals = new BulkUploadTotals();
+        for (CompleteEmployeeResponse createdEmployee : importedEmployees) {
+            successfulImports.add(createdEmployee.getFullName() + " (" + createdEmployee.getEmail() + ")");
+            totals.add(createdEmployee);
         }
 
         // Log bulk upload activity for audit
@@ -516,124 +528,128 @@ public class EmployeeServiceImpl implements EmployeeService {
                 .successfullyImportedEmployees(successfulImports)
                 .failedRecords(failedRecords)
                 .importedEmployees(importedEmployees)
-                .totalMonthlySalary(totalMonthlySalary)
-                .employeesWithBankAccounts(employeesWithBankAccounts)
-                .employeesWithSalaryStructure(employeesWithSalaryStructure)
+                .totalMonthlySalary(totals.totalMonthlySalary)
+                .employeesWithBankAccounts(totals.employeesWithBankAccounts)
+                .employeesWithSalaryStructure(totals.employeesWithSalaryStructure)
                 .build();
     }
 
-    @Transactional
-    protected CompleteEmployeeResponse processSingleEmployeeRecord(Organization organization,
-                                                                   CsvEmployeeRecord csvRecord,
-                                                                   long recordNumber) {
-        // Validate unique constraints
-        if (appUserRepository.existsByUsername(csvRecord.getUsername())) {
-            throw new DuplicateUserException("Username already exists: " + csvRecord.getUsername());
-        }
-        if (employeeRepository.existsByOrganizationIdAndEmployeeCode(organization.getId(), csvRecord.getEmployeeCode())) {
-            throw new DuplicateUserException("Employee code already exists: " + csvRecord.getEmployeeCode());
-        }
-        if (bankAccountRepository.existsByAccountNumber(csvRecord.getAccountNumber())) {
-            throw new DuplicateUserException("Bank account number already exists: " + csvRecord.getAccountNumber());
-        }
-
-        // Step 1: Create User
-        User newUser = createUserFromCsvRecord(csvRecord, organization.getId());
-        User savedUser = appUserRepository.save(newUser);
-
-        // Step 2: Create Employee
-        Employee newEmployee = createEmployeeFromCsvRecord(csvRecord, savedUser, organization);
-        Employee savedEmployee = employeeRepository.save(newEmployee);
-
-        // Step 3: Create Bank Account
-        BankAccount bankAccount = createBankAccountFromCsvRecord(csvRecord, savedEmployee);
-        BankAccount savedBankAccount = bankAccountRepository.save(bankAccount);
-        savedEmployee.setBankAccount(savedBankAccount);
-
-        // Step 4: Create Salary Structure
-        SalaryStructure salaryStructure = createSalaryStructureFromCsvRecord(csvRecord, savedEmployee);
-        SalaryStructure savedSalaryStructure = salaryStructureRepository.save(salaryStructure);
-        savedEmployee.setSalaryStructures(List.of(savedSalaryStructure));
+    @Override
+    public BulkUploadWriter streamBulkAddEmployees(Integer organizationId, MultipartFile file) throws IOException {
+        Organization organization = getOrganizationForBulkUpload(organizationId);
+        validateCsvFile(file, streamingMaxFileSizeMb * 1024 * 1024);
 
-        // Send welcome email
-        sendWelcomeEmail(organization, csvRecord);
+        // A quick first pass, so the limit is enforced before anything is imported
+        long totalRows = csvEmployeeParser.countRecords(file);
+        csvUploadSecurityValidator.validateCsvUploadLimit(organizationId, (int) Math.min(totalRows, Integer.MAX_VALUE));
 
-        return EmployeeMapper.toCompleteDto(savedEmployee);
+        return out -> {
+            try {
+                writeStreamedUpload(organization, file, totalRows, out);
+            } catch (IOException | RuntimeException e) {
+                // The response status is already sent, so the client learns of the failure from the stream
+                log.error("Streamed bulk employee upload failed for organization {}", organizationId, e);
+                try {
+                    writeEvent(out, BulkEmployeeUploadEvent.builder()
+                            .type(BulkEmployeeUploadEvent.Type.ERROR)
+                            .message("Bulk import stopped: " + e.getMessage())
+                            .build());
+                    out.flush();
+                } catch (IOException writeFailure) {
+                    e.addSuppressed(writeFailure);
+                }
+                throw e;
+            }
+        };
     }
 
-    private User createUserFromCsvRecord(CsvEmployeeRecord csvRecord, Integer organizationId) {
-        return User.builder()
-                .username(csvRecord.getUsername())
-                .password(passwordEncoder.encode(csvRecord.getPassword()))
-                .fullName(csvRecord.getFullName())
-                .email(csvRecord.getEmail())
-                .role(Role.EMPLOYEE)
-                .organizationId(organizationId)
-                .isActive(true)
-                .build();
-    }
+    private void writeStreamedUpload(Organization organization, MultipartFile file, long totalRows, OutputStream out) throws IOException {
+        // Each batch is validated, loaded and reported before the next one is read
+        BulkUploadTotals totals = new BulkUploadTotals();
+        long rowsProcessed = 0;
+        int failedImports = 0;
+        try (CsvEmployeeParser.RecordBatches batches = csvEmployeeParser.openBatches(file, streamingBatchSize)) {
+            while (batches.hasNext()) {
+                CsvEmployeeParser.CsvParseResult batch = batches.next();
+                EmployeeBulkLoader.Result result = employeeBulkLoader.load(organization, batch.getValidRecords());
+
+                List<FailedEmployeeRecord> failures = new ArrayList<>(batch.getFailedRecords());
+                failures.addAll(result.failedRecords());
+                for (FailedEmployeeRecord failure : failures) {
+                    writeEvent(out, BulkEmployeeUploadEvent.builder()
+                            .type(BulkEmployeeUploadEvent.Type.FAILURE)
+                            .failure(failure)
+                            .build());
+                }
+                result.importedEmployees().forEach(totals::add);
+                rowsProcessed += batch.getValidRecords().size() + batch.getFailedRecords().size();
+                failedImports += failures.size();
+
+                writeEvent(out, BulkEmployeeUploadEvent.builder()
+                        .type(BulkEmployeeUploadEvent.Type.PROGRESS)
+                        .rowsProcessed(rowsProcessed)
+                        .totalRows(totalRows)
+                        .successfulImports(totals.successfulImports)
+                        .failedImports(failedImports)
+                        .build());
+                out.flush();
+            }
+        }
 
-    private Employee createEmployeeFromCsvRecord(CsvEmployeeRecord csvRecord, User user, Organization organization) {
-        return Employee.builder()
-                .user(user)
-                .organization(organization)
-                .employeeCode(csvRecord.getEmployeeCode())
-                .dateOfJoining(csvRecord.getDateOfJoining())
-                .department(csvRecord.getDepartment())
-                .jobTitle(csvRecord.getJobTitle())
-                .isActive(true)
-                .build();
+        log.info("Streamed bulk employee upload completed for organization {}: {} successful, {} failed",
+                organization.getId(), totals.successfulImports, failedImports);
+        writeEvent(out, BulkEmployeeUploadEvent.builder()
+                .type(BulkEmployeeUploadEvent.Type.SUMMARY)
+                .rowsProcessed(rowsProcessed)
+                .totalRows(totalRows)
+                .successfulImports(totals.successfulImports)
+                .failedImports(failedImports)
+                .message(String.format("Bulk import completed. Success: %d, Failed: %d",
+                        totals.successfulImports, failedImports))
+                .totalMonthlySalary(totals.totalMonthlySalary)
+                .employeesWithBankAccounts(totals.employeesWithBankAccounts)
+                .employeesWithSalaryStructure(totals.employeesWithSalaryStructure)
+                .build());
+        out.flush();
     }
 
-    private BankAccount createBankAccountFromCsvRecord(CsvEmployeeRecord csvRecord, Employee employee) {
-        return BankAccount.builder()
-                .employee(employee)
-                .ownerType(OwnerType.EMPLOYEE)
-                .accountHolderName(csvRecord.getAccountHolderName())
-                .accountNumber(csvRecord.getAccountNumber())
-                .bankName(csvRecord.getBankName())
-                .ifscCode(csvRecord.getIfscCode())
-                .isPrimary(true)
-                .build();
-    }
+    private Organization getOrganizationForBulkUpload(Integer organizationId) {
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + organizationId));
 
-    private SalaryStructure createSalaryStructureFromCsvRecord(CsvEmployeeRecord csvRecord, Employee employee) {
-        return SalaryStructure.builder()
-                .employee(employee)
-                .basicSalary(csvRecord.getBasicSalary())
-                .hra(csvRecord.getHra())
-                .da(csvRecord.getDa())
-                .pfContribution(csvRecord.getPfContribution())
-                .otherAllowances(csvRecord.getOtherAllowances())
-                .effectiveFromDate(csvRecord.getEffectiveFromDate())
-                .isActive(true)
-                .build();
+        // Security validation
+        AuthenticatedUser currentUser = getLoggedInUser();
+        if (currentUser.getRole() != Role.ORG_ADMIN || !currentUser.getOrganizationId().equals(organizationId)) {
+            throw new SecurityException("You are not authorized to add employees to this organization.");
+        }
+        return organization;
     }
 
-    private void sendWelcomeEmail(Organization organization, CsvEmployeeRecord csvRecord) {
-        try {
-            String subject = "Welcome to " + organization.getCompanyName();
-            String body = String.format("""
-                <h3>Hello %s,</h3>
-                <p>Your employee account has been created successfully.</p>
-                <p><b>Username:</b> %s</p>
-                <p><b>Employee Code:</b> %s</p>
-                <p><b>Department:</b> %s</p>
-                <p><b>Job Title:</b> %s</p>
-                <p>Please use the temporary password provided to you to log in for the first time.</p>
-                <p>We recommend changing your password after first login.</p>
-                """,
-                    csvRecord.getFullName(), csvRecord.getUsername(), csvRecord.getEmployeeCode(),
-                    csvRecord.getDepartment(), csvRecord.getJobTitle());
+    private void writeEvent(OutputStream out, BulkEmployeeUploadEvent event) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(event));
+        out.write('\n');
+    }
 
-            emailService.sendEmail(organization.getContactEmail(), csvRecord.getEmail(), subject, body);
-        } catch (Exception e) {
-            log.warn("Failed to send welcome email to {}", csvRecord.getEmail(), e);
-            // Don't fail the entire process if email fails
+    // Summary statistics of the imported employees
+    private static class BulkUploadTotals {
+        private int successfulImports;
+        private BigDecimal totalMonthlySalary = BigDecimal.ZERO;
+        private int employeesWithBankAccounts;
+        private int employeesWithSalaryStructure;
+
+        void add(CompleteEmployeeResponse employee) {
+            successfulImports++;
+            if (employee.getCurrentSalary() != null) {
+                totalMonthlySalary = totalMonthlySalary.add(employee.getCurrentSalary().getTotalSalary());
+                employeesWithSalaryStructure++;
+            }
+            if (employee.getBankAccount() != null) {
+                employeesWithBankAccounts++;
+            }
         }
     }
 
-    private void validateCsvFile(MultipartFile file) {
+    private void validateCsvFile(MultipartFile file, long maxBytes) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Uploaded file is empty");
         }
@@ -644,8 +660,8 @@ public class EmployeeServiceImpl implements EmployeeService {
                     "Invalid file type. Expected CSV file, got: " + contentType);
         }
 
-        if (file.getSize() > 10 * 1024 * 1024) { // 10MB limit
-            throw new IllegalArgumentException("File size exceeds maximum limit of 10MB");
+        if (file.getSize() > maxBytes) {
+            throw new IllegalArgumentException("File size exceeds maximum limit of " + maxBytes / (1024 * 1024) + "MB");
         }
     }
 
@@ -658,22 +674,10 @@ public class EmployeeServiceImpl implements EmployeeService {
         );
     }
 
-    private Map<String, String> convertCsvRecordToMap(CsvEmployeeRecord record) {
-        Map<String, String> map = new HashMap<>();
-        map.put("username", record.getUsername());
-        map.put("fullName", record.getFullName());
-        map.put("email", record.getEmail());
-        map.put("employeeCode", record.getEmployeeCode());
-        map.put("department", record.getDepartment());
-        map.put("jobTitle", record.getJobTitle());
-        map.put("accountNumber", record.getAccountNumber());
-        map.put("bankName", record.getBankName());
-        return map;
-    }
     @Override
     @Transactional
     public CompleteEmployeeResponse updateEmployeeProfile(Long employeeId, UpdateEmployeeRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = getEmployeeWithAuthorization(employeeId, currentUser, true);
 
         // Employees can only update their own profile
@@ -687,7 +691,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public CompleteEmployeeResponse updateEmployeeDetails(Integer organizationId, Long employeeId, UpdateEmployeeRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = getEmployeeWithAuthorization(employeeId, currentUser, false);
 
         // Organization admin can update any employee in their organization
@@ -721,7 +725,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public CompleteEmployeeResponse updateEmployeeSalary(Integer organizationId, Long employeeId, UpdateSalaryRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = getEmployeeWithAuthorization(employeeId, currentUser, false);
 
         // Only organization admin can update salary
@@ -766,7 +770,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public void changePassword(Long employeeId, ChangePasswordRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = getEmployeeWithAuthorization(employeeId, currentUser, true);
 
         // Employees can only change their own password
@@ -793,6 +797,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         // Update password
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         appUserRepository.save(user);
+        userCache.evict(user.getUsername());
 
         log.info("Password changed for employee {}", employeeId);
 
@@ -815,7 +820,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public CompleteEmployeeResponse updateBankAccount(Long employeeId, UpdateEmployeeRequest.UpdateBankAccountRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = getEmployeeWithAuthorization(employeeId, currentUser, true);
 
         // Employees can only update their own bank account
@@ -846,7 +851,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public CompleteEmployeeResponse toggleEmployeeStatus(Integer organizationId, Long employeeId, boolean isActive) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         Employee employee = getEmployeeWithAuthorization(employeeId, currentUser, false);
 
         // Only organization admin can change employee status
@@ -861,6 +866,7 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         employeeRepository.save(employee);
         appUserRepository.save(employee.getUser());
+        userCache.evict(employee.getUser().getUsername());
 
         String action = isActive ? "activated" : "deactivated";
         log.info("Employee {} {} by admin {}", employeeId, action, currentUser.getUsername());
@@ -869,7 +875,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     // Helper methods for authorization and validation
-    private Employee getEmployeeWithAuthorization(Long employeeId, User currentUser, boolean allowSelf) {
+    private Employee getEmployeeWithAuthorization(Long employeeId, AuthenticatedUser currentUser, boolean allowSelf) {
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found with ID: " + employeeId));
 
@@ -888,7 +894,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employee;
     }
 
-    private void validateOrganizationAccess(User currentUser, Integer organizationId, Employee employee) {
+    private void validateOrganizationAccess(AuthenticatedUser currentUser, Integer organizationId, Employee employee) {
         if (currentUser.getRole() != Role.ORG_ADMIN ||
                 !currentUser.getOrganizationId().equals(organizationId) ||
                 !employee.getOrganization().getId().equals(organizationId)) {
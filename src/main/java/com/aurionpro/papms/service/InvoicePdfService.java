@@ -1,15 +1,16 @@
 package com.aurionpro.papms.service;
 
+import com.aurionpro.papms.dto.RenderedPdf;
 import com.aurionpro.papms.entity.Invoice;
+import com.aurionpro.papms.entity.Organization;
 import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.repository.InvoiceRepository;
 import com.aurionpro.papms.utils.PdfStylingHelper; // NEW IMPORT
+import com.aurionpro.papms.utils.PdfTemplate;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.kernel.geom.PageSize;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
-import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
@@ -19,10 +20,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor // Use Lombok constructor injection
@@ -30,91 +32,127 @@ public class InvoicePdfService {
 
     // MODIFIED: Inject InvoiceRepository directly to get the full entity
     private final InvoiceRepository invoiceRepository;
+    private final RenderedPdfCache renderedPdfCache;
+    private final OrganizationLogoCache organizationLogoCache;
+    private final PdfTemplateCache pdfTemplateCache;
+
+    // Bump when the layout changes, so cached copies are not served any more
+    private static final String TEMPLATE_VERSION = "invoice-v2";
+
+    // Template fields
+    private static final String INVOICE_NUMBER = "invoiceNumber";
+    private static final String ISSUE_DATE = "issueDate";
+    private static final String DUE_DATE = "dueDate";
+    private static final String CLIENT_NAME = "clientName";
+    private static final String CLIENT_CONTACT = "clientContact";
+    private static final String CLIENT_EMAIL = "clientEmail";
+    private static final String AMOUNT = "amount";
+    private static final String TOTAL = "total";
+    private static final String STATUS = "status";
 
     private String valueOf(Object obj) {
         return Objects.toString(obj, "N/A");
     }
 
     @Transactional(readOnly = true)
-    public byte[] generateInvoicePdf(Integer invoiceId) {
+    public RenderedPdf generateInvoicePdf(Integer invoiceId) {
+        return generateInvoicePdf(invoiceId, etag -> false);
+    }
+
+    /**
+     * Returns {@link RenderedPdf#notModified} without rendering when {@code notModified} accepts the document's ETag.
+     */
+    @Transactional(readOnly = true)
+    public RenderedPdf generateInvoicePdf(Integer invoiceId, Predicate<String> notModified) {
         // Fetch the full entity to get access to related objects like Organization
-        Invoice invoice = invoiceRepository.findById(invoiceId)
+        Invoice invoice = invoiceRepository.findWithPartiesById(invoiceId)
                 .orElseThrow(() -> new NotFoundException("Invoice not found with ID: " + invoiceId));
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf, PageSize.A4);
-        document.setMargins(36, 36, 50, 36); // top, right, bottom, left
-
-        try {
-            // Use the styling helper for a professional header
-            PdfStylingHelper.addLogoAndTitle(document, invoice.getOrganization(), "INVOICE");
-
-            // --- Billed From/To and Invoice Details Section ---
-            Table detailsTable = new Table(UnitValue.createPercentArray(new float[]{1, 1, 1, 1})).useAllAvailableWidth();
-            detailsTable.setBorder(Border.NO_BORDER);
-
-            // Billed From (Left side)
-            Cell fromCell = new Cell(1, 2).setBorder(Border.NO_BORDER).setPadding(10);
-            fromCell.add(new Paragraph("BILLED FROM").setBold().setFontColor(PdfStylingHelper.PRIMARY_COLOR));
-            fromCell.add(new Paragraph(valueOf(invoice.getOrganization().getCompanyName())).setBold());
-            fromCell.add(new Paragraph(valueOf(invoice.getOrganization().getAddress())));
-            fromCell.add(new Paragraph(valueOf(invoice.getOrganization().getContactEmail())));
-            detailsTable.addCell(fromCell);
-
-            // Invoice Details (Right side)
-            Table nestedDetails = new Table(UnitValue.createPercentArray(new float[]{1, 1})).useAllAvailableWidth();
-            nestedDetails.addCell(PdfStylingHelper.createLabelCell("Invoice #"));
-            nestedDetails.addCell(PdfStylingHelper.createValueCell(valueOf(invoice.getInvoiceNumber()), TextAlignment.RIGHT));
-            nestedDetails.addCell(PdfStylingHelper.createLabelCell("Issue Date"));
-            nestedDetails.addCell(PdfStylingHelper.createValueCell(invoice.getIssueDate().format(DateTimeFormatter.ISO_LOCAL_DATE), TextAlignment.RIGHT));
-            nestedDetails.addCell(PdfStylingHelper.createLabelCell("Due Date"));
-            nestedDetails.addCell(PdfStylingHelper.createValueCell(invoice.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE), TextAlignment.RIGHT));
-            detailsTable.addCell(new Cell(1, 2).add(nestedDetails).setBorder(Border.NO_BORDER));
-
-            // Billed To
-            Cell toCell = new Cell(1, 2).setBorder(Border.NO_BORDER).setPadding(10);
-            toCell.add(new Paragraph("BILLED TO").setBold().setFontColor(PdfStylingHelper.PRIMARY_COLOR));
-            toCell.add(new Paragraph(valueOf(invoice.getClient().getCompanyName())).setBold());
-            toCell.add(new Paragraph("Attn: " + valueOf(invoice.getClient().getContactPerson())));
-            toCell.add(new Paragraph(valueOf(invoice.getClient().getUser().getEmail())));
-            detailsTable.addCell(toCell);
-
-            document.add(detailsTable);
-            document.add(new Paragraph("\n"));
-
-            // --- Invoice Items Table ---
-            Table itemTable = new Table(UnitValue.createPercentArray(new float[]{4, 1})).useAllAvailableWidth();
-            itemTable.addHeaderCell(PdfStylingHelper.createHeaderCell("Description"));
-            itemTable.addHeaderCell(PdfStylingHelper.createHeaderCell("Amount (INR)"));
-
-            // Since there are no line items, we create a single descriptive row
-            itemTable.addCell(new Cell().add(new Paragraph("Services Rendered / Products Sold")).setPadding(8));
-            itemTable.addCell(new Cell().add(new Paragraph(invoice.getAmount().toPlainString())).setTextAlignment(TextAlignment.RIGHT).setPadding(8));
-            document.add(itemTable);
-
-            // --- Totals Section ---
-            Table totalTable = new Table(UnitValue.createPercentArray(new float[]{1, 1})).useAllAvailableWidth();
-            totalTable.setBorder(Border.NO_BORDER).setMarginLeft(300); // Push to the right
-            totalTable.addCell(PdfStylingHelper.createLabelCell("Total"));
-            totalTable.addCell(PdfStylingHelper.createValueCell("₹ " + invoice.getAmount().toPlainString(), TextAlignment.RIGHT).setBold().setFontSize(14));
-
-            document.add(totalTable);
-
-            // --- Status ---
-            document.add(new Paragraph("Status: " + invoice.getStatus())
-                    .setTextAlignment(TextAlignment.RIGHT).setBold().setFontColor(PdfStylingHelper.PRIMARY_COLOR));
-
-            // Add footer at the end
-            PdfStylingHelper.addFooter(document);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating PDF", e);
-        } finally {
-            document.close();
-        }
-
-        return baos.toByteArray();
+        // Everything the PDF shows; the status (and so updatedAt) changes when the invoice is paid
+        String version = String.join("|", TEMPLATE_VERSION, String.valueOf(invoice.getUpdatedAt()),
+                String.valueOf(invoice.getOrganization().getUpdatedAt()), String.valueOf(invoice.getClient().getUpdatedAt()),
+                String.valueOf(invoice.getClient().getUser().getUpdatedAt()));
+        return renderedPdfCache.getOrRender("invoice", invoiceId, version, notModified, () -> render(invoice));
+    }
+
+    // The organization's side is static in the template; only the invoice and client fields vary
+    private byte[] render(Invoice invoice) {
+        Organization organization = invoice.getOrganization();
+        ImageData logo = organizationLogoCache.getLogo(organization).orElse(null);
+        PdfTemplate.Layout layout = (document, fields) -> layout(document, organization, logo, fields);
+        Map<String, String> values = Map.of(
+                INVOICE_NUMBER, valueOf(invoice.getInvoiceNumber()),
+                ISSUE_DATE, invoice.getIssueDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                DUE_DATE, invoice.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                CLIENT_NAME, valueOf(invoice.getClient().getCompanyName()),
+                CLIENT_CONTACT, "Attn: " + valueOf(invoice.getClient().getContactPerson()),
+                CLIENT_EMAIL, valueOf(invoice.getClient().getUser().getEmail()),
+                AMOUNT, invoice.getAmount().toPlainString(),
+                TOTAL, "₹ " + invoice.getAmount().toPlainString(),
+                STATUS, "Status: " + invoice.getStatus());
+
+        return pdfTemplateCache.get(TEMPLATE_VERSION, organization, logo, () -> PdfTemplate.compile(PageSize.A4, layout))
+                .fill(values)
+                .orElseGet(() -> PdfTemplate.render(PageSize.A4, layout, values));
+    }
+
+    private void layout(Document document, Organization organization, ImageData logo, Function<String, Paragraph> fields) {
+        // Use the styling helper for a professional header
+        PdfStylingHelper.addLogoAndTitle(document, organization, logo, "INVOICE");
+
+        // --- Billed From/To and Invoice Details Section ---
+        Table detailsTable = new Table(UnitValue.createPercentArray(new float[]{1, 1, 1, 1})).useAllAvailableWidth();
+        detailsTable.setBorder(Border.NO_BORDER);
+
+        // Billed From (Left side)
+        Cell fromCell = new Cell(1, 2).setBorder(Border.NO_BORDER).setPadding(10);
+        fromCell.add(new Paragraph("BILLED FROM").setBold().setFontColor(PdfStylingHelper.PRIMARY_COLOR));
+        fromCell.add(new Paragraph(valueOf(organization.getCompanyName())).setBold());
+        fromCell.add(new Paragraph(valueOf(organization.getAddress())));
+        fromCell.add(new Paragraph(valueOf(organization.getContactEmail())));
+        detailsTable.addCell(fromCell);
+
+        // Invoice Details (Right side)
+        Table nestedDetails = new Table(UnitValue.createPercentArray(new float[]{1, 1})).useAllAvailableWidth();
+        nestedDetails.addCell(PdfStylingHelper.createLabelCell("Invoice #"));
+        nestedDetails.addCell(PdfStylingHelper.createValueCell(fields.apply(INVOICE_NUMBER), TextAlignment.RIGHT));
+        nestedDetails.addCell(PdfStylingHelper.createLabelCell("Issue Date"));
+        nestedDetails.addCell(PdfStylingHelper.createValueCell(fields.apply(ISSUE_DATE), TextAlignment.RIGHT));
+        nestedDetails.addCell(PdfStylingHelper.createLabelCell("Due Date"));
+        nestedDetails.addCell(PdfStylingHelper.createValueCell(fields.apply(DUE_DATE), TextAlignment.RIGHT));
+        detailsTable.addCell(new Cell(1, 2).add(nestedDetails).setBorder(Border.NO_BORDER));
+
+        // Billed To
+        Cell toCell = new Cell(1, 2).setBorder(Border.NO_BORDER).setPadding(10);
+        toCell.add(new Paragraph("BILLED TO").setBold().setFontColor(PdfStylingHelper.PRIMARY_COLOR));
+        toCell.add(fields.apply(CLIENT_NAME).setBold());
+        toCell.add(fields.apply(CLIENT_CONTACT));
+        toCell.add(fields.apply(CLIENT_EMAIL));
+        detailsTable.addCell(toCell);
+
+        document.add(detailsTable);
+        document.add(new Paragraph("\n"));
+
+        // --- Invoice Items Table ---
+        Table itemTable = new Table(UnitValue.createPercentArray(new float[]{4, 1})).useAllAvailableWidth();
+        itemTable.addHeaderCell(PdfStylingHelper.createHeaderCell("Description"));
+        itemTable.addHeaderCell(PdfStylingHelper.createHeaderCell("Amount (INR)"));
+
+        // Since there are no line items, we create a single descriptive row
+        itemTable.addCell(new Cell().add(new Paragraph("Services Rendered / Products Sold")).setPadding(8));
+        itemTable.addCell(new Cell().add(fields.apply(AMOUNT)).setTextAlignment(TextAlignment.RIGHT).setPadding(8));
+        document.add(itemTable);
+
+        // --- Totals Section ---
+        Table totalTable = new Table(UnitValue.createPercentArray(new float[]{1, 1})).useAllAvailableWidth();
+        totalTable.setBorder(Border.NO_BORDER).setMarginLeft(300); // Push to the right
+        totalTable.addCell(PdfStylingHelper.createLabelCell("Total"));
+        totalTable.addCell(PdfStylingHelper.createValueCell(fields.apply(TOTAL), TextAlignment.RIGHT).setBold().setFontSize(14));
+
+        document.add(totalTable);
+
+        // --- Status ---
+        document.add(fields.apply(STATUS)
+                .setTextAlignment(TextAlignment.RIGHT).setBold().setFontColor(PdfStylingHelper.PRIMARY_COLOR));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.TransactionType;
+import com.aurionpro.papms.entity.BalanceSnapshot;
+import com.aurionpro.papms.repository.BalanceSnapshotRepository;
+import com.aurionpro.papms.repository.JournalAccountRepository;
+import com.aurionpro.papms.repository.JournalAccountRepository.AccountState;
+import com.aurionpro.papms.repository.JournalAccountWriter;
+import com.aurionpro.papms.repository.OrganizationRepository;
+import com.aurionpro.papms.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only ledger. In journal mode nothing updates a balance column: every payment is just
+ * an INSERT into transactions, and the balance of an organization is its latest
+ * balance_snapshots row (or its journal_accounts seed) plus the net amount of the transactions
+ * recorded after it. Snapshots are written in the background by {@link #compact(Integer)}.
+ * <p>
+ * Credits never lock anything. Debits lock the organization's journal_accounts row for the rest
+ * of their transaction and add themselves to its running debit total, so the overdraft check
+ * counts every earlier debit even when the caller's read view is older than those commits.
+ * Credits that are not committed yet are invisible, which only makes the check conservative.
+ * Everything runs in the caller's transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JournalLedgerService {
+
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final JournalAccountRepository accountRepository;
+    private final JournalAccountWriter accountWriter;
+    private final OrganizationRepository organizationRepository;
+
+    // Organizations known to have a committed journal account
+    private final Set<Integer> seededOrganizations = ConcurrentHashMap.newKeySet();
+
+    // Transactions younger than this are left in the tail, so rows with a lower id that commit late are never skipped
+    @Value("${app.ledger.journal.compaction-lag-seconds:60}")
+    private long compactionLagSeconds;
+
+    /**
+     * Returns the balance after the credit, as an estimate: concurrent uncommitted credits are not included.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal credit(Integer organizationId, BigDecimal amount) {
+        ensureAccount(organizationId);
+        Base base = latestBase(organizationId, accountRepository.findState(organizationId));
+        if (base == null) {
+            // Another transaction created the account after our read view was taken
+            return organizationRepository.findInternalBalanceById(organizationId).add(amount);
+        }
+        return base.balance()
+                .add(transactionRepository.sumNetAmountBetween(organizationId, base.lastTransactionId(), Long.MAX_VALUE, TransactionType.CREDIT))
+                .add(amount);
+    }
+
+    /**
+     * Checks the balance covers the amount and returns the balance after the debit. The caller
+     * inserts the DEBIT transaction in the same transaction, before the lock is released.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal debit(Integer organizationId, BigDecimal amount) {
+        ensureAccount(organizationId);
+        AccountState account = accountRepository.lockState(organizationId);
+        Base base = latestBase(organizationId, account);
+
+        BigDecimal balance = base.balance()
+                .add(transactionRepository.sumAmountBetween(organizationId, base.lastTransactionId(), Long.MAX_VALUE, TransactionType.CREDIT))
+                .subtract(account.getDebitedTotal().subtract(base.debitedTotal()));
+        if (balance.compareTo(amount) < 0) {
+            throw new IllegalStateException("Insufficient funds to complete this payment.");
+        }
+        accountRepository.addDebit(organizationId, amount);
+        return balance.subtract(amount);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(Integer organizationId) {
+        Base base = latestBase(organizationId, accountRepository.findState(organizationId));
+        if (base == null) {
+            return organizationRepository.findInternalBalanceById(organizationId);
+        }
+        return base.balance().add(transactionRepository.sumNetAmountBetween(
+                organizationId, base.lastTransactionId(), Long.MAX_VALUE, TransactionType.CREDIT));
+    }
+
+    /**
+     * Writes a new snapshot covering the transactions older than the compaction lag and copies
+     * the result to organizations.internal_balance, which serves as the cached balance for
+     * screens and reports. Returns false when there was nothing to compact.
+     */
+    @Transactional
+    public boolean compact(Integer organizationId) {
+        Base base = latestBase(organizationId, accountRepository.findState(organizationId));
+        if (base == null) {
+            return false;
+        }
+        Long upToId = transactionRepository.findMaxIdByOrganizationIdBefore(
+                organizationId, LocalDateTime.now().minusSeconds(compactionLagSeconds));
+        if (upToId == null || upToId <= base.lastTransactionId()) {
+            return false;
+        }
+
+        BigDecimal balance = base.balance().add(transactionRepository.sumNetAmountBetween(
+                organizationId, base.lastTransactionId(), upToId, TransactionType.CREDIT));
+        BigDecimal debitedTotal = base.debitedTotal().add(transactionRepository.sumAmountBetween(
+                organizationId, base.lastTransactionId(), upToId, TransactionType.DEBIT));
+        snapshotRepository.save(BalanceSnapshot.builder()
+                .organization(organizationRepository.getReferenceById(organizationId))
+                .balance(balance)
+                .lastTransactionId(upToId)
+                .debitedTotal(debitedTotal)
+                .build());
+        organizationRepository.setInternalBalance(organizationId, balance);
+        return true;
+    }
+
+    /**
+     * The latest snapshot, or the account's seed when nothing has been compacted yet; null when
+     * the organization has no journal account.
+     */
+    private Base latestBase(Integer organizationId, AccountState account) {
+        if (account == null) {
+            return null;
+        }
+        return snapshotRepository.findTopByOrganizationIdOrderByLastTransactionIdDesc(organizationId)
+                .map(s -> new Base(s.getBalance(), s.getLastTransactionId(), s.getDebitedTotal()))
+                .orElseGet(() -> new Base(account.getSeedBalance(), account.getSeedTransactionId(), BigDecimal.ZERO));
+    }
+
+    /**
+     * The first journal write of an organization creates its journal account, seeded from
+     * organizations.internal_balance and covering every transaction recorded before the switch.
+     * The existence check takes no lock, and the insert only takes the shared foreign-key lock on
+     * the organization row that the caller's own inserts already hold, so seeding cannot wait on
+     * the caller. Concurrent first writers insert only one account.
+     */
+    private void ensureAccount(Integer organizationId) {
+        if (seededOrganizations.contains(organizationId)) {
+            return;
+        }
+        if (accountRepository.existsById(organizationId)) {
+            seededOrganizations.add(organizationId);
+            return;
+        }
+        Long lastTransactionId = transactionRepository.findMaxIdByOrganizationId(organizationId);
+        int inserted = accountWriter.insertIfAbsent(organizationId,
+                organizationRepository.findInternalBalanceById(organizationId),
+                lastTransactionId != null ? lastTransactionId : 0L);
+        if (inserted > 0) {
+            log.info("Seeded journal account for organization {}", organizationId);
+        }
+    }
+
+    private record Base(BigDecimal balance, Long lastTransactionId, BigDecimal debitedTotal) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.entity.Organization;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decoded organization logos for PDF headers, so rendering a payslip, invoice or bill does not
+ * fetch and decode the logo over HTTP every time.
+ * <p>
+ * Entries are keyed by organization and remember the URL they were loaded from: a changed
+ * {@code logoUrl} is picked up on the next render, and {@link #evict(Integer)} drops an entry
+ * explicitly. Fetches have connect and read timeouts and a size limit. A failed fetch is
+ * remembered for {@code app.pdf.logo-cache.failure-retry-seconds}, during which documents render
+ * with the company name instead of retrying the fetch for every document.
+ */
+@Component
+@Slf4j
+public class OrganizationLogoCache {
+
+    @Value("${app.pdf.logo-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.pdf.logo-cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${app.pdf.logo-cache.failure-retry-seconds:60}")
+    private long failureRetrySeconds;
+
+    @Value("${app.pdf.logo-cache.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.pdf.logo-cache.read-timeout-ms:3000}")
+    private int readTimeoutMs;
+
+    @Value("${app.pdf.logo-cache.max-bytes:2097152}")
+    private int maxBytes;
+
+    private Cache<Integer, CachedLogo> cache;
+
+    // Fetches in progress, so concurrent callers for one organization share a single request
+    private final ConcurrentMap<Integer, CompletableFuture<CachedLogo>> fetches = new ConcurrentHashMap<>();
+
+    // An empty image is a failed fetch, to be retried after retryAfter
+    private record CachedLogo(String url, ImageData image, Instant retryAfter) {
+        boolean isUsableFor(String requestedUrl) {
+            return url.equals(requestedUrl) && (image != null || Instant.now().isBefore(retryAfter));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * The organization's logo, or empty when it has none or it cannot be loaded. Concurrent
+     * callers for the same organization wait for a single fetch, which runs outside the cache's
+     * locks so a slow logo server never blocks lookups for other organizations.
+     */
+    public Optional<ImageData> getLogo(Organization organization) {
+        String url = organization.getLogoUrl();
+        if (url == null || url.isBlank()) {
+            return Optional.empty();
+        }
+        CachedLogo cached = cache.getIfPresent(organization.getId());
+        if (cached == null || !cached.isUsableFor(url)) {
+            cached = fetch(organization.getId(), url);
+        }
+        return Optional.ofNullable(cached.image());
+    }
+
+    public void evict(Integer organizationId) {
+        cache.invalidate(organizationId);
+    }
+
+    private CachedLogo fetch(Integer organizationId, String url) {
+        CompletableFuture<CachedLogo> fetch = new CompletableFuture<>();
+        CompletableFuture<CachedLogo> running = fetches.putIfAbsent(organizationId, fetch);
+        if (running != null) {
+            CachedLogo fetched = running.join();
+            // A fetch started for an older logoUrl does not count
+            return fetched.isUsableFor(url) ? fetched : load(organizationId, url);
+        }
+        try {
+            // Another fetch may have finished between the caller's cache lookup and putIfAbsent
+            CachedLogo loaded = cache.getIfPresent(organizationId);
+            if (loaded == null || !loaded.isUsableFor(url)) {
+                loaded = load(organizationId, url);
+                cache.put(organizationId, loaded);
+            }
+            fetch.complete(loaded);
+            return loaded;
+        } catch (Error e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            fetches.remove(organizationId, fetch);
+        }
+    }
+
+    private CachedLogo load(Integer organizationId, String url) {
+        try {
+            URLConnection connection = URI.create(url).toURL().openConnection();
+            connection.setConnectTimeout(connectTimeoutMs);
+            connection.setReadTimeout(readTimeoutMs);
+            byte[] bytes;
+            try (InputStream in = connection.getInputStream()) {
+                bytes = in.readNBytes(maxBytes + 1);
+            }
+            if (bytes.length > maxBytes) {
+                throw new IOException("logo is larger than " + maxBytes + " bytes");
+            }
+            return new CachedLogo(url, ImageDataFactory.create(bytes), null);
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException covers malformed URLs and images iText cannot decode
+            log.warn("Could not load logo for organization {} from {}: {}", organizationId, url, e.getMessage());
+            return new CachedLogo(url, null, Instant.now().plusSeconds(failureRetrySeconds));
+        }
+    }
+}
@@ -26,7 +26,7 @@ public interface OrganizationService {
     // MODIFIED: Method signature updated for pagination
     Page<OrganizationResponseDto> getAllOrganizations(Pageable pageable);
 
-    List<Organization> getPendingOrganizations();
+    List<OrganizationResponseDto> getPendingOrganizations();
     
     Optional<Organization> getOrganizationById(Integer id);
 
@@ -44,6 +44,9 @@ public interface OrganizationService {
 
     OrganizationProfileResponse getProfile(Integer id);
 
+    // Replaces the logo of the current user's organization
+    Organization updateLogo(MultipartFile logo);
+
 //    List<Document> uploadVerificationDocuments(Integer organizationId, MultipartFile document1, MultipartFile document2);
     List<DocumentResponseDto> uploadVerificationDocuments(Integer organizationId, MultipartFile document1, MultipartFile document2);
 
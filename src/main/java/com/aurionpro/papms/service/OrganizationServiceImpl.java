@@ -18,6 +18,8 @@ import com.aurionpro.papms.mapper.OrganizationMapper;
 import com.aurionpro.papms.repository.AppUserRepository;
 import com.aurionpro.papms.repository.DocumentRepository;
 import com.aurionpro.papms.repository.OrganizationRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.auth.AuthenticatedUserCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -45,11 +47,14 @@ public class OrganizationServiceImpl implements OrganizationService {
     private final CloudinaryService cloudinaryService;
     private final DocumentRepository documentRepository;
     private final ObjectMapper objectMapper;
+    private final AuthenticatedUserCache userCache;
+    private final PdfTemplateCache pdfTemplateCache;
 
     public OrganizationServiceImpl(OrganizationRepository organizationRepository,
                                    PasswordEncoder passwordEncoder, AppUserRepository userRepo,
                                    EmailService emailService, CloudinaryService cloudinaryService,
-                                   DocumentRepository documentRepository, ObjectMapper objectMapper) {
+                                   DocumentRepository documentRepository, ObjectMapper objectMapper,
+                                   AuthenticatedUserCache userCache, PdfTemplateCache pdfTemplateCache) {
         this.organizationRepository = organizationRepository;
         this.passwordEncoder = passwordEncoder;
         this.userRepo = userRepo;
@@ -57,6 +62,8 @@ public class OrganizationServiceImpl implements OrganizationService {
         this.cloudinaryService = cloudinaryService;
         this.documentRepository = documentRepository;
         this.objectMapper = objectMapper;
+        this.userCache = userCache;
+        this.pdfTemplateCache = pdfTemplateCache;
     }
 
     // ADDED HELPER METHOD
@@ -76,7 +83,7 @@ public class OrganizationServiceImpl implements OrganizationService {
             throw new IllegalArgumentException("Invalid JSON format for organizationData.", e);
         }
 
-        if (organizationRepository.findByCompanyName(request.getCompanyName()).isPresent()) {
+        if (organizationRepository.existsByCompanyName(request.getCompanyName())) {
             throw new IllegalArgumentException("Company name is already in use.");
         }
         if (userRepo.existsByUsername(request.getUsername())) {
@@ -124,7 +131,7 @@ public class OrganizationServiceImpl implements OrganizationService {
             throw new IllegalArgumentException("Invalid JSON format for organizationData.", e);
         }
 
-        if (organizationRepository.findByCompanyName(request.getCompanyName()).isPresent()) {
+        if (organizationRepository.existsByCompanyName(request.getCompanyName())) {
             throw new IllegalArgumentException("Company name is already in use.");
         }
         if (userRepo.existsByUsername(request.getUsername())) {
@@ -188,6 +195,22 @@ public class OrganizationServiceImpl implements OrganizationService {
         }
     }
 
+    @Override
+    public Organization updateLogo(MultipartFile logo) {
+        Integer organizationId = AuthenticatedUser.current().getOrganizationId();
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + organizationId));
+        validateIsImage(logo);
+
+        String folderName = "papms/" + sanitizeForFolderName(organization.getCompanyName()) + "/logo";
+        organization.setLogoUrl(cloudinaryService.uploadFile(logo, folderName).get("url"));
+        Organization saved = organizationRepository.save(organization);
+
+        // Drops the old logo and the PDF templates built with it
+        pdfTemplateCache.evict(organizationId);
+        return saved;
+    }
+
     @Override
     public Organization approveOrganization(Integer id) {
         Organization organization = organizationRepository.findById(id)
@@ -206,6 +229,7 @@ public class OrganizationServiceImpl implements OrganizationService {
         User orgAdmin = users.get(0);
         orgAdmin.setIsActive(true); // Activate the user.
         userRepo.save(orgAdmin);
+        userCache.evict(orgAdmin.getUsername());
 
         // STEP 2: Update the organization's status and details.
         organization.setStatus(OrganizationStatus.ACTIVE);
@@ -244,6 +268,7 @@ public class OrganizationServiceImpl implements OrganizationService {
 
         for (User user : usersToDisable) {
             user.setIsActive(false);
+            userCache.evict(user.getUsername());
         }
         userRepo.saveAll(usersToDisable);
 
@@ -257,13 +282,7 @@ public class OrganizationServiceImpl implements OrganizationService {
     @Override
     @Transactional(readOnly = true)
     public OrganizationProfileResponse getProfile(Integer id) {
-        return organizationRepository.findById(id)
-                .map(org -> new OrganizationProfileResponse(
-                        org.getId(),
-                        org.getCompanyName(),
-                        org.getLogoUrl(),
-                        org.getContactEmail(), // Use the correct field name
-                        org.getStatus().name()))
+        return organizationRepository.findProfileById(id)
                 .orElseThrow(() -> new NotFoundException("Organization not found with ID: " + id));
     }
 
@@ -317,9 +336,12 @@ public class OrganizationServiceImpl implements OrganizationService {
 //    }
 
     @Override
-    public List<Organization> getPendingOrganizations() {
-        // MODIFIED: Call the new, correct repository method
-        return organizationRepository.findAllByStatus(OrganizationStatus.PENDING_APPROVAL);
+    @Transactional(readOnly = true)
+    public List<OrganizationResponseDto> getPendingOrganizations() {
+        // Documents come with the same query; employees are never loaded here
+        return organizationRepository.findAllByStatus(OrganizationStatus.PENDING_APPROVAL).stream()
+                .map(OrganizationMapper::toDto)
+                .toList();
     }
 
     @Override
@@ -331,7 +353,7 @@ public class OrganizationServiceImpl implements OrganizationService {
     @Override
     @Transactional(readOnly = true)
     public Optional<Organization> getOrganizationByName(String companyName) {
-        return organizationRepository.findByCompanyName(companyName);
+        return organizationRepository.findWithDocumentsByCompanyName(companyName);
     }
 
     @Override
@@ -8,6 +8,7 @@ import com.aurionpro.papms.entity.User;
 import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.repository.AppUserRepository;
 import com.aurionpro.papms.repository.PasswordResetTokenRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUserCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,6 +28,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticatedUserCache userCache;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
@@ -72,6 +74,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setRequiresPasswordChange(false); // The password is now changed
         userRepository.save(user);
+        userCache.evict(user.getUsername());
 
         tokenRepository.delete(token); // Invalidate the token after use
         log.info("Password successfully reset for user: {}", user.getUsername());
@@ -0,0 +1,98 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.DelimitedFormat;
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly payroll report as delimited text, for finance tooling that ingests large volumes.
+ * Rows are read from the same database cursor as {@link PayrollExcelReportService} and written
+ * to the output as they arrive. Amounts are written with {@link BigDecimal#toPlainString()}, so
+ * they keep their exact scale instead of going through a double.
+ */
+@Service
+@RequiredArgsConstructor
+public class PayrollCsvReportService {
+
+    private static final PayrollReportColumn[] COLUMNS = PayrollReportColumn.values();
+
+    private static final int CLEAR_INTERVAL = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PayrollPaymentRepository payrollPaymentRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Writes the report to the given stream, gzip-compressed if requested. The stream is flushed
+     * but left open.
+     */
+    @Transactional(readOnly = true)
+    public void writePayrollReport(Integer organizationId, int year, int month,
+                                   DelimitedFormat format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = nonClosing(out);
+        if (gzip) {
+            target = new GZIPOutputStream(target, BUFFER_SIZE);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setDelimiter(format.getDelimiter())
+                .setHeader(PayrollReportColumn.headers())
+                .build();
+
+        try (CSVPrinter printer = new CSVPrinter(writer, csvFormat);
+             Stream<PayrollPayment> payments = payrollPaymentRepository.streamReportRows(organizationId, year, month)) {
+            int rows = 0;
+            Iterator<PayrollPayment> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                PayrollPayment payment = iterator.next();
+                for (PayrollReportColumn column : COLUMNS) {
+                    printer.print(format(column.valueOf(payment)));
+                }
+                printer.println();
+
+                if (++rows % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        // Closing the printer finished the gzip trailer; the response stream itself stays open
+        out.flush();
+    }
+
+    private static Object format(Object value) {
+        return value instanceof BigDecimal amount ? amount.toPlainString() : value;
+    }
+
+    // Lets the printer close its writer chain, which finishes gzip, without closing the response stream
+    private static OutputStream nonClosing(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -2,35 +2,66 @@ package com.aurionpro.papms.service;
 
 import com.aurionpro.papms.entity.PayrollPayment;
 import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
+/**
+ * Monthly payroll report as an .xlsx file. Rows are read from a database cursor and written
+ * through an {@link SXSSFWorkbook}, which keeps only a small window of rows in memory and spills
+ * the rest to a temporary file, so memory use does not grow with the size of the organization.
+ */
 @Service
 @RequiredArgsConstructor
 public class PayrollExcelReportService {
 
+    private static final PayrollReportColumn[] COLUMNS = PayrollReportColumn.values();
+
+    // Entities read so far are dropped from the persistence context every this many rows
+    private static final int CLEAR_INTERVAL = 500;
+
     private final PayrollPaymentRepository payrollPaymentRepository;
+    private final EntityManager entityManager;
 
+    @Value("${app.reports.excel.row-window:100}")
+    private int rowWindow;
+
+    /**
+     * Builds the whole report in memory. Meant for small reports and tests; downloads should use
+     * {@link #writePayrollReport} so the file goes straight to the response.
+     */
     @Transactional(readOnly = true)
     public byte[] generatePayrollReport(Integer organizationId, int year, int month) throws IOException {
-        List<PayrollPayment> payments = payrollPaymentRepository
-                .findByPayrollBatchOrganizationIdAndPayrollBatchPayrollYearAndPayrollBatchPayrollMonth(organizationId, year, month);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writePayrollReport(organizationId, year, month, out);
+        return out.toByteArray();
+    }
 
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    /**
+     * Writes the report to the given stream, which is left open.
+     */
+    @Transactional(readOnly = true)
+    public void writePayrollReport(Integer organizationId, int year, int month, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try (workbook; Stream<PayrollPayment> payments = payrollPaymentRepository.streamReportRows(organizationId, year, month)) {
             Sheet sheet = workbook.createSheet("Payroll Report " + month + "-" + year);
+            // Fixed widths; autoSizeColumn would need every row, which a streaming sheet no longer has
+            for (int i = 0; i < COLUMNS.length; i++) {
+                sheet.setColumnWidth(i, COLUMNS[i].width() * 256);
+            }
 
             // Header
-            String[] headers = {
-                    "Employee ID", "Employee Name", "Employee Code", "Department",
-                    "Basic Salary", "HRA", "DA", "Other Allowances", "PF Contribution", "Net Salary Paid"
-            };
             Row headerRow = sheet.createRow(0);
             CellStyle headerStyle = workbook.createCellStyle();
             headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
@@ -39,35 +70,37 @@ public class PayrollExcelReportService {
             font.setBold(true);
             headerStyle.setFont(font);
 
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < COLUMNS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(COLUMNS[i].header());
                 cell.setCellStyle(headerStyle);
             }
 
             // Data
             int rowIdx = 1;
-            for (PayrollPayment payment : payments) {
+            Iterator<PayrollPayment> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                PayrollPayment payment = iterator.next();
                 Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(payment.getEmployee().getId());
-                row.createCell(1).setCellValue(payment.getEmployee().getUser().getFullName());
-                row.createCell(2).setCellValue(payment.getEmployee().getEmployeeCode());
-                row.createCell(3).setCellValue(payment.getEmployee().getDepartment());
-                row.createCell(4).setCellValue(payment.getBasicSalary().doubleValue());
-                row.createCell(5).setCellValue(payment.getHra().doubleValue());
-                row.createCell(6).setCellValue(payment.getDa().doubleValue());
-                row.createCell(7).setCellValue(payment.getOtherAllowances().doubleValue());
-                row.createCell(8).setCellValue(payment.getPfContribution().doubleValue());
-                row.createCell(9).setCellValue(payment.getNetSalaryPaid().doubleValue());
-            }
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    Object value = COLUMNS[i].valueOf(payment);
+                    Cell cell = row.createCell(i);
+                    if (value instanceof Number number) {
+                        cell.setCellValue(number.doubleValue());
+                    } else if (value != null) {
+                        cell.setCellValue(value.toString());
+                    }
+                }
 
-            // Auto-size columns
-            for(int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+                if (rowIdx % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
             }
 
             workbook.write(out);
-            return out.toByteArray();
+        } finally {
+            // close() leaves the sheet's temporary file behind; only dispose() deletes it
+            workbook.dispose();
         }
     }
-}
\ No newline at end of file
+}
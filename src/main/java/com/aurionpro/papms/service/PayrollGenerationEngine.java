@@ -0,0 +1,85 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.PaymentStatus;
+import com.aurionpro.papms.entity.PayrollBatch;
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.entity.SalaryStructure;
+import com.aurionpro.papms.exception.NotFoundException;
+import com.aurionpro.papms.repository.EmployeeRepository;
+import com.aurionpro.papms.repository.SalaryStructureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the payment snapshots of a payroll batch in a single pass over the organization's
+ * active salary structures. The number of queries is constant regardless of headcount.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollGenerationEngine {
+
+    private final EmployeeRepository employeeRepository;
+    private final SalaryStructureRepository salaryStructureRepository;
+
+    /**
+     * Fills the payments, total amount and employee count of the given batch.
+     *
+     * @throws NotFoundException     if the organization has no active employees
+     * @throws IllegalStateException if none of the active employees has an active salary structure
+     */
+    public void populate(PayrollBatch batch, Integer organizationId) {
+        long activeEmployees = employeeRepository.countByOrganizationIdAndIsActiveTrue(organizationId);
+        if (activeEmployees == 0) {
+            throw new NotFoundException("No active employees found for this organization.");
+        }
+
+        List<SalaryStructure> salaries = salaryStructureRepository.findActiveForPayrollByOrganizationId(organizationId);
+
+        List<PayrollPayment> payments = new ArrayList<>(salaries.size());
+        Set<Long> paidEmployeeIds = new HashSet<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for (SalaryStructure salary : salaries) {
+            // An employee should only ever have one active structure; if not, pay the first one only.
+            if (!paidEmployeeIds.add(salary.getEmployee().getId())) {
+                log.warn("Employee {} has more than one active salary structure; using the first one.", salary.getEmployee().getId());
+                continue;
+            }
+
+            BigDecimal netSalary = salary.getTotalSalary();
+            payments.add(PayrollPayment.builder()
+                    .payrollBatch(batch)
+                    .employee(salary.getEmployee())
+                    .netSalaryPaid(netSalary)
+                    .basicSalary(salary.getBasicSalary())
+                    .hra(salary.getHra())
+                    .da(salary.getDa())
+                    .pfContribution(salary.getPfContribution())
+                    .otherAllowances(salary.getOtherAllowances())
+                    .status(PaymentStatus.PENDING)
+                    .build());
+            totalAmount = totalAmount.add(netSalary);
+        }
+
+        long skipped = activeEmployees - payments.size();
+        if (skipped > 0) {
+            log.warn("Skipping {} active employee(s) of organization {} as they have no active salary structure.", skipped, organizationId);
+        }
+
+        if (payments.isEmpty()) {
+            throw new IllegalStateException("Payroll creation failed. No employees with active salary structures found.");
+        }
+
+        batch.setPayments(payments);
+        batch.setTotalAmount(totalAmount);
+        batch.setTotalEmployees(payments.size());
+    }
+}
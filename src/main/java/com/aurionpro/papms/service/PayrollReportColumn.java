@@ -0,0 +1,52 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.entity.PayrollPayment;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * The columns of the monthly payroll report, in order. Both the Excel and the delimited export
+ * are written from this list, so they cannot drift apart. Amounts are returned as the entity's
+ * BigDecimal and each export formats them its own way.
+ */
+enum PayrollReportColumn {
+
+    EMPLOYEE_ID("Employee ID", 12, payment -> payment.getEmployee().getId()),
+    EMPLOYEE_NAME("Employee Name", 30, payment -> payment.getEmployee().getUser().getFullName()),
+    EMPLOYEE_CODE("Employee Code", 16, payment -> payment.getEmployee().getEmployeeCode()),
+    DEPARTMENT("Department", 20, payment -> payment.getEmployee().getDepartment()),
+    BASIC_SALARY("Basic Salary", 14, PayrollPayment::getBasicSalary),
+    HRA("HRA", 12, PayrollPayment::getHra),
+    DA("DA", 12, PayrollPayment::getDa),
+    OTHER_ALLOWANCES("Other Allowances", 18, PayrollPayment::getOtherAllowances),
+    PF_CONTRIBUTION("PF Contribution", 16, PayrollPayment::getPfContribution),
+    NET_SALARY_PAID("Net Salary Paid", 16, PayrollPayment::getNetSalaryPaid);
+
+    private final String header;
+    // Excel column width in characters
+    private final int width;
+    private final Function<PayrollPayment, Object> value;
+
+    PayrollReportColumn(String header, int width, Function<PayrollPayment, Object> value) {
+        this.header = header;
+        this.width = width;
+        this.value = value;
+    }
+
+    String header() {
+        return header;
+    }
+
+    int width() {
+        return width;
+    }
+
+    Object valueOf(PayrollPayment payment) {
+        return value.apply(payment);
+    }
+
+    static String[] headers() {
+        return Arrays.stream(values()).map(PayrollReportColumn::header).toArray(String[]::new);
+    }
+}
@@ -11,25 +11,31 @@ import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.mapper.PayrollMapper;
 import com.aurionpro.papms.repository.AppUserRepository;
 import com.aurionpro.papms.repository.EmployeeRepository;
+import com.aurionpro.papms.repository.OrganizationRepository;
 import com.aurionpro.papms.repository.PayrollBatchRepository;
+import com.aurionpro.papms.repository.PayrollPaymentBulkWriter;
 import com.aurionpro.papms.emails.EmailService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.aurionpro.papms.Enum.Role; // ADD THIS IMPORT
 import com.aurionpro.papms.dto.payroll.PayrollPaymentResponse;
 import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -42,11 +48,27 @@ public class PayrollServiceImpl implements PayrollService {
     private final TransactionService transactionService;
     private final EmailService emailService;
     private final PayrollPaymentRepository payrollPaymentRepository;
+    private final OrganizationRepository organizationRepository;
+    private final PayrollGenerationEngine payrollGenerationEngine;
+    private final PayrollPaymentBulkWriter payrollPaymentBulkWriter;
+
+    @Value("${app.payroll.bulk-insert.enabled:true}")
+    private boolean bulkInsertEnabled;
+
+    @Value("${app.payroll.bulk-insert.batch-size:1000}")
+    private int bulkInsertBatchSize;
+
+    @PostConstruct
+    void validateBulkInsertBatchSize() {
+        if (bulkInsertBatchSize < 1) {
+            throw new IllegalStateException("app.payroll.bulk-insert.batch-size must be at least 1, but is " + bulkInsertBatchSize);
+        }
+    }
 
     @Override
     @Transactional
     public PayrollBatchResponse createPayroll(Integer organizationId, CreatePayrollRequest request) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrgAccess(currentUser, organizationId);
 
         if (payrollBatchRepository.existsByOrganizationIdAndPayrollMonthAndPayrollYear(
@@ -54,62 +76,37 @@ public class PayrollServiceImpl implements PayrollService {
             throw new IllegalStateException("A payroll for this month and year already exists.");
         }
 
-        List<Employee> activeEmployees = employeeRepository.findByOrganizationId(organizationId).stream()
-                .filter(Employee::getIsActive).toList();
-
-        if (activeEmployees.isEmpty()) {
-            throw new NotFoundException("No active employees found for this organization.");
-        }
-
         PayrollBatch batch = new PayrollBatch();
-        batch.setOrganization(activeEmployees.get(0).getOrganization());
+        batch.setOrganization(organizationRepository.getReferenceById(organizationId));
         batch.setPayrollMonth(request.getPayrollMonth());
         batch.setPayrollYear(request.getPayrollYear());
         batch.setStatus(PayrollStatus.PENDING_APPROVAL);
-        batch.setSubmittedByUser(currentUser);
-
-        List<PayrollPayment> payments = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        for (Employee employee : activeEmployees) {
-            SalaryStructure currentSalary = employee.getCurrentSalaryStructure();
-            if (currentSalary == null) {
-                log.warn("Skipping employee {} (ID: {}) as they have no active salary structure.", employee.getUser().getFullName(), employee.getId());
-                continue;
-            }
+        batch.setSubmittedByUser(userRepository.getReferenceById(currentUser.getId()));
 
-            PayrollPayment payment = PayrollPayment.builder()
-                    .payrollBatch(batch)
-                    .employee(employee)
-                    .netSalaryPaid(currentSalary.getTotalSalary())
-                    .basicSalary(currentSalary.getBasicSalary())
-                    .hra(currentSalary.getHra())
-                    .da(currentSalary.getDa())
-                    .pfContribution(currentSalary.getPfContribution())
-                    .otherAllowances(currentSalary.getOtherAllowances())
-                    .status(PaymentStatus.PENDING)
-                    .build();
-            payments.add(payment);
-            totalAmount = totalAmount.add(currentSalary.getTotalSalary());
-        }
+        payrollGenerationEngine.populate(batch, organizationId);
+        BigDecimal totalAmount = batch.getTotalAmount();
 
-        if (payments.isEmpty()) {
-            throw new IllegalStateException("Payroll creation failed. No employees with active salary structures found.");
+        if (!bulkInsertEnabled) {
+            PayrollBatch savedBatch = payrollBatchRepository.save(batch);
+            log.info("Created payroll batch {} for organization {} with total amount {}", savedBatch.getId(), organizationId, totalAmount);
+            return PayrollMapper.toDto(savedBatch);
         }
 
-        batch.setPayments(payments);
-        batch.setTotalAmount(totalAmount);
-        batch.setTotalEmployees(payments.size());
+        // Detach the payments from the cascade so Hibernate does not insert them one by one
+        List<PayrollPayment> payments = batch.getPayments();
+        batch.setPayments(new ArrayList<>());
+        PayrollBatch savedBatch = payrollBatchRepository.saveAndFlush(batch);
+        payrollPaymentBulkWriter.insertAll(savedBatch.getId(), payments, bulkInsertBatchSize);
 
-        PayrollBatch savedBatch = payrollBatchRepository.save(batch);
-        log.info("Created payroll batch {} for organization {} with total amount {}", savedBatch.getId(), organizationId, totalAmount);
-        return PayrollMapper.toDto(savedBatch);
+        log.info("Created payroll batch {} for organization {} with total amount {} ({} payments bulk inserted)",
+                savedBatch.getId(), organizationId, totalAmount, payments.size());
+        return PayrollMapper.toDto(savedBatch, payments);
     }
 
     @Override
     @Transactional
     public PayrollBatchResponse approvePayroll(Long batchId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         PayrollBatch batch = payrollBatchRepository.findByIdWithDetails(batchId)
                 .orElseThrow(() -> new NotFoundException("Payroll batch not found with ID: " + batchId));
 
@@ -118,9 +115,12 @@ public class PayrollServiceImpl implements PayrollService {
         }
 
         Organization org = batch.getOrganization();
-        if (org.getInternalBalance().compareTo(batch.getTotalAmount()) < 0) {
+        // Only for a clear message: internal_balance may lag the sharded or journal ledger, and the
+        // debit below still fails atomically if the funds are gone by then
+        BigDecimal available = transactionService.getCurrentBalance(org.getId());
+        if (available.compareTo(batch.getTotalAmount()) < 0) {
             throw new IllegalStateException("Insufficient funds in organization's account. Required: " +
-                    batch.getTotalAmount() + ", Available: " + org.getInternalBalance());
+                    batch.getTotalAmount() + ", Available: " + available);
         }
 
         batch.setStatus(PayrollStatus.PROCESSING);
@@ -133,33 +133,34 @@ public class PayrollServiceImpl implements PayrollService {
                 batch.getId()
         );
 
-        batch.setApprovedByUser(currentUser);
+        batch.setApprovedByUser(userRepository.getReferenceById(currentUser.getId()));
         batch.setStatus(PayrollStatus.COMPLETED);
         batch.setTransactionId(transaction.getId());
 
-        batch.getPayments().forEach(payment -> {
-            payment.setStatus(PaymentStatus.PROCESSED);
-            payment.setProcessedAt(LocalDateTime.now());
-        });
+        String submitterEmail = batch.getSubmittedByUser().getEmail();
+        // Mapped while the batch is still managed; the bulk update below clears the persistence context
+        PayrollBatchResponse response = PayrollMapper.toSummaryDto(batch);
 
-        PayrollBatch savedBatch = payrollBatchRepository.save(batch);
+        // One set-based UPDATE instead of loading and dirty-checking every payment
+        int processedPayments = payrollPaymentRepository.updateStatusByPayrollBatchId(
+                batch.getId(), PaymentStatus.PROCESSED, LocalDateTime.now());
 
         // Send notification email
         emailService.sendEmail(
                 "bank-admin@papms.com",
-                batch.getSubmittedByUser().getEmail(),
-                "Payroll Approved: #" + batch.getId(),
+                submitterEmail,
+                "Payroll Approved: #" + batchId,
                 "Your payroll request for " + batch.getPayrollMonth() + "/" + batch.getPayrollYear() + " has been approved and processed."
         );
 
-        log.info("Payroll batch {} approved by bank admin {}", batch.getId(), currentUser.getUsername());
-        return PayrollMapper.toDto(savedBatch);
+        log.info("Payroll batch {} approved by bank admin {} ({} payments processed)", batchId, currentUser.getUsername(), processedPayments);
+        return response;
     }
 
     @Override
     @Transactional
     public PayrollBatchResponse rejectPayroll(Long batchId, String reason) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         PayrollBatch batch = payrollBatchRepository.findByIdWithDetails(batchId)
                 .orElseThrow(() -> new NotFoundException("Payroll batch not found: " + batchId));
 
@@ -169,7 +170,7 @@ public class PayrollServiceImpl implements PayrollService {
 
         batch.setStatus(PayrollStatus.REJECTED);
         batch.setRejectionReason(reason);
-        batch.setApprovedByUser(currentUser);
+        batch.setApprovedByUser(userRepository.getReferenceById(currentUser.getId()));
         PayrollBatch savedBatch = payrollBatchRepository.save(batch);
 
         emailService.sendEmail(
@@ -187,15 +188,15 @@ public class PayrollServiceImpl implements PayrollService {
     @Override
     @Transactional(readOnly = true)
     public Page<PayrollBatchResponse> getPayrollsForOrganization(Integer organizationId, Pageable pageable) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         validateOrgAccess(currentUser, organizationId);
-        return payrollBatchRepository.findByOrganizationId(organizationId, pageable).map(PayrollMapper::toDto);
+        return toDtoPage(payrollBatchRepository.findByOrganizationId(organizationId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PayrollBatchResponse> getPendingPayrolls(Pageable pageable) {
-        return payrollBatchRepository.findByStatus(PayrollStatus.PENDING_APPROVAL, pageable).map(PayrollMapper::toDto);
+        return toDtoPage(payrollBatchRepository.findByStatus(PayrollStatus.PENDING_APPROVAL, pageable));
     }
 
     @Override
@@ -207,13 +208,22 @@ public class PayrollServiceImpl implements PayrollService {
     }
 
     // Helper Methods
-    private User getLoggedInUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found."));
+    private AuthenticatedUser getLoggedInUser() {
+        return AuthenticatedUser.current();
+    }
+
+    // Loads the payments of every batch on the page in one query instead of one per batch
+    private Page<PayrollBatchResponse> toDtoPage(Page<PayrollBatch> batches) {
+        if (batches.isEmpty()) {
+            return batches.map(PayrollMapper::toDto);
+        }
+        Map<Long, List<PayrollPayment>> paymentsByBatch = payrollPaymentRepository
+                .findWithEmployeeByPayrollBatchIdIn(batches.map(PayrollBatch::getId).toList()).stream()
+                .collect(Collectors.groupingBy(payment -> payment.getPayrollBatch().getId()));
+        return batches.map(batch -> PayrollMapper.toDto(batch, paymentsByBatch.getOrDefault(batch.getId(), List.of())));
     }
 
-    private void validateOrgAccess(User user, Integer organizationId) {
+    private void validateOrgAccess(AuthenticatedUser user, Integer organizationId) {
         if (!user.getOrganizationId().equals(organizationId)) {
             throw new SecurityException("Access denied to this organization's resources.");
         }
@@ -222,7 +232,7 @@ public class PayrollServiceImpl implements PayrollService {
     @Override
     @Transactional(readOnly = true)
     public PayrollPaymentResponse getPayrollPaymentDetails(Long paymentId) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
         PayrollPayment payment = payrollPaymentRepository.findByIdWithDetails(paymentId)
                 .orElseThrow(() -> new NotFoundException("Payroll payment not found with ID: " + paymentId));
 
@@ -243,7 +253,7 @@ public class PayrollServiceImpl implements PayrollService {
     @Override
     @Transactional(readOnly = true)
     public Page<MyPayslipHistoryDto> getMyPayslipHistory(Pageable pageable) {
-        User currentUser = getLoggedInUser();
+        AuthenticatedUser currentUser = getLoggedInUser();
 
         Employee currentEmployee = employeeRepository.findByUserId(currentUser.getId())
                 .orElseThrow(() -> new NotFoundException("Employee profile not found for the current user."));
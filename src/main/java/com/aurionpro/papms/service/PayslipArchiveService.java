@@ -0,0 +1,81 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.batch.PayslipArchiveJob;
+import com.aurionpro.papms.config.PayslipBatchConfig;
+import com.aurionpro.papms.dto.payroll.PayslipArchiveStatusResponse;
+import com.aurionpro.papms.entity.PayrollBatch;
+import com.aurionpro.papms.exception.NotFoundException;
+import com.aurionpro.papms.repository.PayrollBatchRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+
+/**
+ * Bulk payslips for HR: starts the payslip archive job for an approved payroll batch, reports
+ * its progress, and hands out the finished ZIP.
+ */
+@Service
+@RequiredArgsConstructor
+public class PayslipArchiveService {
+
+    private final PayrollBatchRepository payrollBatchRepository;
+    private final PayslipArchiveJob payslipArchiveJob;
+    private final PayslipFileStore payslipFileStore;
+
+    public PayslipArchiveStatusResponse startArchive(Long payrollBatchId) {
+        PayrollBatch batch = getOwnBatch(payrollBatchId);
+        // Approval pays the batch out and leaves it COMPLETED
+        if (batch.getStatus() != PayrollStatus.APPROVED && batch.getStatus() != PayrollStatus.COMPLETED) {
+            throw new IllegalStateException("Payslips can only be generated for an approved payroll.");
+        }
+        try {
+            return toStatus(batch, payslipArchiveJob.launch(payrollBatchId));
+        } catch (JobExecutionException e) {
+            throw new IllegalStateException("Could not start the payslip job: " + e.getMessage(), e);
+        }
+    }
+
+    public PayslipArchiveStatusResponse getArchiveStatus(Long payrollBatchId) {
+        PayrollBatch batch = getOwnBatch(payrollBatchId);
+        JobExecution execution = payslipArchiveJob.lastExecution(payrollBatchId)
+                .orElseThrow(() -> new NotFoundException("No payslip job has been started for payroll batch " + payrollBatchId));
+        return toStatus(batch, execution);
+    }
+
+    public Path getArchive(Long payrollBatchId) {
+        getOwnBatch(payrollBatchId);
+        return payslipFileStore.findArchive(payrollBatchId)
+                .orElseThrow(() -> new NotFoundException("The payslip archive for payroll batch " + payrollBatchId + " is not ready yet."));
+    }
+
+    private PayrollBatch getOwnBatch(Long payrollBatchId) {
+        PayrollBatch batch = payrollBatchRepository.findById(payrollBatchId)
+                .orElseThrow(() -> new NotFoundException("Payroll batch not found with ID: " + payrollBatchId));
+        if (!batch.getOrganization().getId().equals(AuthenticatedUser.current().getOrganizationId())) {
+            throw new SecurityException("You are not authorized to access payslips of this payroll batch.");
+        }
+        return batch;
+    }
+
+    private PayslipArchiveStatusResponse toStatus(PayrollBatch batch, JobExecution execution) {
+        long rendered = execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().equals(PayslipBatchConfig.RENDER_STEP))
+                .mapToLong(StepExecution::getWriteCount)
+                .sum();
+        return PayslipArchiveStatusResponse.builder()
+                .payrollBatchId(batch.getId())
+                .status(execution.getStatus().name())
+                .totalPayslips(batch.getTotalEmployees())
+                .renderedPayslips(rendered)
+                .archiveReady(payslipFileStore.findArchive(batch.getId()).isPresent())
+                .startedAt(execution.getStartTime())
+                .endedAt(execution.getEndTime())
+                .build();
+    }
+}
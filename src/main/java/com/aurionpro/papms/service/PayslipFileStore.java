@@ -0,0 +1,125 @@
+package com.aurionpro.papms.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Pre-rendered payslips on local disk, one directory per payroll batch:
+ * {@code <root>/batch-<id>/payslip-<paymentId>.pdf}, plus {@code <root>/batch-<id>.zip} once the
+ * whole batch has been archived. Each payslip has a {@code .version} file next to it, holding the
+ * render version it was produced from, so a payslip whose data has changed since is not served.
+ * Files are written to a temporary name and moved into place, so a reader never sees a partial file.
+ */
+@Component
+@Slf4j
+public class PayslipFileStore {
+
+    private final Path root;
+
+    public PayslipFileStore(@Value("${app.payslips.storage-dir:${java.io.tmpdir}/papms-payslips}") String storageDir) {
+        this.root = Path.of(storageDir);
+    }
+
+    public Optional<Path> findPayslip(Long payrollBatchId, Long paymentId) {
+        Path path = payslipPath(payrollBatchId, paymentId);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * The stored payslip, if it was rendered from the given render version.
+     */
+    public Optional<Path> findPayslip(Long payrollBatchId, Long paymentId, String renderVersion) {
+        Optional<Path> payslip = findPayslip(payrollBatchId, paymentId);
+        if (payslip.isEmpty()) {
+            return payslip;
+        }
+        try {
+            return Files.readString(versionPath(payrollBatchId, paymentId), StandardCharsets.UTF_8).equals(renderVersion)
+                    ? payslip : Optional.empty();
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read the render version of payslip {}", payslip.get(), e);
+            return Optional.empty();
+        }
+    }
+
+    public void storePayslip(Long payrollBatchId, Long paymentId, String renderVersion, byte[] pdf) {
+        try {
+            // The version goes first, so a payslip is never matched against an older version's file
+            write(versionPath(payrollBatchId, paymentId), renderVersion.getBytes(StandardCharsets.UTF_8));
+            write(payslipPath(payrollBatchId, paymentId), pdf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store payslip for payment " + paymentId, e);
+        }
+    }
+
+    private static void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "payslip-", ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Optional<Path> findArchive(Long payrollBatchId) {
+        Path path = archivePath(payrollBatchId);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Zips every stored payslip of the batch into the batch archive, copying file by file so
+     * memory use does not depend on the number of payslips. Returns the number of entries.
+     */
+    public int writeArchive(Long payrollBatchId) throws IOException {
+        Path directory = batchDirectory(payrollBatchId);
+        Files.createDirectories(directory);
+        List<Path> payslips;
+        try (Stream<Path> files = Files.list(directory)) {
+            payslips = files.filter(path -> path.getFileName().toString().endsWith(".pdf")).sorted().toList();
+        }
+
+        Path target = archivePath(payrollBatchId);
+        Path temp = Files.createTempFile(root, "batch-" + payrollBatchId + "-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Path payslip : payslips) {
+                zip.putNextEntry(new ZipEntry(payslip.getFileName().toString()));
+                Files.copy(payslip, zip);
+                zip.closeEntry();
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Archived {} payslips of payroll batch {} to {}", payslips.size(), payrollBatchId, target);
+        return payslips.size();
+    }
+
+    private Path batchDirectory(Long payrollBatchId) {
+        return root.resolve("batch-" + payrollBatchId);
+    }
+
+    private Path payslipPath(Long payrollBatchId, Long paymentId) {
+        return batchDirectory(payrollBatchId).resolve("payslip-" + paymentId + ".pdf");
+    }
+
+    private Path versionPath(Long payrollBatchId, Long paymentId) {
+        return batchDirectory(payrollBatchId).resolve("payslip-" + paymentId + ".version");
+    }
+
+    private Path archivePath(Long payrollBatchId) {
+        return root.resolve("batch-" + payrollBatchId + ".zip");
+    }
+}
@@ -1,43 +1,83 @@
 package com.aurionpro.papms.service;
 
+import com.aurionpro.papms.dto.RenderedPdf;
+import com.aurionpro.papms.entity.Organization;
 import com.aurionpro.papms.entity.PayrollPayment;
-import com.aurionpro.papms.entity.User;
 import com.aurionpro.papms.exception.NotFoundException;
-import com.aurionpro.papms.repository.AppUserRepository;
 import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
 import com.aurionpro.papms.utils.PdfStylingHelper; // NEW IMPORT
+import com.aurionpro.papms.utils.PdfTemplate;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.kernel.geom.PageSize;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
-import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PayslipPdfService {
 
     private final PayrollPaymentRepository payrollPaymentRepository;
-    private final AppUserRepository userRepository;
+    private final PayslipFileStore payslipFileStore;
+    private final RenderedPdfCache renderedPdfCache;
+    private final OrganizationLogoCache organizationLogoCache;
+    private final PdfTemplateCache pdfTemplateCache;
 
+    // Bump when the layout changes, so cached copies are not served any more
+    private static final String TEMPLATE_VERSION = "payslip-v2";
+
+    // Template fields
+    private static final String MONTH = "month";
+    private static final String EMPLOYEE_NAME = "employeeName";
+    private static final String EMPLOYEE_CODE = "employeeCode";
+    private static final String DESIGNATION = "designation";
+    private static final String DEPARTMENT = "department";
+    private static final String DATE_OF_JOINING = "dateOfJoining";
+    private static final String PAYMENT_DATE = "paymentDate";
+    private static final String BASIC = "basic";
+    private static final String HRA = "hra";
+    private static final String DA = "da";
+    private static final String OTHER_ALLOWANCES = "otherAllowances";
+    private static final String PF = "pf";
+    private static final String TOTAL_EARNINGS = "totalEarnings";
+    private static final String TOTAL_DEDUCTIONS = "totalDeductions";
+    private static final String NET_SALARY = "netSalary";
+
+    @Transactional(readOnly = true)
+    public RenderedPdf generatePayslip(Long paymentId) {
+        return generatePayslip(paymentId, etag -> false);
+    }
+
+    /**
+     * Returns {@link RenderedPdf#notModified} without rendering when {@code notModified} accepts the document's ETag.
+     */
     @Transactional(readOnly = true)
-    public byte[] generatePayslip(Long paymentId) {
-        User currentUser = getLoggedInUser();
+    public RenderedPdf generatePayslip(Long paymentId, Predicate<String> notModified) {
+        AuthenticatedUser currentUser = getLoggedInUser();
         PayrollPayment payment = payrollPaymentRepository.findByIdWithDetails(paymentId)
                 .orElseThrow(() -> new NotFoundException("Payslip data not found for payment ID: " + paymentId));
 
@@ -45,59 +85,114 @@ public class PayslipPdfService {
             throw new SecurityException("You are not authorized to download this payslip.");
         }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf, PageSize.A4);
-        document.setMargins(36, 36, 50, 36);
+        String version = renderVersion(payment);
+        return renderedPdfCache.getOrRender("payslip", paymentId, version, notModified, () -> preRenderedOrRender(payment, version));
+    }
+
+    /**
+     * Identifies everything the payslip shows, so a changed version means the document must be rendered again.
+     * Payments have no update timestamp; their status, processing time and amount stand in for it.
+     */
+    public String renderVersion(PayrollPayment payment) {
+        return String.join("|", TEMPLATE_VERSION, String.valueOf(payment.getStatus()),
+                String.valueOf(payment.getProcessedAt()), payment.getNetSalaryPaid().toPlainString(),
+                String.valueOf(payment.getEmployee().getUpdatedAt()), String.valueOf(payment.getEmployee().getUser().getUpdatedAt()),
+                String.valueOf(payment.getPayrollBatch().getOrganization().getUpdatedAt()));
+    }
+
+    // The batch payslip job's output is used when it was rendered from the same data as this version
+    private byte[] preRenderedOrRender(PayrollPayment payment, String version) {
+        Optional<Path> rendered = payslipFileStore.findPayslip(payment.getPayrollBatch().getId(), payment.getId(), version);
+        if (rendered.isPresent()) {
+            try {
+                return Files.readAllBytes(rendered.get());
+            } catch (IOException e) {
+                log.warn("Could not read pre-rendered payslip {}, rendering it again", rendered.get(), e);
+            }
+        }
+        return renderPayslip(payment);
+    }
+
+    /**
+     * Renders the payslip of a payment loaded with its employee, user, batch and organization.
+     * Does no authorization check; callers are responsible for that.
+     * <p>
+     * The layout is compiled once per organization into a {@link PdfTemplate} and only the
+     * payment's fields are written per payslip; values too wide for the template are laid out
+     * in full instead.
+     */
+    public byte[] renderPayslip(PayrollPayment payment) {
+        Organization organization = payment.getPayrollBatch().getOrganization();
+        ImageData logo = organizationLogoCache.getLogo(organization).orElse(null);
+        PdfTemplate.Layout layout = (document, fields) -> layout(document, organization, logo, fields);
+        Map<String, String> values = fieldValues(payment);
 
-        try {
-            // Use helper for header with logo
-            LocalDate payrollDate = LocalDate.of(payment.getPayrollBatch().getPayrollYear(), payment.getPayrollBatch().getPayrollMonth(), 1);
-            String monthYear = String.format(Locale.US, "%tB %d", payrollDate, payment.getPayrollBatch().getPayrollYear());
-            PdfStylingHelper.addLogoAndTitle(document, payment.getPayrollBatch().getOrganization(), "PAYSLIP");
-            document.add(new Paragraph("For the month of " + monthYear)
-                    .setTextAlignment(TextAlignment.CENTER).setFontSize(12).setItalic());
-            document.add(new Paragraph("\n"));
+        return pdfTemplateCache.get(TEMPLATE_VERSION, organization, logo, () -> PdfTemplate.compile(PageSize.A4, layout))
+                .fill(values)
+                .orElseGet(() -> PdfTemplate.render(PageSize.A4, layout, values));
+    }
 
+    private Map<String, String> fieldValues(PayrollPayment payment) {
+        LocalDate payrollDate = LocalDate.of(payment.getPayrollBatch().getPayrollYear(), payment.getPayrollBatch().getPayrollMonth(), 1);
+        String monthYear = String.format(Locale.US, "%tB %d", payrollDate, payment.getPayrollBatch().getPayrollYear());
+        BigDecimal totalEarnings = payment.getBasicSalary().add(payment.getHra()).add(payment.getDa()).add(payment.getOtherAllowances());
 
-            // Use styled cells for employee details
-            addEmployeeDetails(document, payment);
-            addSalaryDetails(document, payment);
-            addFooter(document);
+        Map<String, String> values = new HashMap<>();
+        values.put(MONTH, "For the month of " + monthYear);
+        values.put(EMPLOYEE_NAME, Objects.toString(payment.getEmployee().getUser().getFullName(), ""));
+        values.put(EMPLOYEE_CODE, Objects.toString(payment.getEmployee().getEmployeeCode(), ""));
+        values.put(DESIGNATION, Objects.toString(payment.getEmployee().getJobTitle(), ""));
+        values.put(DEPARTMENT, Objects.toString(payment.getEmployee().getDepartment(), ""));
+        values.put(DATE_OF_JOINING, payment.getEmployee().getDateOfJoining().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        values.put(PAYMENT_DATE, payment.getProcessedAt().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        values.put(BASIC, payment.getBasicSalary().toPlainString());
+        values.put(HRA, payment.getHra().toPlainString());
+        values.put(DA, payment.getDa().toPlainString());
+        values.put(OTHER_ALLOWANCES, payment.getOtherAllowances().toPlainString());
+        values.put(PF, payment.getPfContribution().toPlainString());
+        values.put(TOTAL_EARNINGS, totalEarnings.toPlainString());
+        values.put(TOTAL_DEDUCTIONS, payment.getPfContribution().toPlainString());
+        values.put(NET_SALARY, "Net Salary Payable: ₹ " + payment.getNetSalaryPaid().toPlainString());
+        return values;
+    }
 
-            PdfStylingHelper.addFooter(document);
+    private void layout(Document document, Organization organization, ImageData logo, Function<String, Paragraph> fields) {
+        // Use helper for header with logo
+        PdfStylingHelper.addLogoAndTitle(document, organization, logo, "PAYSLIP");
+        document.add(fields.apply(MONTH)
+                .setTextAlignment(TextAlignment.CENTER).setFontSize(12).setItalic());
+        document.add(new Paragraph("\n"));
 
-        } finally {
-            document.close();
-        }
-        return baos.toByteArray();
+        // Use styled cells for employee details
+        addEmployeeDetails(document, fields);
+        addSalaryDetails(document, fields);
+        addFooter(document);
     }
 
-    private void addEmployeeDetails(Document document, PayrollPayment payment) {
+    private void addEmployeeDetails(Document document, Function<String, Paragraph> fields) {
         Table table = new Table(UnitValue.createPercentArray(new float[]{1, 2, 1, 2})).useAllAvailableWidth();
-        table.setBorder(new SolidBorder(PdfStylingHelper.BORDER_COLOR, 1));
+        table.setBorder(PdfStylingHelper.TABLE_BORDER);
 
         table.addCell(PdfStylingHelper.createLabelCell("Employee Name"));
-        table.addCell(PdfStylingHelper.createValueCell(payment.getEmployee().getUser().getFullName(), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply(EMPLOYEE_NAME), TextAlignment.LEFT));
         table.addCell(PdfStylingHelper.createLabelCell("Employee Code"));
-        table.addCell(PdfStylingHelper.createValueCell(payment.getEmployee().getEmployeeCode(), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply(EMPLOYEE_CODE), TextAlignment.LEFT));
 
         table.addCell(PdfStylingHelper.createLabelCell("Designation"));
-        table.addCell(PdfStylingHelper.createValueCell(payment.getEmployee().getJobTitle(), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply(DESIGNATION), TextAlignment.LEFT));
         table.addCell(PdfStylingHelper.createLabelCell("Department"));
-        table.addCell(PdfStylingHelper.createValueCell(payment.getEmployee().getDepartment(), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply(DEPARTMENT), TextAlignment.LEFT));
 
         table.addCell(PdfStylingHelper.createLabelCell("Date of Joining"));
-        table.addCell(PdfStylingHelper.createValueCell(payment.getEmployee().getDateOfJoining().format(DateTimeFormatter.ISO_LOCAL_DATE), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply(DATE_OF_JOINING), TextAlignment.LEFT));
         table.addCell(PdfStylingHelper.createLabelCell("Payment Date"));
-        table.addCell(PdfStylingHelper.createValueCell(payment.getProcessedAt().format(DateTimeFormatter.ISO_LOCAL_DATE), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply(PAYMENT_DATE), TextAlignment.LEFT));
 
         document.add(table);
         document.add(new Paragraph("\n"));
     }
 
-    private void addSalaryDetails(Document document, PayrollPayment payment) {
+    private void addSalaryDetails(Document document, Function<String, Paragraph> fields) {
         Table table = new Table(UnitValue.createPercentArray(new float[]{3, 1, 3, 1})).useAllAvailableWidth();
 
         table.addHeaderCell(PdfStylingHelper.createHeaderCell("Earnings"));
@@ -105,37 +200,34 @@ public class PayslipPdfService {
         table.addHeaderCell(PdfStylingHelper.createHeaderCell("Deductions"));
         table.addHeaderCell(PdfStylingHelper.createHeaderCell("Amount (INR)"));
 
-        BigDecimal totalEarnings = payment.getBasicSalary().add(payment.getHra()).add(payment.getDa()).add(payment.getOtherAllowances());
-        BigDecimal totalDeductions = payment.getPfContribution();
-
         // Data rows
-        table.addCell(createDataCell("Basic Salary", false));
-        table.addCell(createAmountCell(payment.getBasicSalary()));
-        table.addCell(createDataCell("Provident Fund (PF)", false));
-        table.addCell(createAmountCell(payment.getPfContribution()));
-        table.addCell(createDataCell("House Rent Allowance (HRA)", false));
-        table.addCell(createAmountCell(payment.getHra()));
-        table.addCell(createDataCell("", false)); // Empty cell
-        table.addCell(createAmountCell(null)); // Empty cell
-        table.addCell(createDataCell("Dearness Allowance (DA)", false));
-        table.addCell(createAmountCell(payment.getDa()));
-        table.addCell(createDataCell("", false));
-        table.addCell(createAmountCell(null));
-        table.addCell(createDataCell("Other Allowances", false));
-        table.addCell(createAmountCell(payment.getOtherAllowances()));
-        table.addCell(createDataCell("", false));
-        table.addCell(createAmountCell(null));
+        table.addCell(createDataCell(new Paragraph("Basic Salary")));
+        table.addCell(createAmountCell(fields.apply(BASIC)));
+        table.addCell(createDataCell(new Paragraph("Provident Fund (PF)")));
+        table.addCell(createAmountCell(fields.apply(PF)));
+        table.addCell(createDataCell(new Paragraph("House Rent Allowance (HRA)")));
+        table.addCell(createAmountCell(fields.apply(HRA)));
+        table.addCell(createDataCell(new Paragraph(""))); // Empty cell
+        table.addCell(createAmountCell(new Paragraph(""))); // Empty cell
+        table.addCell(createDataCell(new Paragraph("Dearness Allowance (DA)")));
+        table.addCell(createAmountCell(fields.apply(DA)));
+        table.addCell(createDataCell(new Paragraph("")));
+        table.addCell(createAmountCell(new Paragraph("")));
+        table.addCell(createDataCell(new Paragraph("Other Allowances")));
+        table.addCell(createAmountCell(fields.apply(OTHER_ALLOWANCES)));
+        table.addCell(createDataCell(new Paragraph("")));
+        table.addCell(createAmountCell(new Paragraph("")));
 
         // Totals row
-        table.addCell(createTotalCell("Total Earnings"));
-        table.addCell(createTotalAmountCell(totalEarnings));
-        table.addCell(createTotalCell("Total Deductions"));
-        table.addCell(createTotalAmountCell(totalDeductions));
+        table.addCell(createTotalCell(new Paragraph("Total Earnings")));
+        table.addCell(createTotalAmountCell(fields.apply(TOTAL_EARNINGS)));
+        table.addCell(createTotalCell(new Paragraph("Total Deductions")));
+        table.addCell(createTotalAmountCell(fields.apply(TOTAL_DEDUCTIONS)));
 
         document.add(table);
         document.add(new Paragraph("\n"));
 
-        document.add(new Paragraph("Net Salary Payable: ₹ " + payment.getNetSalaryPaid().toPlainString())
+        document.add(fields.apply(NET_SALARY)
                 .setTextAlignment(TextAlignment.RIGHT).setBold().setFontSize(14));
     }
 
@@ -146,29 +238,24 @@ public class PayslipPdfService {
     }
 
     // Helper methods for salary table cells
-    private Cell createDataCell(String text, boolean isBold) {
-        Cell cell = new Cell().add(new Paragraph(text)).setPadding(5).setBorder(Border.NO_BORDER);
-        if (isBold) cell.setBold();
-        return cell;
+    private Cell createDataCell(Paragraph content) {
+        return new Cell().add(content).setPadding(5).setBorder(Border.NO_BORDER);
     }
-    private Cell createAmountCell(BigDecimal amount) {
-        String text = (amount == null) ? "" : amount.toPlainString();
-        return createDataCell(text, false).setTextAlignment(TextAlignment.RIGHT);
+    private Cell createAmountCell(Paragraph content) {
+        return createDataCell(content).setTextAlignment(TextAlignment.RIGHT);
     }
-    private Cell createTotalCell(String text) {
-        Cell cell = createDataCell(text, true);
-        cell.setBorderTop(new SolidBorder(PdfStylingHelper.BORDER_COLOR, 1));
+    private Cell createTotalCell(Paragraph content) {
+        Cell cell = createDataCell(content).setBold();
+        cell.setBorderTop(PdfStylingHelper.TABLE_BORDER);
         return cell;
     }
-    private Cell createTotalAmountCell(BigDecimal amount) {
-        Cell cell = createAmountCell(amount).setBold();
-        cell.setBorderTop(new SolidBorder(PdfStylingHelper.BORDER_COLOR, 1));
+    private Cell createTotalAmountCell(Paragraph content) {
+        Cell cell = createAmountCell(content).setBold();
+        cell.setBorderTop(PdfStylingHelper.TABLE_BORDER);
         return cell;
     }
 
-    private User getLoggedInUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found."));
+    private AuthenticatedUser getLoggedInUser() {
+        return AuthenticatedUser.current();
     }
 }
\ No newline at end of file
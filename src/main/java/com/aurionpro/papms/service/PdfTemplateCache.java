@@ -0,0 +1,63 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.utils.PdfTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itextpdf.io.image.ImageData;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Compiled {@link PdfTemplate}s per document type and organization. The organization's header
+ * and details are part of the static page, so the key includes its last update and the logo
+ * image in use: editing the organization or reloading its logo compiles a fresh template.
+ */
+@Component
+@RequiredArgsConstructor
+public class PdfTemplateCache {
+
+    private final OrganizationLogoCache organizationLogoCache;
+
+    @Value("${app.pdf.template-cache.max-size:500}")
+    private long maxSize;
+
+    @Value("${app.pdf.template-cache.idle-minutes:120}")
+    private long idleMinutes;
+
+    private Cache<TemplateKey, PdfTemplate> cache;
+
+    // ImageData has identity equality, which is what is wanted: a reloaded logo is a new template
+    private record TemplateKey(String templateVersion, Integer organizationId, LocalDateTime organizationUpdatedAt,
+                               ImageData logo) {
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public PdfTemplate get(String templateVersion, Organization organization, ImageData logo,
+                           Supplier<PdfTemplate> compiler) {
+        TemplateKey key = new TemplateKey(templateVersion, organization.getId(), organization.getUpdatedAt(), logo);
+        return cache.get(key, ignored -> compiler.get());
+    }
+
+    /**
+     * Drops the organization's templates together with its cached logo, which they embed. Called
+     * when the organization's header changes, so the stale entries do not linger until they expire.
+     */
+    public void evict(Integer organizationId) {
+        organizationLogoCache.evict(organizationId);
+        cache.asMap().keySet().removeIf(key -> key.organizationId().equals(organizationId));
+    }
+}
@@ -0,0 +1,173 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.dto.RenderedPdf;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed disk cache for rendered PDFs (payslips, invoices, vendor bills).
+ * <p>
+ * An entry is keyed by document type, id and a version string built from everything the document
+ * shows, so a changed input produces a new key and the stale file simply ages out. The SHA-256 of
+ * the key names the file and doubles as the ETag. Total size is bounded by
+ * {@code app.pdf-cache.max-bytes}; the least recently used files are deleted first. The LRU order
+ * is rebuilt from file modification times on startup.
+ */
+@Component
+@Slf4j
+public class RenderedPdfCache {
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // File name -> size, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public RenderedPdfCache(@Value("${app.pdf-cache.dir:${java.io.tmpdir}/papms-pdf-cache}") String directory,
+                            @Value("${app.pdf-cache.max-bytes:268435456}") long maxBytes) throws IOException {
+        this.directory = Path.of(directory);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(this.directory);
+        loadExistingEntries();
+    }
+
+    /**
+     * Returns the cached PDF for the given inputs, rendering and storing it on a miss. Two threads
+     * missing the same key may both render; the last write wins, with identical content.
+     */
+    public RenderedPdf getOrRender(String type, Object id, String version, Supplier<byte[]> renderer) {
+        return getOrRender(type, id, version, etag -> false, renderer);
+    }
+
+    /**
+     * Like {@link #getOrRender(String, Object, String, Supplier)}, but first offers the ETag to
+     * {@code notModified} (typically {@code WebRequest::checkNotModified}) and returns
+     * {@link RenderedPdf#notModified} without reading or rendering anything when it matches.
+     */
+    public RenderedPdf getOrRender(String type, Object id, String version, Predicate<String> notModified, Supplier<byte[]> renderer) {
+        String hash = hash(type + ":" + id + ":" + version);
+        String etag = "\"" + hash + "\"";
+        if (notModified.test(etag)) {
+            return RenderedPdf.notModified(etag);
+        }
+        String fileName = type + "-" + id + "-" + hash.substring(0, 16) + ".pdf";
+
+        byte[] cached = read(fileName);
+        if (cached != null) {
+            return new RenderedPdf(etag, cached);
+        }
+
+        byte[] content = renderer.get();
+        store(fileName, content);
+        return new RenderedPdf(etag, content);
+    }
+
+    private byte[] read(String fileName) {
+        synchronized (entries) {
+            if (entries.get(fileName) == null) {
+                return null;
+            }
+        }
+        try {
+            return Files.readAllBytes(directory.resolve(fileName));
+        } catch (NoSuchFileException e) {
+            // Evicted between the lookup and the read
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not read cached PDF {}, rendering it again", fileName, e);
+            return null;
+        }
+    }
+
+    private void store(String fileName, byte[] content) {
+        if (content.length > maxBytes) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(directory, "pdf-", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The cache is an optimization; the caller still gets the rendered document
+            log.warn("Could not cache rendered PDF {}", fileName, e);
+            return;
+        }
+
+        synchronized (entries) {
+            Long previous = entries.put(fileName, (long) content.length);
+            totalBytes += content.length - (previous == null ? 0 : previous);
+            evictOverflow();
+        }
+    }
+
+    // Caller holds the entries lock
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            try {
+                Files.deleteIfExists(directory.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Could not delete evicted PDF {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void loadExistingEntries() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(".pdf"))
+                    .sorted(Comparator.comparingLong(RenderedPdfCache::lastModified))
+                    .toList();
+        }
+        synchronized (entries) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evictOverflow();
+        }
+        log.info("Rendered PDF cache at {} holds {} files, {} bytes", directory, entries.size(), totalBytes);
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -11,4 +11,7 @@ public interface TransactionService {
                              String description, TransactionSourceType sourceType, Long sourceId);
     Transaction processCredit(Organization organization, BigDecimal amount,
                               String description, TransactionSourceType sourceType, Long sourceId);
-}
\ No newline at end of file
+
+    // Authoritative balance for the configured ledger mode; organizations.internal_balance may be a cached aggregate
+    BigDecimal getCurrentBalance(Integer organizationId);
+}
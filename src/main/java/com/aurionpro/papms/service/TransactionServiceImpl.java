@@ -1,13 +1,16 @@
 // service/TransactionServiceImpl.java
 package com.aurionpro.papms.service;
 
+import com.aurionpro.papms.Enum.LedgerMode;
 import com.aurionpro.papms.Enum.TransactionSourceType;
 import com.aurionpro.papms.Enum.TransactionType;
 import com.aurionpro.papms.entity.Organization;
 import com.aurionpro.papms.entity.Transaction;
+import com.aurionpro.papms.exception.NotFoundException;
 import com.aurionpro.papms.repository.OrganizationRepository;
 import com.aurionpro.papms.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
@@ -18,18 +21,28 @@ import java.time.LocalDateTime;
 public class TransactionServiceImpl implements TransactionService {
     private final OrganizationRepository organizationRepository;
     private final TransactionRepository transactionRepository;
+    private final BalanceShardService balanceShardService;
+    private final JournalLedgerService journalLedgerService;
+
+    @Value("${app.ledger.mode:ATOMIC}")
+    private LedgerMode ledgerMode;
 
     @Override
     @Transactional
     public Transaction processDebit(Organization organization, BigDecimal amount,
                                     String description, TransactionSourceType sourceType, Long sourceId) {
-        if (organization.getInternalBalance().compareTo(amount) < 0) {
-            throw new IllegalStateException("Insufficient funds to complete this payment.");
+        BigDecimal newBalance;
+        if (ledgerMode == LedgerMode.SHARDED) {
+            newBalance = balanceShardService.debit(organization, amount);
+        } else if (ledgerMode == LedgerMode.JOURNAL) {
+            newBalance = journalLedgerService.debit(organization.getId(), amount);
+        } else {
+            // Check and subtract in one statement so concurrent debits cannot overdraw or lose updates.
+            if (organizationRepository.debitBalance(organization.getId(), amount) == 0) {
+                throw new IllegalStateException("Insufficient funds to complete this payment.");
+            }
+            newBalance = syncBalance(organization);
         }
-        //update the organization's balance.
-        BigDecimal newBalance = organization.getInternalBalance().subtract(amount);
-        organization.setInternalBalance(newBalance);
-        organizationRepository.save(organization);
 
         Transaction transaction = Transaction.builder()
                 .organization(organization)
@@ -49,9 +62,17 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional
     public Transaction processCredit(Organization organization, BigDecimal amount,
                                      String description, TransactionSourceType sourceType, Long sourceId) {
-        BigDecimal newBalance = organization.getInternalBalance().add(amount);
-        organization.setInternalBalance(newBalance);
-        organizationRepository.save(organization);
+        BigDecimal newBalance;
+        if (ledgerMode == LedgerMode.SHARDED) {
+            newBalance = balanceShardService.credit(organization, amount);
+        } else if (ledgerMode == LedgerMode.JOURNAL) {
+            newBalance = journalLedgerService.credit(organization.getId(), amount);
+        } else {
+            if (organizationRepository.creditBalance(organization.getId(), amount) == 0) {
+                throw new NotFoundException("Organization not found with ID: " + organization.getId());
+            }
+            newBalance = syncBalance(organization);
+        }
 
         Transaction transaction = Transaction.builder()
                 .organization(organization)
@@ -66,4 +87,27 @@ public class TransactionServiceImpl implements TransactionService {
 
         return transactionRepository.save(transaction);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getCurrentBalance(Integer organizationId) {
+        if (ledgerMode == LedgerMode.SHARDED) {
+            return balanceShardService.getBalance(organizationId);
+        }
+        if (ledgerMode == LedgerMode.JOURNAL) {
+            return journalLedgerService.getBalance(organizationId);
+        }
+        return organizationRepository.findInternalBalanceById(organizationId);
+    }
+
+    /**
+     * Reads back the balance written by the atomic update. The row stays locked by that update
+     * until commit, so the value is exact for balanceAfterTransaction and is copied onto the
+     * in-memory entity for callers that still read it.
+     */
+    private BigDecimal syncBalance(Organization organization) {
+        BigDecimal balance = organizationRepository.findInternalBalanceById(organization.getId());
+        organization.setInternalBalance(balance);
+        return balance;
+    }
+}
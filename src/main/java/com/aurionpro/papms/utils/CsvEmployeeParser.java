@@ -11,7 +11,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -19,8 +21,10 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @Slf4j
 @Component
@@ -37,45 +41,89 @@ public class CsvEmployeeParser {
     };
 
     public CsvParseResult parseCsvFile(MultipartFile file) {
-        List<CsvEmployeeRecord> validRecords = new ArrayList<>();
-        List<FailedEmployeeRecord> failedRecords = new ArrayList<>();
-
-        try (BufferedReader fileReader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
-             CSVParser csvParser = new CSVParser(fileReader,
-                     CSVFormat.DEFAULT.builder()
-                             .setHeader(EXPECTED_HEADERS)
-                             .setSkipHeaderRecord(true)
-                             .setTrim(true)
-                             .setIgnoreHeaderCase(true)
-                             .build())) {
+        try (RecordBatches batches = openBatches(file, Integer.MAX_VALUE)) {
+            return batches.hasNext() ? batches.next() : new CsvParseResult(new ArrayList<>(), new ArrayList<>());
+        }
+    }
 
+    /**
+     * Reads the file in batches of up to {@code batchSize} rows, parsing and validating each batch
+     * only when it is asked for, so a large file never has to be held in memory at once.
+     */
+    public RecordBatches openBatches(MultipartFile file, int batchSize) {
+        CSVParser csvParser = null;
+        try {
+            csvParser = openParser(file);
             validateCsvHeaders(csvParser);
+            return new RecordBatches(csvParser, batchSize);
+        } catch (Exception e) {
+            closeQuietly(csvParser);
+            log.error("Error parsing CSV file", e);
+            throw new RuntimeException("Failed to parse CSV file: " + e.getMessage(), e);
+        }
+    }
 
-            for (CSVRecord csvRecord : csvParser) {
-                try {
-                    CsvEmployeeRecord employeeRecord = parseCsvRecord(csvRecord);
-                    validateEmployeeRecord(employeeRecord, csvRecord.getRecordNumber());
-                    validRecords.add(employeeRecord);
-                } catch (CsvValidationException e) {
-                    failedRecords.add(new FailedEmployeeRecord(
-                            csvRecord.getRecordNumber(),
-                            csvRecord.toMap(),
-                            e.getMessage()
-                    ));
-                }
+    /**
+     * The number of data rows in the file, without parsing them into records.
+     */
+    public long countRecords(MultipartFile file) {
+        try (CSVParser csvParser = openParser(file)) {
+            Iterator<CSVRecord> records = csvParser.iterator();
+            long count = 0;
+            while (records.hasNext()) {
+                records.next();
+                count++;
             }
-
-            return new CsvParseResult(validRecords, failedRecords);
-
+            return count;
         } catch (Exception e) {
             log.error("Error parsing CSV file", e);
             throw new RuntimeException("Failed to parse CSV file: " + e.getMessage(), e);
         }
     }
 
+    private CSVParser openParser(MultipartFile file) throws IOException {
+        return new CSVParser(new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)),
+                CSVFormat.DEFAULT.builder()
+                        .setHeader(EXPECTED_HEADERS)
+                        .setSkipHeaderRecord(true)
+                        .setTrim(true)
+                        .setIgnoreHeaderCase(true)
+                        .build());
+    }
+
+    private static void closeQuietly(CSVParser csvParser) {
+        if (csvParser != null) {
+            try {
+                csvParser.close();
+            } catch (IOException e) {
+                log.warn("Could not close CSV parser", e);
+            }
+        }
+    }
+
+    private CsvParseResult parseBatch(Iterator<CSVRecord> records, int batchSize) {
+        List<CsvEmployeeRecord> validRecords = new ArrayList<>();
+        List<FailedEmployeeRecord> failedRecords = new ArrayList<>();
+        for (int read = 0; read < batchSize && records.hasNext(); read++) {
+            CSVRecord csvRecord = records.next();
+            try {
+                CsvEmployeeRecord employeeRecord = parseCsvRecord(csvRecord);
+                validateEmployeeRecord(employeeRecord, csvRecord.getRecordNumber());
+                validRecords.add(employeeRecord);
+            } catch (CsvValidationException e) {
+                failedRecords.add(new FailedEmployeeRecord(
+                        csvRecord.getRecordNumber(),
+                        csvRecord.toMap(),
+                        e.getMessage()
+                ));
+            }
+        }
+        return new CsvParseResult(validRecords, failedRecords);
+    }
+
     private CsvEmployeeRecord parseCsvRecord(CSVRecord csvRecord) throws CsvValidationException {
         CsvEmployeeRecord record = new CsvEmployeeRecord();
+        record.setRecordNumber(csvRecord.getRecordNumber());
 
         try {
             // User fields
@@ -186,6 +234,48 @@ public class CsvEmployeeParser {
     }
 
     // Inner classes for result handling
+    public class RecordBatches implements Iterator<CsvParseResult>, AutoCloseable {
+        private final CSVParser csvParser;
+        private final Iterator<CSVRecord> records;
+        private final int batchSize;
+
+        private RecordBatches(CSVParser csvParser, int batchSize) {
+            this.csvParser = csvParser;
+            this.records = csvParser.iterator();
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return records.hasNext();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to parse CSV file: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public CsvParseResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return parseBatch(records, batchSize);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to parse CSV file: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                csvParser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     public static class CsvParseResult {
         private final List<CsvEmployeeRecord> validRecords;
         private final List<FailedEmployeeRecord> failedRecords;
@@ -0,0 +1,31 @@
+package com.aurionpro.papms.utils;
+
+import com.aurionpro.papms.dto.RenderedPdf;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+public class PdfDownloadResponses {
+
+    /**
+     * PDF attachment with an ETag, or 304 Not Modified when the client's If-None-Match already
+     * names this version. Private, and revalidated on every use, since documents are per user.
+     * Services that were handed {@code request::checkNotModified} skip rendering in that case.
+     */
+    public static ResponseEntity<byte[]> attachment(RenderedPdf pdf, String fileName, WebRequest request) {
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (pdf.isNotModified() || request.checkNotModified(pdf.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(pdf.etag()).cacheControl(cacheControl).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", fileName);
+        headers.setETag(pdf.etag());
+        headers.setCacheControl(cacheControl);
+        return new ResponseEntity<>(pdf.content(), headers, HttpStatus.OK);
+    }
+}
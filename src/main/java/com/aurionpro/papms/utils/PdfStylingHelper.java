@@ -1,7 +1,11 @@
 package com.aurionpro.papms.utils;
 
 import com.aurionpro.papms.entity.Organization;
-import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
@@ -20,18 +24,34 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.properties.VerticalAlignment;
-import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.UncheckedIOException;
 
-@Slf4j
 public class PdfStylingHelper {
 
     // Define a consistent color scheme
     public static final Color PRIMARY_COLOR = new DeviceRgb(0, 51, 102); // Dark Blue
     public static final Color BORDER_COLOR = new DeviceRgb(204, 204, 204); // Light Gray
+    public static final Border TABLE_BORDER = new SolidBorder(BORDER_COLOR, 1);
+
+    // Parsed once; each document still needs its own PdfFont wrapping it
+    private static final FontProgram REGULAR_FONT = loadFont(StandardFonts.HELVETICA);
+
+    /**
+     * A font for one document, backed by the shared Helvetica program.
+     */
+    public static PdfFont newFont() {
+        return PdfFontFactory.createFont(REGULAR_FONT, PdfEncodings.WINANSI);
+    }
+
+    private static FontProgram loadFont(String name) {
+        try {
+            return FontProgramFactory.createFont(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load font " + name, e);
+        }
+    }
 
     /**
      * Creates a styled header cell for tables.
@@ -61,7 +81,14 @@ public class PdfStylingHelper {
      * Creates a styled cell for data values.
      */
     public static Cell createValueCell(String text, TextAlignment alignment) {
-        return new Cell().add(new Paragraph(text))
+        return createValueCell(new Paragraph(text), alignment);
+    }
+
+    /**
+     * Creates a styled cell around an existing paragraph, such as a {@link PdfTemplate} field.
+     */
+    public static Cell createValueCell(Paragraph content, TextAlignment alignment) {
+        return new Cell().add(content)
                 .setBorder(Border.NO_BORDER)
                 .setTextAlignment(alignment)
                 .setPadding(5);
@@ -69,26 +96,20 @@ public class PdfStylingHelper {
 
     /**
      * Adds the main header to the document, including the organization logo and the document title.
+     * The logo comes from {@link com.aurionpro.papms.service.OrganizationLogoCache}; without one,
+     * the company name is shown instead.
      */
-    public static void addLogoAndTitle(Document document, Organization organization, String title) {
+    public static void addLogoAndTitle(Document document, Organization organization, ImageData logoImage, String title) {
         Table headerTable = new Table(UnitValue.createPercentArray(new float[]{1, 2})).useAllAvailableWidth();
         headerTable.setBorder(Border.NO_BORDER);
 
         // --- Logo Cell ---
         Cell logoCell = new Cell().setBorder(Border.NO_BORDER);
-        if (organization.getLogoUrl() != null && !organization.getLogoUrl().isEmpty()) {
-            try {
-                Image logo = new Image(ImageDataFactory.create(new URL(organization.getLogoUrl())));
-                logo.setAutoScale(true);
-                logo.setMaxHeight(60);
-                logoCell.add(logo);
-            } catch (MalformedURLException e) {
-                log.warn("Invalid logo URL for organization {}: {}", organization.getId(), organization.getLogoUrl());
-                logoCell.add(new Paragraph(organization.getCompanyName()).setBold().setFontSize(18));
-            } catch (IOException e) {
-                log.warn("Could not load image from URL for organization {}: {}", organization.getId(), e.getMessage());
-                logoCell.add(new Paragraph(organization.getCompanyName()).setBold().setFontSize(18));
-            }
+        if (logoImage != null) {
+            Image logo = new Image(logoImage);
+            logo.setAutoScale(true);
+            logo.setMaxHeight(60);
+            logoCell.add(logo);
         } else {
             logoCell.add(new Paragraph(organization.getCompanyName()).setBold().setFontSize(18));
         }
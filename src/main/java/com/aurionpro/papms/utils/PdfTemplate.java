@@ -0,0 +1,219 @@
+package com.aurionpro.papms.utils;
+
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvasConstants;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.Property;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.TransparentColor;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.renderer.DrawContext;
+import com.itextpdf.layout.renderer.IRenderer;
+import com.itextpdf.layout.renderer.ParagraphRenderer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A one-page PDF layout compiled once and filled many times.
+ * <p>
+ * {@link #compile} runs the layout with placeholder paragraphs for the variable fields and keeps
+ * the resulting page, minus the placeholders, as the static background, together with where each
+ * field goes and how it is styled. {@link #fill} then copies that background into a new document
+ * and writes the field values straight onto the page, so no layout runs per document.
+ * <p>
+ * Fields are single lines. A value too wide for its field is set in a smaller font down to
+ * {@link #MIN_FONT_SCALE} of the original size; beyond that, or when the layout does not fit on
+ * one page, {@code fill} returns empty and the caller should fall back to {@link #render}.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class PdfTemplate {
+
+    /**
+     * Lays out a document. Variable text is taken from {@code fields}, which maps a field name to
+     * the paragraph to add; the layout may style that paragraph and its cell like any other.
+     */
+    @FunctionalInterface
+    public interface Layout {
+        void apply(Document document, Function<String, Paragraph> fields);
+    }
+
+    private static final float MIN_FONT_SCALE = 0.75f;
+    // Same skew and stroke width iText uses for simulated italic and bold
+    private static final float ITALIC_SKEW = 0.21f;
+    private static final float BOLD_STROKE_RATIO = 1 / 30f;
+
+    private final PageSize pageSize;
+    private final byte[] background;
+    private final Map<String, Slot> slots;
+    private final boolean singlePage;
+
+    private PdfTemplate(PageSize pageSize, byte[] background, Map<String, Slot> slots, boolean singlePage) {
+        this.pageSize = pageSize;
+        this.background = background;
+        this.slots = slots;
+        this.singlePage = singlePage;
+    }
+
+    /**
+     * Runs the layout once with placeholders and captures the static page and the field positions.
+     */
+    public static PdfTemplate compile(PageSize pageSize, Layout layout) {
+        Map<String, Slot> slots = new LinkedHashMap<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int pages;
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+             Document document = newDocument(pdf, pageSize)) {
+            layout.apply(document, name -> placeholder(name, slots));
+            PdfStylingHelper.addFooter(document);
+            pages = pdf.getNumberOfPages();
+        }
+        return new PdfTemplate(pageSize, out.toByteArray(), Map.copyOf(slots), pages == 1);
+    }
+
+    /**
+     * Renders the layout the ordinary way, with every field laid out from its value.
+     */
+    public static byte[] render(PageSize pageSize, Layout layout, Map<String, String> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+             Document document = newDocument(pdf, pageSize)) {
+            layout.apply(document, name -> new Paragraph(values.getOrDefault(name, "")));
+            PdfStylingHelper.addFooter(document);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Copies the static page into a new document and writes the values into their fields.
+     * Missing values leave the field blank.
+     */
+    public Optional<byte[]> fill(Map<String, String> values) {
+        if (!singlePage) {
+            return Optional.empty();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out))) {
+            PdfCanvas canvas = new PdfCanvas(pdf.addNewPage(pageSize));
+            canvas.addXObjectAt(copyBackground(pdf), 0, 0);
+
+            PdfFont font = PdfStylingHelper.newFont();
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                String value = values.get(entry.getKey());
+                if (value != null && !value.isEmpty() && !entry.getValue().write(canvas, font, value)) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(out.toByteArray());
+    }
+
+    private PdfFormXObject copyBackground(PdfDocument target) {
+        try (PdfDocument source = new PdfDocument(new PdfReader(new ByteArrayInputStream(background)))) {
+            return source.getFirstPage().copyAsFormXObject(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy the PDF template background", e);
+        }
+    }
+
+    private static Document newDocument(PdfDocument pdf, PageSize pageSize) {
+        Document document = new Document(pdf, pageSize);
+        document.setMargins(36, 36, 50, 36);
+        document.setFont(PdfStylingHelper.newFont());
+        return document;
+    }
+
+    // One line of text so the line box matches a filled-in value; it is recorded instead of drawn
+    private static Paragraph placeholder(String name, Map<String, Slot> slots) {
+        Paragraph paragraph = new Paragraph("X");
+        paragraph.setNextRenderer(new SlotRenderer(paragraph, name, slots));
+        return paragraph;
+    }
+
+    private record Slot(float left, float right, float baseline, float fontSize, TextAlignment alignment,
+                        boolean bold, boolean italic, Color color) {
+
+        boolean write(PdfCanvas canvas, PdfFont font, String text) {
+            float size = fontSize;
+            // Counted like iText counts them, so aligned text lands where the layout would put it
+            float extra = (bold ? BOLD_STROKE_RATIO : 0) + (italic ? ITALIC_SKEW : 0);
+            float width = font.getWidth(text, size) + size * extra;
+            float available = right - left;
+            if (width > available) {
+                size = size * available / width;
+                if (size < fontSize * MIN_FONT_SCALE) {
+                    return false;
+                }
+                width = available;
+            }
+
+            float x = switch (alignment) {
+                case RIGHT -> right - width;
+                case CENTER -> left + (available - width) / 2;
+                default -> left;
+            };
+
+            canvas.saveState().beginText()
+                    .setFontAndSize(font, size)
+                    .setFillColor(color);
+            if (bold) {
+                canvas.setTextRenderingMode(PdfCanvasConstants.TextRenderingMode.FILL_STROKE)
+                        .setLineWidth(size * BOLD_STROKE_RATIO)
+                        .setStrokeColor(color);
+            }
+            canvas.setTextMatrix(1, 0, italic ? ITALIC_SKEW : 0, 1, x, baseline)
+                    .showText(text)
+                    .endText()
+                    .restoreState();
+            return true;
+        }
+    }
+
+    private static class SlotRenderer extends ParagraphRenderer {
+
+        private final String name;
+        private final Map<String, Slot> slots;
+
+        SlotRenderer(Paragraph paragraph, String name, Map<String, Slot> slots) {
+            super(paragraph);
+            this.name = name;
+            this.slots = slots;
+        }
+
+        @Override
+        public IRenderer getNextRenderer() {
+            return new SlotRenderer((Paragraph) modelElement, name, slots);
+        }
+
+        @Override
+        public void draw(DrawContext drawContext) {
+            Rectangle area = getInnerAreaBBox();
+            UnitValue fontSize = getPropertyAsUnitValue(Property.FONT_SIZE);
+            TextAlignment alignment = this.<TextAlignment>getProperty(Property.TEXT_ALIGNMENT);
+            TransparentColor color = getPropertyAsTransparentColor(Property.FONT_COLOR);
+            slots.put(name, new Slot(area.getLeft(), area.getRight(), getLines().get(0).getYLine(),
+                    fontSize.getValue(),
+                    Objects.requireNonNullElse(alignment, TextAlignment.LEFT),
+                    Boolean.TRUE.equals(getPropertyAsBoolean(Property.BOLD_SIMULATION)),
+                    Boolean.TRUE.equals(getPropertyAsBoolean(Property.ITALIC_SIMULATION)),
+                    color == null ? ColorConstants.BLACK : color.getColor()));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.config.BatchConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.DefaultJobParametersValidator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * With every import slot busy and the queue full, a launch is refused at once rather than
+ * holding the request thread until an import finishes.
+ */
+class EmployeeImportJobLauncherTest {
+
+    @Test
+    void rejectsLaunchesBeyondTheQueueWithoutBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Job job = mock(Job.class);
+        when(job.getName()).thenReturn(BatchConfig.JOB_NAME);
+        when(job.getJobParametersValidator()).thenReturn(new DefaultJobParametersValidator());
+        doAnswer(invocation -> {
+            release.await();
+            invocation.<JobExecution>getArgument(0).setStatus(BatchStatus.COMPLETED);
+            return null;
+        }).when(job).execute(any());
+
+        AtomicLong ids = new AtomicLong();
+        JobRepository jobRepository = mock(JobRepository.class);
+        when(jobRepository.createJobExecution(anyString(), any())).thenAnswer(invocation -> new JobExecution(
+                new JobInstance(ids.incrementAndGet(), BatchConfig.JOB_NAME), ids.get(), invocation.getArgument(1)));
+
+        EmployeeImportJobLauncher launcher = new EmployeeImportJobLauncher(jobRepository, job, 1, 1);
+        List<JobExecution> accepted = new ArrayList<>();
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                // One running, one queued
+                accepted.add(launcher.launch(parameters(1)));
+                accepted.add(launcher.launch(parameters(2)));
+
+                assertThatThrownBy(() -> launcher.launch(parameters(3)))
+                        .isInstanceOf(TaskRejectedException.class);
+            });
+        } finally {
+            release.countDown();
+        }
+
+        // Both accepted imports still run once a slot is free
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (accepted.stream().anyMatch(execution -> execution.getStatus() != BatchStatus.COMPLETED)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        launcher.shutdown();
+        assertThat(accepted).extracting(JobExecution::getStatus).containsOnly(BatchStatus.COMPLETED);
+    }
+
+    private static JobParameters parameters(long organizationId) {
+        return new JobParametersBuilder().addLong("organizationId", organizationId).toJobParameters();
+    }
+}
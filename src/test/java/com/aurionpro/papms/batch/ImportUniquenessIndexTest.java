@@ -0,0 +1,133 @@
+package com.aurionpro.papms.batch;
+
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import com.aurionpro.papms.utils.BloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The import uniqueness index stays complete while it is being built: keys saved by transactions
+ * that commit after the build has read the table reach the filter through the entity listener.
+ */
+class ImportUniquenessIndexTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ImportUniquenessIndex uniquenessIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void listenerAddsSavedKeys() {
+        Organization organization = activeOrganization();
+        assertThat(uniquenessIndex.isUsernameTaken(unique("nobody"))).isFalse();
+
+        String username = user(Role.ORG_ADMIN, organization.getId()).getUsername();
+        String accountNumber = accountNumberOf(organization);
+
+        assertThat(uniquenessIndex.isUsernameTaken(username)).isTrue();
+        assertThat(uniquenessIndex.isAccountNumberTaken(accountNumber)).isTrue();
+    }
+
+    @Test
+    void keyCommittedAfterTheBuildReadTheTableIsNotMissed() throws Exception {
+        Organization organization = activeOrganization();
+        discardFilter("accountNumbers");
+
+        CountDownLatch persisted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<String> writer = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            String accountNumber = accountNumberOf(organization);
+            persisted.countDown();
+            await(commit);
+            return accountNumber;
+        }));
+
+        assertThat(persisted.await(10, TimeUnit.SECONDS)).isTrue();
+        // Builds the filter while the writer's account number is still uncommitted
+        assertThat(uniquenessIndex.isAccountNumberTaken(unique("ACC"))).isFalse();
+        commit.countDown();
+        String accountNumber = writer.get(10, TimeUnit.SECONDS);
+
+        assertThat(uniquenessIndex.isAccountNumberTaken(accountNumber)).isTrue();
+    }
+
+    @Test
+    void asksTheDatabaseWhileAnotherThreadBuilds() throws Exception {
+        String username = user(Role.ORG_ADMIN, activeOrganization().getId()).getUsername();
+        Object keyFilter = discardFilter("usernames");
+        ReentrantLock buildLock = (ReentrantLock) ReflectionTestUtils.getField(keyFilter, "buildLock");
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> builder = CompletableFuture.runAsync(() -> {
+            buildLock.lock();
+            try {
+                locked.countDown();
+                await(release);
+            } finally {
+                buildLock.unlock();
+            }
+        });
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(uniquenessIndex.isUsernameTaken(username)).isTrue();
+            assertThat(uniquenessIndex.isUsernameTaken(unique("nobody"))).isFalse();
+            assertThat(ReflectionTestUtils.getField(keyFilter, "filter")).isNull();
+        } finally {
+            release.countDown();
+        }
+        builder.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void repeatedUpdatesDoNotTriggerARebuild() {
+        User user = user(Role.ORG_ADMIN, activeOrganization().getId());
+        // A filter with little room to spare, holding every username there is
+        BloomFilter small = BloomFilter.create(userRepository.count() + 10, 0.01);
+        userRepository.findAll().forEach(existing -> small.put(existing.getUsername()));
+        Object keyFilter = ReflectionTestUtils.getField(uniquenessIndex, "usernames");
+        ReflectionTestUtils.setField(keyFilter, "filter", small);
+
+        // Each save puts the username again, through the entity listener and after commit
+        for (int i = 0; i < 20; i++) {
+            user.setFullName("Renamed " + i);
+            user = userRepository.save(user);
+        }
+
+        assertThat(uniquenessIndex.isUsernameTaken(user.getUsername())).isTrue();
+        assertThat(small.isSaturated()).isFalse();
+        assertThat(ReflectionTestUtils.getField(keyFilter, "filter")).isSameAs(small);
+    }
+
+    // Forces the next lookup to build the filter again
+    private Object discardFilter(String name) {
+        Object keyFilter = ReflectionTestUtils.getField(uniquenessIndex, name);
+        ReflectionTestUtils.setField(keyFilter, "filter", null);
+        return keyFilter;
+    }
+
+    private String accountNumberOf(Organization organization) {
+        return bankAccountRepository.findByEmployeeId(employee(organization).getId()).orElseThrow().getAccountNumber();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.aurionpro.papms.batch;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The uploaded CSV holds plaintext passwords, so it is removed however the import ends.
+ */
+class JobCompletionNotificationListenerTest {
+
+    @ParameterizedTest
+    @EnumSource(value = BatchStatus.class, names = {"COMPLETED", "FAILED", "STOPPED"})
+    void deletesTheUploadedFile(BatchStatus status) throws Exception {
+        Path directory = Files.createTempDirectory("csv-import-");
+        Path file = Files.writeString(directory.resolve("employees.csv"), "username,password\nalice,Secret@123\n");
+
+        JobExecution execution = new JobExecution(1L, new JobParametersBuilder()
+                .addString("filePath", file.toString())
+                .toJobParameters());
+        execution.setStatus(status);
+        new JobCompletionNotificationListener().afterJob(execution);
+
+        assertThat(file).doesNotExist();
+        assertThat(directory).doesNotExist();
+    }
+}
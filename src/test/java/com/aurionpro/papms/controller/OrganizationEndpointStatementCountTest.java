@@ -0,0 +1,85 @@
+package com.aurionpro.papms.controller;
+
+import com.aurionpro.papms.Enum.DocumentStatus;
+import com.aurionpro.papms.Enum.DocumentType;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.Document;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.repository.DocumentRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.jwt.JwtService;
+import com.aurionpro.papms.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Organization lookups must not fan out into the workforce: the number of SQL statements per
+ * request stays fixed however many employees the organization has.
+ */
+class OrganizationEndpointStatementCountTest extends StatementBudgetTestSupport {
+
+    private static final int EMPLOYEES = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    private Organization organization;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        organization = activeOrganization();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employee(organization);
+        }
+
+        Organization pending = organizationRepository.save(Organization.builder()
+                .companyName(unique("Pending"))
+                .contactEmail("pending@test.local")
+                .build());
+        documentRepository.save(Document.builder()
+                .fileName("registration.pdf")
+                .cloudinaryUrl("https://example.invalid/registration.pdf")
+                .cloudinaryPublicId("registration")
+                .relatedEntityType(DocumentType.ORGANIZATION_VERIFICATION)
+                .status(DocumentStatus.Pending)
+                .uploadedAt(LocalDateTime.now())
+                .organization(pending)
+                .build());
+
+        User bankAdmin = user(Role.BANK_ADMIN, null);
+        token = jwtService.generateToken(AuthenticatedUser.from(bankAdmin), 60_000);
+    }
+
+    @Test
+    void organizationEndpointsStayWithinStatementBudget() throws Exception {
+        assertRequestWithin(2, "/api/organizations?size=20");
+        assertRequestWithin(1, "/api/organizations/pending");
+        assertRequestWithin(1, "/api/organizations/by-name/" + organization.getCompanyName());
+        assertRequestWithin(1, "/api/organizations/" + organization.getId() + "/profile");
+        // existence check, page and count
+        assertRequestWithin(3, "/api/organizations/" + organization.getId() + "/employees?size=" + EMPLOYEES);
+    }
+
+    // The warm-up call also loads the principal cache, so only the endpoint itself is measured
+    private void assertRequestWithin(long budget, String url) throws Exception {
+        assertStatementsAtMost(budget, "GET " + url, () -> mockMvc
+                .perform(get(url).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.aurionpro.papms.emails;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The asynchronous mail pipeline against an in-process SMTP server on the port the test
+ * configuration points spring.mail at.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "test.mail.stub.enabled=false",
+        "app.mail.async.initial-backoff-ms=1000"
+})
+class EmailServiceTest {
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void sendsOnlyAfterTheTransactionCommits() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendEmail("bank@papms.test", "rolled-back@papms.test", "Rolled back", "<p>never sent</p>");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendEmail("bank@papms.test", "committed@papms.test", "Committed", "<p>sent</p>");
+            assertThat(smtp.waitForIncomingEmail(500, 1)).isFalse();
+        });
+
+        assertThat(smtp.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(smtp.waitForIncomingEmail(500, 2)).isFalse();
+        assertThat(smtp.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo("committed@papms.test");
+    }
+
+    @Test
+    void deliversABatchWithASingleSend() {
+        List<OutgoingEmail> batch = IntStream.range(0, 12)
+                .mapToObj(i -> new OutgoingEmail("bank@papms.test", "employee" + i + "@papms.test", "Salary credited", "<p>" + i + "</p>"))
+                .toList();
+        long sends = meterRegistry.get("papms.mail.send").timer().count();
+
+        assertThat(emailService.deliver(batch)).isEmpty();
+
+        assertThat(meterRegistry.get("papms.mail.send").timer().count()).isEqualTo(sends + 1);
+        assertThat(smtp.getReceivedMessages()).hasSize(12);
+    }
+
+    @Test
+    void retriesWhenTheServerIsDown() throws Exception {
+        double retried = retriedCount();
+        smtp.stop();
+        emailService.sendEmail("bank@papms.test", "retry@papms.test", "Retried", "<p>second attempt</p>");
+        for (int i = 0; i < 50 && retriedCount() == retried; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(retriedCount()).isGreaterThan(retried);
+
+        smtp.start();
+        assertThat(smtp.waitForIncomingEmail(10000, 1)).isTrue();
+        assertThat(smtp.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo("retry@papms.test");
+    }
+
+    private double retriedCount() {
+        return meterRegistry.get("papms.mail.messages").tag("outcome", "retried").counter().count();
+    }
+}
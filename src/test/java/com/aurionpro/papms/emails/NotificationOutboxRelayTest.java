@@ -0,0 +1,148 @@
+package com.aurionpro.papms.emails;
+
+import com.aurionpro.papms.Enum.OutboxStatus;
+import com.aurionpro.papms.entity.NotificationOutbox;
+import com.aurionpro.papms.repository.NotificationOutboxRepository;
+import com.aurionpro.papms.support.RecordingMailSender;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The transactional outbox: messages are written in the caller's transaction and delivered by
+ * the relay, which is invoked directly here (the scheduled poll is pushed out of the way).
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.mail.outbox.enabled=true",
+        "app.mail.outbox.poll-interval-ms=3600000"
+})
+class NotificationOutboxRelayTest {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationOutboxRelay relay;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private RecordingMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAll();
+        mailSender.clear();
+    }
+
+    @Test
+    void messagesWaitInTheOutboxUntilTheRelayRuns() {
+        String to = recipient();
+        transactionTemplate.executeWithoutResult(status -> emailService.sendEmail("bank@papms.test", to, "Queued", "<p>outbox</p>"));
+
+        assertThat(mailSender.sent()).isEmpty();
+        assertThat(outboxRepository.findAll()).singleElement()
+                .satisfies(notification -> assertThat(notification.getStatus()).isEqualTo(OutboxStatus.PENDING));
+
+        ReflectionTestUtils.setField(relay, "outboxEnabled", false);
+        try {
+            relay.relay();
+            assertThat(mailSender.sent()).isEmpty();
+        } finally {
+            ReflectionTestUtils.setField(relay, "outboxEnabled", true);
+        }
+
+        relay.relay();
+        assertThat(mailSender.sent()).hasSize(1);
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(notification -> {
+            assertThat(notification.getStatus()).isEqualTo(OutboxStatus.SENT);
+            assertThat(notification.getSentAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void concurrentClaimsSkipRowsLockedByAnotherRelay() throws Exception {
+        List<Long> ids = outboxRepository.saveAll(List.of(pending(), pending())).stream()
+                .map(NotificationOutbox::getId).toList();
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> rows = claim(10);
+            claimed.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rows;
+        }));
+        try {
+            assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+            Long added = outboxRepository.save(pending()).getId();
+            // Returns at once with the row nobody holds, instead of waiting for the first claim's locks
+            List<Long> second = transactionTemplate.execute(status -> claim(10));
+            assertThat(second).containsExactly(added);
+        } finally {
+            release.countDown();
+        }
+        assertThat(first.get(10, TimeUnit.SECONDS)).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void aBatchResentAfterACrashKeepsItsMessageId() throws Exception {
+        NotificationOutbox notification = outboxRepository.save(pending());
+
+        // The process dies after the SMTP hand-off but before the SENT update commits
+        transactionTemplate.executeWithoutResult(status -> {
+            ReflectionTestUtils.invokeMethod(relay, "dispatchBatch");
+            status.setRollbackOnly();
+        });
+        assertThat(outboxRepository.findById(notification.getId()).orElseThrow().getStatus()).isEqualTo(OutboxStatus.PENDING);
+
+        relay.relay();
+
+        List<MimeMessage> sent = mailSender.sent();
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0).getMessageID()).isEqualTo("<outbox-" + notification.getId() + "@papms>");
+        assertThat(sent.get(1).getMessageID()).isEqualTo(sent.get(0).getMessageID());
+        assertThat(outboxRepository.findById(notification.getId()).orElseThrow().getStatus()).isEqualTo(OutboxStatus.SENT);
+    }
+
+    private List<Long> claim(int limit) {
+        return outboxRepository.claimDueForDispatch(LocalDateTime.now(), limit).stream().map(NotificationOutbox::getId).toList();
+    }
+
+    private NotificationOutbox pending() {
+        return NotificationOutbox.builder()
+                .fromAddress("bank@papms.test")
+                .toAddress(recipient())
+                .subject("Salary credited")
+                .body("<p>outbox</p>")
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+
+    private String recipient() {
+        return "employee-" + UUID.randomUUID() + "@papms.test";
+    }
+}
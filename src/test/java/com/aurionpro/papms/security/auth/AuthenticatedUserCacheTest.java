@@ -0,0 +1,102 @@
+package com.aurionpro.papms.security.auth;
+
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.dto.ResetPasswordRequest;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.PasswordResetToken;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.repository.PasswordResetTokenRepository;
+import com.aurionpro.papms.service.EmployeeService;
+import com.aurionpro.papms.service.PasswordResetService;
+import com.aurionpro.papms.support.StatementBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The principal cache behind JwtAuthFilter: repeated requests are served from memory, and the
+ * changes that affect authorization reach the next request.
+ */
+class AuthenticatedUserCacheTest extends StatementBudgetTestSupport {
+
+    @Autowired
+    private AuthenticatedUserCache userCache;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() throws Exception {
+        User user = user(Role.ORG_ADMIN, activeOrganization().getId());
+        AuthenticatedUser first = userCache.get(user.getUsername());
+
+        assertStatementsAtMost(0, "cached principal", () -> userCache.get(user.getUsername()),
+                cached -> assertThat(cached).isSameAs(first));
+    }
+
+    @Test
+    void passwordResetEvictsThePrincipal() {
+        User user = user(Role.ORG_ADMIN, activeOrganization().getId());
+        user.setRequiresPasswordChange(true);
+        userRepository.save(user);
+        assertThat(userCache.get(user.getUsername()).isRequiresPasswordChange()).isTrue();
+
+        String token = UUID.randomUUID().toString();
+        tokenRepository.save(new PasswordResetToken(token, user));
+        ResetPasswordRequest request = new ResetPasswordRequest();
+        request.setToken(token);
+        request.setNewPassword("new-password-1");
+        request.setConfirmPassword("new-password-1");
+        passwordResetService.handleResetPassword(request);
+
+        assertThat(userCache.get(user.getUsername()).isRequiresPasswordChange()).isFalse();
+    }
+
+    @Test
+    void deactivationEvictsThePrincipal() {
+        Organization organization = activeOrganization();
+        Employee employee = employee(organization);
+        String username = employee.getUser().getUsername();
+        assertThat(userCache.get(username).isEnabled()).isTrue();
+
+        authenticateAs(user(Role.ORG_ADMIN, organization.getId()));
+        employeeService.deleteEmployee(organization.getId(), employee.getId());
+
+        assertThat(userCache.get(username).isEnabled()).isFalse();
+    }
+
+    @Test
+    void roleChangeEvictsAgainAfterCommit() {
+        User user = user(Role.EMPLOYEE, activeOrganization().getId());
+        assertThat(userCache.get(user.getUsername()).getRole()).isEqualTo(Role.EMPLOYEE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User changed = userRepository.findById(user.getId()).orElseThrow();
+            changed.setRole(Role.ORG_ADMIN);
+            userRepository.saveAndFlush(changed);
+            userCache.evict(changed.getUsername());
+            // A request arriving before the commit reloads the old role and caches it
+            assertThat(CompletableFuture.supplyAsync(() -> userCache.get(user.getUsername())).join().getRole())
+                    .isEqualTo(Role.EMPLOYEE);
+        });
+
+        assertThat(userCache.get(user.getUsername()).getRole()).isEqualTo(Role.ORG_ADMIN);
+        assertThat(userCache.get(user.getUsername()).getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_ORG_ADMIN");
+    }
+}
@@ -0,0 +1,54 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.repository.OrganizationBalanceShardRepository;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A debit whose first shard was drained after it was chosen falls back to the other shards and
+ * is declined only when all of them together are short.
+ */
+class BalanceShardServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private BalanceShardService balanceShardService;
+
+    @Autowired
+    private OrganizationBalanceShardRepository shardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void debitFallsBackToLowerShardsWhenTheFirstOneIsShort() {
+        Organization organization = activeOrganization();
+        Integer organizationId = organization.getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceShardService.credit(organization, BigDecimal.ZERO);
+            // Most of the money sits below the shard the debit starts from
+            for (int shard = 0; shard < 3; shard++) {
+                shardRepository.creditShard(organizationId, shard, new BigDecimal("100.00"));
+            }
+            shardRepository.creditShard(organizationId, 5, new BigDecimal("50.00"));
+        });
+
+        BigDecimal balance = transactionTemplate.execute(status ->
+                balanceShardService.debit(organizationId, new BigDecimal("200.00"), 5));
+
+        assertThat(balance).isEqualByComparingTo("150.00");
+        assertThat(shardRepository.sumBalanceByOrganizationId(organizationId)).isEqualByComparingTo("150.00");
+
+        assertThatThrownBy(() -> transactionTemplate.execute(status ->
+                balanceShardService.debit(organizationId, new BigDecimal("150.01"), 5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient funds to complete this payment.");
+    }
+}
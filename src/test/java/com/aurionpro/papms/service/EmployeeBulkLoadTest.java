@@ -0,0 +1,186 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.dto.BulkEmployeeUploadEvent;
+import com.aurionpro.papms.dto.BulkEmployeeUploadResponse;
+import com.aurionpro.papms.dto.FailedEmployeeRecord;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.jwt.JwtService;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The synchronous bulk upload validates the whole file up front and commits chunk by chunk: a
+ * chunk that fails to insert is rolled back alone and reported row by row.
+ */
+@TestPropertySource(properties = {
+        "app.employee-import.bulk-load.chunk-size=5",
+        "app.employee-import.streaming.batch-size=3"
+})
+class EmployeeBulkLoadTest extends IntegrationTestSupport {
+
+    private static final String HEADER = "username,password,fullName,email,employeeCode,dateOfJoining,department,jobTitle,"
+            + "accountHolderName,accountNumber,bankName,ifscCode,basicSalary,hra,da,pfContribution,otherAllowances,effectiveFromDate";
+    private static final String PASSWORD = "Secret@123";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @MockitoSpyBean
+    private EmployeeBulkLoader employeeBulkLoader;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void commitsEachChunkOnItsOwn() {
+        Organization organization = activeOrganization();
+        String existingUsername = employee(organization).getUser().getUsername();
+        authenticateAs(user(Role.ORG_ADMIN, organization.getId()));
+
+        String prefix = unique("bulk");
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 1; i <= 12; i++) {
+            // Too large for the salary column, so the second chunk fails when inserted
+            String salary = i == 7 ? "123456789012" : "30000";
+            csv.append(row(prefix + "-user" + i, prefix + "-acc" + i, salary)).append('\n');
+        }
+        csv.append(row(prefix + "-user1", prefix + "-acc-dup", "30000")).append('\n');
+        csv.append(row(existingUsername, prefix + "-acc-existing", "30000")).append('\n');
+
+        BulkEmployeeUploadResponse response = employeeService.bulkAddEmployees(organization.getId(),
+                new MockMultipartFile("file", "employees.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // Rows 1-5 and 11-12 are in; rows 6-10 went with their chunk, 13 and 14 are duplicates
+        assertThat(response.getSuccessfulImports()).isEqualTo(7);
+        assertThat(response.getFailedRecords()).extracting(FailedEmployeeRecord::getRowNumber)
+                .containsExactlyInAnyOrder(13L, 14L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(response.getImportedEmployees()).allSatisfy(employee -> {
+            assertThat(employee.getId()).isNotNull();
+            assertThat(employee.getBankAccount().getId()).isNotNull();
+            assertThat(employee.getCurrentSalary().getId()).isNotNull();
+        });
+
+        assertThat(employeeRepository.findByOrganizationId(organization.getId())).hasSize(1 + 7);
+        assertThat(userRepository.findByUsername(prefix + "-user6")).isEmpty();
+        assertThat(passwordEncoder.matches(PASSWORD,
+                userRepository.findByUsername(prefix + "-user12").orElseThrow().getPassword())).isTrue();
+    }
+
+    @Test
+    void streamsFailuresAndProgressPerBatch() throws Exception {
+        Organization organization = activeOrganization();
+        authenticateAs(user(Role.ORG_ADMIN, organization.getId()));
+
+        String prefix = unique("stream");
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 1; i <= 7; i++) {
+            csv.append(row(prefix + "-user" + i, prefix + "-acc" + i, "30000")).append('\n');
+        }
+        // A duplicate of a row committed with the first batch
+        csv.append(row(prefix + "-user1", prefix + "-acc-dup", "30000")).append('\n');
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        employeeService.streamBulkAddEmployees(organization.getId(),
+                        new MockMultipartFile("file", "employees.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)))
+                .writeTo(out);
+
+        List<BulkEmployeeUploadEvent> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(objectMapper.readValue(line, BulkEmployeeUploadEvent.class));
+        }
+        assertThat(events).extracting(BulkEmployeeUploadEvent::getType).containsExactly(
+                BulkEmployeeUploadEvent.Type.PROGRESS, BulkEmployeeUploadEvent.Type.PROGRESS,
+                BulkEmployeeUploadEvent.Type.FAILURE, BulkEmployeeUploadEvent.Type.PROGRESS,
+                BulkEmployeeUploadEvent.Type.SUMMARY);
+        assertThat(events.get(1).getRowsProcessed()).isEqualTo(6);
+        assertThat(events.get(2).getFailure().getRowNumber()).isEqualTo(8);
+
+        BulkEmployeeUploadEvent summary = events.get(4);
+        assertThat(summary.getTotalRows()).isEqualTo(8);
+        assertThat(summary.getRowsProcessed()).isEqualTo(8);
+        assertThat(summary.getSuccessfulImports()).isEqualTo(7);
+        assertThat(summary.getFailedImports()).isEqualTo(1);
+        assertThat(summary.getEmployeesWithBankAccounts()).isEqualTo(7);
+        assertThat(employeeRepository.findByOrganizationId(organization.getId())).hasSize(7);
+    }
+
+    @Test
+    void checksAccessBeforeStreamingAndReportsFailuresInTheStream() throws Exception {
+        Organization organization = activeOrganization();
+        authenticateAs(user(Role.ORG_ADMIN, organization.getId()));
+        String csv = HEADER + "\n" + row(unique("stream-error"), unique("acc"), "30000") + "\n";
+
+        // Another organization's upload is refused before any writer exists
+        assertThatThrownBy(() -> employeeService.streamBulkAddEmployees(activeOrganization().getId(),
+                new MockMultipartFile("file", "employees.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(SecurityException.class);
+
+        EmployeeService.BulkUploadWriter upload = employeeService.streamBulkAddEmployees(organization.getId(),
+                new MockMultipartFile("file", "employees.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        doThrow(new IllegalStateException("database unavailable")).when(employeeBulkLoader).load(any(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThatThrownBy(() -> upload.writeTo(out)).isInstanceOf(IllegalStateException.class);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        BulkEmployeeUploadEvent last = objectMapper.readValue(lines[lines.length - 1], BulkEmployeeUploadEvent.class);
+        assertThat(last.getType()).isEqualTo(BulkEmployeeUploadEvent.Type.ERROR);
+        assertThat(last.getMessage()).contains("database unavailable");
+    }
+
+    @Test
+    void streamedUploadOutlivesTheContainerAsyncTimeout() throws Exception {
+        Organization organization = activeOrganization();
+        User orgAdmin = user(Role.ORG_ADMIN, organization.getId());
+        String csv = HEADER + "\n" + row(unique("stream-timeout"), unique("acc"), "30000") + "\n";
+
+        MvcResult result = mockMvc.perform(multipart("/api/organizations/{id}/employees/bulk-upload-stream", organization.getId())
+                        .file(new MockMultipartFile("file", "employees.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(AuthenticatedUser.from(orgAdmin), 60_000)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        result.getAsyncResult(10_000);
+    }
+
+    private static String row(String username, String accountNumber, String basicSalary) {
+        return String.join(",", username, PASSWORD, "Imported " + username, username + "@test.local",
+                username.toUpperCase(), "2024-01-01", "Engineering", "Engineer", "Imported " + username,
+                accountNumber, "Test Bank", "TEST0000003", basicSalary, "12000", "3000", "3600", "1500", "2024-01-15");
+    }
+}
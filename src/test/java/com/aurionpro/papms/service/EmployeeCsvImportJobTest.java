@@ -0,0 +1,135 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.repository.PasswordResetTokenRepository;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The CSV import runs as line-range partitions on several threads (four by default), and
+ * duplicates are still caught when the two rows land in different partitions. Passwords are
+ * hashed on the hashing pool, and a row without a password gets an activation link instead.
+ * The finished job shows up in the import status listing and in the import metrics.
+ */
+class EmployeeCsvImportJobTest extends IntegrationTestSupport {
+
+    private static final int ROWS = 40;
+    private static final String PASSWORD = "Secret@123";
+    private static final String HEADER = "username,password,fullName,email,employeeCode,dateOfJoining,department,jobTitle,"
+            + "accountHolderName,accountNumber,bankName,ifscCode,basicSalary,hra,da,pfContribution,otherAllowances,effectiveFromDate";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeImportStatusService employeeImportStatusService;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Test
+    void importsAllPartitionsAndSkipsDuplicatesAcrossThem() throws Exception {
+        Organization organization = activeOrganization();
+        employee(organization);
+        String existingAccount = employeeRepository.findWithDetailsByOrganizationId(organization.getId())
+                .get(0).getBankAccount().getAccountNumber();
+
+        String prefix = unique("csv");
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < ROWS; i++) {
+            // The second row leaves the password to be chosen through an activation link
+            String password = i == 1 ? "" : PASSWORD;
+            csv.append(row(prefix + "-user" + i, password, prefix + "-acc" + i)).append('\n');
+        }
+        // The first row's username again, in the last partition, and an account number already in the database
+        csv.append(row(prefix + "-user0", PASSWORD, prefix + "-acc-dup")).append('\n');
+        csv.append(row(prefix + "-other", PASSWORD, existingAccount)).append('\n');
+
+        // The registry lives as long as the test context, so only this import's share is checked
+        double writtenBefore = writtenItems();
+        employeeService.launchCsvImportJob(organization.getId(),
+                new MockMultipartFile("file", "employees.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // The launch returns while the import is still running
+        JobExecution execution = awaitFinished(jobExplorer.getJobInstances("employeeCsvImportJob", 0, 1).stream()
+                .map(jobExplorer::getJobExecutions).flatMap(List::stream)
+                .mapToLong(JobExecution::getId).max().orElseThrow());
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        List<StepExecution> workers = execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().startsWith("employeeCsvImportStep:"))
+                .toList();
+        assertThat(workers).hasSize(4);
+        assertThat(workers.stream().mapToLong(StepExecution::getReadCount).sum()).isEqualTo(ROWS + 2);
+        assertThat(workers.stream().mapToLong(StepExecution::getWriteCount).sum()).isEqualTo(ROWS);
+
+        assertThat(writtenItems() - writtenBefore).isEqualTo(ROWS);
+        assertThat(meterRegistry.get("papms.employee.import.chunk").tag("outcome", "success").timer().count()).isPositive();
+        assertThat(meterRegistry.get("papms.employee.import.active").gauge().value()).isZero();
+
+        authenticateAs(user(Role.ORG_ADMIN, organization.getId()));
+        assertThat(employeeImportStatusService.getImportJobs(organization.getId(), 10)).singleElement().satisfies(status -> {
+            assertThat(status.getJobExecutionId()).isEqualTo(execution.getId());
+            assertThat(status.getStatus()).isEqualTo("COMPLETED");
+            assertThat(status.getTotalRows()).isEqualTo(ROWS + 2);
+            assertThat(status.getWriteCount()).isEqualTo(ROWS);
+            assertThat(status.getFilterCount()).isEqualTo(2);
+            assertThat(status.getPartitions()).hasSize(4);
+        });
+
+        List<Employee> imported = employeeRepository.findByOrganizationId(organization.getId());
+        // The employee seeded above plus one per unique row
+        assertThat(imported).hasSize(ROWS + 1);
+
+        User hashed = userRepository.findByUsername(prefix + "-user" + (ROWS - 1)).orElseThrow();
+        assertThat(passwordEncoder.matches(PASSWORD, hashed.getPassword())).isTrue();
+        User pending = userRepository.findByUsername(prefix + "-user1").orElseThrow();
+        assertThat(AccountActivationService.isPendingActivation(pending)).isTrue();
+        assertThat(passwordResetTokenRepository.findAll())
+                .anySatisfy(token -> assertThat(token.getUser().getId()).isEqualTo(pending.getId()));
+    }
+
+    private double writtenItems() {
+        return meterRegistry.get("papms.employee.import.items").tag("outcome", "written").counter().count();
+    }
+
+    private JobExecution awaitFinished(long jobExecutionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        JobExecution execution = jobExplorer.getJobExecution(jobExecutionId);
+        while (execution.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            execution = jobExplorer.getJobExecution(jobExecutionId);
+        }
+        return execution;
+    }
+
+    private static String row(String username, String password, String accountNumber) {
+        return String.join(",", username, password, "Imported " + username, username + "@test.local",
+                username.toUpperCase(), "2024-01-15", "Engineering", "Engineer", "Imported " + username,
+                accountNumber, "Test Bank", "TEST0000003", "30000", "12000", "3000", "3600", "1500", "2024-01-01");
+    }
+}
@@ -0,0 +1,8 @@
+package com.aurionpro.papms.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Same stress scenario against the append-only journal ledger
+@TestPropertySource(properties = "app.ledger.mode=JOURNAL")
+class JournalLedgerConcurrencyTest extends TransactionServiceConcurrencyTest {
+}
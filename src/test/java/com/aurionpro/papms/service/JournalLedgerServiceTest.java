@@ -0,0 +1,113 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.LedgerMode;
+import com.aurionpro.papms.Enum.TransactionSourceType;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.repository.JournalAccountRepository;
+import com.aurionpro.papms.repository.JournalAccountWriter;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Journal ledger seeding and compaction. The journal runs entirely in the caller's transaction,
+ * so the first write after a restart seeds the account next to the caller's own inserts.
+ */
+class JournalLedgerServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JournalLedgerService journalLedgerService;
+
+    @Autowired
+    private JournalAccountRepository accountRepository;
+
+    @Autowired
+    private JournalAccountWriter accountWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Organization organization;
+
+    @BeforeEach
+    void switchToJournal() {
+        organization = activeOrganization();
+        organization.setInternalBalance(new BigDecimal("100.00"));
+        organizationRepository.save(organization);
+        ReflectionTestUtils.setField(transactionService, "ledgerMode", LedgerMode.JOURNAL);
+    }
+
+    @AfterEach
+    void restoreAtomic() {
+        ReflectionTestUtils.setField(transactionService, "ledgerMode", LedgerMode.ATOMIC);
+        ReflectionTestUtils.setField(journalLedgerService, "compactionLagSeconds", 60L);
+    }
+
+    @Test
+    void firstWriteSeedsTheAccountInsideTheCallersTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionService.processCredit(organization, new BigDecimal("5.00"), "Refund",
+                    TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+            transactionService.processDebit(organization, new BigDecimal("30.00"), "Vendor",
+                    TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+        });
+
+        assertThat(accountRepository.findById(organization.getId())).hasValueSatisfying(account ->
+                assertThat(account.getSeedBalance()).isEqualByComparingTo("100.00"));
+        assertThat(transactionService.getCurrentBalance(organization.getId())).isEqualByComparingTo("75.00");
+
+        // A restart forgets which organizations are seeded; the existing account is reused
+        ((Set<?>) ReflectionTestUtils.getField(journalLedgerService, "seededOrganizations")).clear();
+        transactionService.processDebit(organization, new BigDecimal("25.00"), "Vendor",
+                TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+        assertThat(accountRepository.findById(organization.getId())).hasValueSatisfying(account -> {
+            assertThat(account.getSeedBalance()).isEqualByComparingTo("100.00");
+            assertThat(account.getDebitedTotal()).isEqualByComparingTo("55.00");
+        });
+        assertThat(transactionService.getCurrentBalance(organization.getId())).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void losingTheSeedRaceLeavesTheCallersTransactionUsable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionService.processCredit(organization, new BigDecimal("5.00"), "Refund",
+                    TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+            // What a concurrent first writer sees once the winner has committed
+            assertThat(accountWriter.insertIfAbsent(organization.getId(), BigDecimal.ZERO, 0L)).isZero();
+            transactionService.processDebit(organization, new BigDecimal("30.00"), "Vendor",
+                    TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+        });
+
+        assertThat(transactionService.getCurrentBalance(organization.getId())).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void compactionCarriesTheDebitTotalIntoTheSnapshot() {
+        transactionService.processDebit(organization, new BigDecimal("40.00"), "Vendor",
+                TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+        ReflectionTestUtils.setField(journalLedgerService, "compactionLagSeconds", -60L);
+
+        assertThat(journalLedgerService.compact(organization.getId())).isTrue();
+        assertThat(organizationRepository.findInternalBalanceById(organization.getId())).isEqualByComparingTo("60.00");
+
+        transactionService.processDebit(organization, new BigDecimal("60.00"), "Vendor",
+                TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+        assertThat(transactionService.getCurrentBalance(organization.getId())).isEqualByComparingTo("0.00");
+        assertThatThrownBy(() -> transactionService.processDebit(organization, new BigDecimal("0.01"), "Vendor",
+                TransactionSourceType.MANUAL_ADJUSTMENT, 0L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,182 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.DelimitedFormat;
+import com.aurionpro.papms.Enum.OwnerType;
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.BankAccount;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.entity.vendorEntity.Vendor;
+import com.aurionpro.papms.repository.VendorRepository;
+import com.aurionpro.papms.service.vendor.VendorService;
+import com.aurionpro.papms.support.StatementBudgetTestSupport;
+import com.aurionpro.papms.support.TestFixtures;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets for the listing and report services. Each organization is seeded with more
+ * rows than any budget, so a per-row query anywhere in a listing fails the build.
+ */
+class ListingStatementBudgetTest extends StatementBudgetTestSupport {
+
+    private static final int ROWS = 20;
+    private static final int YEAR = 2025;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private PayrollExcelReportService payrollExcelReportService;
+
+    @Autowired
+    private PayrollCsvReportService payrollCsvReportService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    private Organization organization;
+    private User orgAdmin;
+    private List<Employee> employees;
+
+    @BeforeEach
+    void seed() {
+        organization = activeOrganization();
+        orgAdmin = user(Role.ORG_ADMIN, organization.getId());
+        employees = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(employee(organization));
+        }
+        for (int month = 1; month <= 3; month++) {
+            payrollBatch(organization, orgAdmin, employees, PayrollStatus.APPROVED, YEAR, month);
+        }
+    }
+
+    @Test
+    void employeePage() throws Exception {
+        authenticateAs(orgAdmin);
+        assertStatementsAtMost(3, "employee page",
+                () -> employeeService.getEmployeesByOrganization(organization.getId(), PageRequest.of(0, ROWS)),
+                page -> assertThat(page.getContent()).hasSize(ROWS));
+    }
+
+    @Test
+    void completeEmployeeList() throws Exception {
+        authenticateAs(orgAdmin);
+        assertStatementsAtMost(2, "complete employee list",
+                () -> employeeService.getCompleteEmployeesByOrganization(organization.getId()),
+                list -> assertThat(list).hasSize(ROWS)
+                        .allSatisfy(employee -> {
+                            assertThat(employee.getBankAccount()).isNotNull();
+                            assertThat(employee.getCurrentSalary()).isNotNull();
+                        }));
+    }
+
+    @Test
+    void payrollBatchPage() throws Exception {
+        authenticateAs(orgAdmin);
+        assertStatementsAtMost(3, "payroll batch page",
+                () -> payrollService.getPayrollsForOrganization(organization.getId(), PageRequest.of(0, 10)),
+                page -> assertThat(page.getContent()).hasSize(3)
+                        .allSatisfy(batch -> assertThat(batch.getPayments()).hasSize(ROWS)));
+    }
+
+    @Test
+    void payslipHistory() throws Exception {
+        authenticateAs(employees.get(0).getUser());
+        assertStatementsAtMost(3, "payslip history",
+                () -> payrollService.getMyPayslipHistory(PageRequest.of(0, 10)),
+                page -> assertThat(page.getContent()).hasSize(3));
+    }
+
+    @Test
+    void payrollExcelReport() throws Exception {
+        assertStatementsAtMost(1, "payroll Excel report",
+                () -> payrollExcelReportService.generatePayrollReport(organization.getId(), YEAR, 1),
+                report -> {
+                    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(report))) {
+                        // header plus one row per payment
+                        assertThat(workbook.getSheetAt(0).getLastRowNum()).isEqualTo(ROWS);
+                    }
+                });
+    }
+
+    @Test
+    void payrollCsvReport() throws Exception {
+        assertStatementsAtMost(1, "payroll CSV report", () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            payrollCsvReportService.writePayrollReport(organization.getId(), YEAR, 1, DelimitedFormat.TSV, true, out);
+            return out.toByteArray();
+        }, report -> {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(report))) {
+                List<String> lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+                assertThat(lines).hasSize(ROWS + 1);
+                assertThat(lines.get(1).split("\t")).endsWith(TestFixtures.NET_SALARY.toPlainString());
+            }
+        });
+    }
+
+    @Test
+    void vendorPage() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            vendor();
+        }
+        authenticateAs(orgAdmin);
+        assertStatementsAtMost(3, "vendor page",
+                () -> vendorService.getVendorsByOrganization(organization.getId(), PageRequest.of(0, ROWS)),
+                page -> assertThat(page.getContent()).hasSize(ROWS)
+                        .allSatisfy(vendor -> assertThat(vendor.getAccountNumber()).isNotNull()));
+    }
+
+    @Test
+    void vendorPageFiltersByNameAndStatus() throws Exception {
+        Vendor acme = vendor();
+        vendor();
+        Vendor inactive = vendor();
+        inactive.setIsActive(false);
+        vendorRepository.save(inactive);
+        authenticateAs(orgAdmin);
+
+        assertThat(vendorService.getVendorsByOrganization(organization.getId(),
+                acme.getVendorName().toLowerCase(), null, PageRequest.of(0, ROWS)).getContent())
+                .singleElement().satisfies(vendor -> assertThat(vendor.getId()).isEqualTo(acme.getId()));
+        assertThat(vendorService.getVendorsByOrganization(organization.getId(), null, false, PageRequest.of(0, ROWS)).getContent())
+                .singleElement().satisfies(vendor -> assertThat(vendor.getId()).isEqualTo(inactive.getId()));
+    }
+
+    private Vendor vendor() {
+        Vendor vendor = vendorRepository.save(Vendor.builder()
+                .organization(organization)
+                .vendorName(unique("Vendor"))
+                .build());
+        bankAccountRepository.save(BankAccount.builder()
+                .vendor(vendor)
+                .ownerType(OwnerType.VENDOR)
+                .accountHolderName(vendor.getVendorName())
+                .accountNumber(unique("VACC"))
+                .bankName("Test Bank")
+                .ifscCode("TEST0000002")
+                .build());
+        return vendor;
+    }
+}
@@ -0,0 +1,201 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.utils.PdfStylingHelper;
+import com.aurionpro.papms.utils.PdfTemplate;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Logo cache behaviour against a local HTTP stub. The cached and per-document header rates are
+ * logged for comparison; what the test checks is how many times the stub was asked for the logo.
+ */
+class OrganizationLogoCacheTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrganizationLogoCacheTest.class);
+    private static final int STUB_LATENCY_MS = 20;
+
+    private HttpServer server;
+    private final AtomicInteger logoRequests = new AtomicInteger();
+    private OrganizationLogoCache cache;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        byte[] png = png();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/logo", exchange -> {
+            logoRequests.incrementAndGet();
+            sleep(STUB_LATENCY_MS);
+            exchange.sendResponseHeaders(200, png.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(png);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            logoRequests.incrementAndGet();
+            sleep(1_000);
+            exchange.sendResponseHeaders(200, png.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(png);
+            }
+        });
+        server.start();
+
+        cache = new OrganizationLogoCache();
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "failureRetrySeconds", 60L);
+        ReflectionTestUtils.setField(cache, "connectTimeoutMs", 500);
+        ReflectionTestUtils.setField(cache, "readTimeoutMs", 200);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000);
+        cache.init();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchesLogoOncePerOrganization() {
+        Organization organization = organization(1, "/logo");
+
+        int cachedDocuments = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < cachedDocuments; i++) {
+            renderHeader(organization);
+        }
+        double cachedPerSecond = cachedDocuments / seconds(start);
+        assertThat(logoRequests).hasValue(1);
+
+        int uncachedDocuments = 20;
+        start = System.nanoTime();
+        for (int i = 0; i < uncachedDocuments; i++) {
+            cache.evict(organization.getId());
+            renderHeader(organization);
+        }
+        double uncachedPerSecond = uncachedDocuments / seconds(start);
+        assertThat(logoRequests).hasValue(1 + uncachedDocuments);
+
+        log.info("PDF headers per second with a {} ms logo server: cached {}, fetched per document {}",
+                STUB_LATENCY_MS, Math.round(cachedPerSecond), Math.round(uncachedPerSecond));
+    }
+
+    @Test
+    void reloadsWhenLogoUrlChanges() {
+        Organization organization = organization(2, "/logo");
+        assertThat(cache.getLogo(organization)).isPresent();
+
+        organization.setLogoUrl(organization.getLogoUrl() + "?v=2");
+        assertThat(cache.getLogo(organization)).isPresent();
+        assertThat(cache.getLogo(organization)).isPresent();
+        assertThat(logoRequests).hasValue(2);
+    }
+
+    @Test
+    void templateEvictionDropsTheLogoAndItsTemplates() {
+        PdfTemplateCache templates = new PdfTemplateCache(cache);
+        ReflectionTestUtils.setField(templates, "maxSize", 10L);
+        ReflectionTestUtils.setField(templates, "idleMinutes", 10L);
+        templates.init();
+        Organization organization = organization(5, "/logo");
+        AtomicInteger compiled = new AtomicInteger();
+        Supplier<PdfTemplate> compiler = () -> {
+            compiled.incrementAndGet();
+            return mock(PdfTemplate.class);
+        };
+
+        templates.get("payslip-v1", organization, cache.getLogo(organization).orElseThrow(), compiler);
+        templates.get("payslip-v1", organization, cache.getLogo(organization).orElseThrow(), compiler);
+        assertThat(compiled).hasValue(1);
+
+        // What a logo upload does; the next document fetches the logo and compiles again
+        templates.evict(organization.getId());
+        templates.get("payslip-v1", organization, cache.getLogo(organization).orElseThrow(), compiler);
+        assertThat(logoRequests).hasValue(2);
+        assertThat(compiled).hasValue(2);
+    }
+
+    @Test
+    void concurrentCallersShareOneFetch() {
+        Organization organization = organization(4, "/logo");
+
+        List<CompletableFuture<Optional<ImageData>>> callers = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.getLogo(organization)))
+                .toList();
+
+        assertThat(callers).allSatisfy(caller -> assertThat(caller.join()).isPresent());
+        assertThat(logoRequests).hasValue(1);
+    }
+
+    @Test
+    void slowLogoFallsBackWithoutRetryingEveryDocument() {
+        Organization organization = organization(3, "/slow");
+
+        assertThat(cache.getLogo(organization)).isEmpty();
+        assertThat(cache.getLogo(organization)).isEmpty();
+        assertThat(logoRequests).hasValue(1);
+        // Still renders, with the company name in place of the logo
+        renderHeader(organization);
+    }
+
+    private void renderHeader(Organization organization) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Document document = new Document(new PdfDocument(new PdfWriter(out)))) {
+            PdfStylingHelper.addLogoAndTitle(document, organization, cache.getLogo(organization).orElse(null), "PAYSLIP");
+        }
+        assertThat(out.size()).isPositive();
+    }
+
+    private Organization organization(int id, String path) {
+        return Organization.builder()
+                .id(id)
+                .companyName("Org " + id)
+                .logoUrl("http://127.0.0.1:" + server.getAddress().getPort() + path)
+                .build();
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(120, 40, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
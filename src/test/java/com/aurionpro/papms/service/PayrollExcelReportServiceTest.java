@@ -0,0 +1,45 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.File;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The streamed Excel report spills rows to a temporary file, which must be gone once the report
+ * has been written.
+ */
+class PayrollExcelReportServiceTest extends IntegrationTestSupport {
+
+    // Where POI's default temp file strategy puts the files of streamed sheets
+    private static final File POI_TEMP_DIR = new File(System.getProperty("java.io.tmpdir"), "poifiles");
+
+    @Autowired
+    private PayrollExcelReportService payrollExcelReportService;
+
+    @Test
+    void deletesTheSheetTempFileAfterEachExport() throws Exception {
+        Organization organization = activeOrganization();
+        payrollBatch(organization, user(Role.ORG_ADMIN, organization.getId()),
+                List.of(employee(organization), employee(organization)), PayrollStatus.APPROVED, 2025, 1);
+
+        int before = sheetTempFiles();
+        for (int i = 0; i < 3; i++) {
+            assertThat(payrollExcelReportService.generatePayrollReport(organization.getId(), 2025, 1)).isNotEmpty();
+        }
+
+        assertThat(sheetTempFiles()).isEqualTo(before);
+    }
+
+    private static int sheetTempFiles() {
+        String[] names = POI_TEMP_DIR.list((dir, name) -> name.startsWith("poi-sxssf"));
+        return names == null ? 0 : names.length;
+    }
+}
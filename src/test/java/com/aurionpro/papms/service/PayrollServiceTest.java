@@ -0,0 +1,141 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.LedgerMode;
+import com.aurionpro.papms.Enum.PaymentStatus;
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.Enum.TransactionSourceType;
+import com.aurionpro.papms.dto.payroll.CreatePayrollRequest;
+import com.aurionpro.papms.dto.payroll.PayrollBatchResponse;
+import com.aurionpro.papms.dto.payroll.PayrollPaymentResponse;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.repository.PayrollPaymentRepository;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payroll creation and approval. Payments are inserted with JDBC batches by default; the result
+ * must be the same as with the cascaded JPA save it replaced.
+ */
+class PayrollServiceTest extends IntegrationTestSupport {
+
+    private static final int EMPLOYEES = 5;
+    private static final int YEAR = 2025;
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private PayrollPaymentRepository payrollPaymentRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Organization organization;
+
+    @BeforeEach
+    void seed() {
+        organization = activeOrganization();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employee(organization);
+        }
+        authenticateAs(user(Role.ORG_ADMIN, organization.getId()));
+    }
+
+    @Test
+    void bulkInsertCopiesGeneratedIdsBackAndMatchesTheJpaPath() {
+        PayrollBatchResponse bulk;
+        PayrollBatchResponse cascaded;
+        // Smaller than the batch, so the ids of several JDBC batches are copied back
+        ReflectionTestUtils.setField(payrollService, "bulkInsertBatchSize", 2);
+        try {
+            bulk = payrollService.createPayroll(organization.getId(), request(1));
+            ReflectionTestUtils.setField(payrollService, "bulkInsertEnabled", false);
+            cascaded = payrollService.createPayroll(organization.getId(), request(2));
+        } finally {
+            ReflectionTestUtils.setField(payrollService, "bulkInsertBatchSize", 1000);
+            ReflectionTestUtils.setField(payrollService, "bulkInsertEnabled", true);
+        }
+
+        assertThat(bulk.getPayments()).hasSize(EMPLOYEES);
+        assertThat(bulk.getPayments()).extracting(PayrollPaymentResponse::getPaymentId)
+                .containsExactlyInAnyOrderElementsOf(payrollPaymentRepository.findIdsByPayrollBatchId(bulk.getId()));
+        assertThat(bulk.getTotalAmount()).isEqualByComparingTo(cascaded.getTotalAmount());
+        assertThat(bulk.getTotalEmployees()).isEqualTo(cascaded.getTotalEmployees());
+
+        Map<Long, PayrollPayment> bulkRows = paymentsByEmployee(bulk.getId());
+        Map<Long, PayrollPayment> cascadedRows = paymentsByEmployee(cascaded.getId());
+        assertThat(bulkRows.keySet()).isEqualTo(cascadedRows.keySet());
+        bulkRows.forEach((employeeId, row) -> {
+            PayrollPayment expected = cascadedRows.get(employeeId);
+            assertThat(row.getNetSalaryPaid()).isEqualByComparingTo(expected.getNetSalaryPaid());
+            assertThat(row.getBasicSalary()).isEqualByComparingTo(expected.getBasicSalary());
+            assertThat(row.getPfContribution()).isEqualByComparingTo(expected.getPfContribution());
+            assertThat(row.getStatus()).isEqualTo(expected.getStatus());
+            assertThat(row.getCreatedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void approvalMarksEveryPaymentProcessed() {
+        PayrollBatchResponse created = payrollService.createPayroll(organization.getId(), request(3));
+        organization.setInternalBalance(created.getTotalAmount());
+        organizationRepository.save(organization);
+
+        authenticateAs(user(Role.BANK_ADMIN, null));
+        PayrollBatchResponse approved = payrollService.approvePayroll(created.getId());
+
+        assertThat(approved.getStatus()).isEqualTo(PayrollStatus.COMPLETED.name());
+        assertThat(approved.getTotalEmployees()).isEqualTo(EMPLOYEES);
+        assertThat(approved.getApprovedBy()).isNotEqualTo("N/A");
+        // A summary: the payments are not re-read for the response
+        assertThat(approved.getPayments()).isNull();
+        assertThat(paymentsByEmployee(created.getId()).values()).hasSize(EMPLOYEES).allSatisfy(payment -> {
+            assertThat(payment.getStatus()).isEqualTo(PaymentStatus.PROCESSED);
+            assertThat(payment.getProcessedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void approvalChecksTheLedgerBalanceRatherThanTheCachedColumn() {
+        PayrollBatchResponse created = payrollService.createPayroll(organization.getId(), request(4));
+        ReflectionTestUtils.setField(transactionService, "ledgerMode", LedgerMode.JOURNAL);
+        try {
+            // Recorded in the journal only; internal_balance stays at zero until the next compaction
+            transactionService.processCredit(organization, created.getTotalAmount(), "Funding",
+                    TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+            assertThat(organizationRepository.findInternalBalanceById(organization.getId())).isEqualByComparingTo(BigDecimal.ZERO);
+
+            authenticateAs(user(Role.BANK_ADMIN, null));
+            assertThat(payrollService.approvePayroll(created.getId()).getStatus()).isEqualTo(PayrollStatus.COMPLETED.name());
+            assertThat(transactionService.getCurrentBalance(organization.getId())).isEqualByComparingTo(BigDecimal.ZERO);
+        } finally {
+            ReflectionTestUtils.setField(transactionService, "ledgerMode", LedgerMode.ATOMIC);
+        }
+    }
+
+    private Map<Long, PayrollPayment> paymentsByEmployee(Long payrollBatchId) {
+        List<PayrollPayment> payments = payrollPaymentRepository.findWithDetailsByIdIn(
+                payrollPaymentRepository.findIdsByPayrollBatchId(payrollBatchId));
+        return payments.stream().collect(Collectors.toMap(payment -> payment.getEmployee().getId(), Function.identity()));
+    }
+
+    private static CreatePayrollRequest request(int month) {
+        CreatePayrollRequest request = new CreatePayrollRequest();
+        request.setPayrollMonth(month);
+        request.setPayrollYear(YEAR);
+        return request;
+    }
+}
@@ -0,0 +1,150 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.dto.payroll.PayslipArchiveStatusResponse;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.PayrollBatch;
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import com.aurionpro.papms.security.jwt.JwtService;
+import com.aurionpro.papms.support.IntegrationTestSupport;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The payslip archive job renders every payslip of a paid batch, zips them, and the
+ * single-payslip download then serves the stored file, with ETag revalidation.
+ */
+class PayslipArchiveJobTest extends IntegrationTestSupport {
+
+    private static final int EMPLOYEES = 6;
+
+    @Autowired
+    private PayslipArchiveService payslipArchiveService;
+
+    @Autowired
+    private PayslipPdfService payslipPdfService;
+
+    @Autowired
+    private PayslipFileStore payslipFileStore;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void rendersAndArchivesAllPayslipsOfPaidBatch() throws Exception {
+        Organization organization = activeOrganization();
+        User orgAdmin = user(Role.ORG_ADMIN, organization.getId());
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(employee(organization));
+        }
+        PayrollBatch batch = payrollBatch(organization, orgAdmin, employees, PayrollStatus.COMPLETED, 2025, 1);
+
+        authenticateAs(orgAdmin);
+        payslipArchiveService.startArchive(batch.getId());
+        PayslipArchiveStatusResponse status = awaitFinished(batch.getId());
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getRenderedPayslips()).isEqualTo(EMPLOYEES);
+        assertThat(status.isArchiveReady()).isTrue();
+        assertThat(zipEntries(payslipArchiveService.getArchive(batch.getId()))).hasSize(EMPLOYEES);
+
+        // A finished job is not started again
+        assertThat(payslipArchiveService.startArchive(batch.getId()).getStatus()).isEqualTo("COMPLETED");
+
+        PayrollPayment payment = batch.getPayments().get(0);
+        authenticateAs(payment.getEmployee().getUser());
+        assertThat(payslipPdfService.generatePayslip(payment.getId()).content())
+                .isEqualTo(Files.readAllBytes(payslipFileStore.findPayslip(batch.getId(), payment.getId()).orElseThrow()));
+
+        // Once the employee's details change, the stored payslip is out of date and is rendered again
+        User employeeUser = userRepository.findById(payment.getEmployee().getUser().getId()).orElseThrow();
+        employeeUser.setFullName("Renamed " + employeeUser.getFullName());
+        userRepository.save(employeeUser);
+        assertThat(text(payslipPdfService.generatePayslip(payment.getId()).content())).contains(employeeUser.getFullName());
+    }
+
+    @Test
+    void payslipDownloadAnswersRepeatRequestsWithNotModified() throws Exception {
+        Organization organization = activeOrganization();
+        User orgAdmin = user(Role.ORG_ADMIN, organization.getId());
+        PayrollBatch batch = payrollBatch(organization, orgAdmin, List.of(employee(organization)), PayrollStatus.COMPLETED, 2025, 1);
+        User employeeUser = batch.getPayments().get(0).getEmployee().getUser();
+        String url = "/api/organizations/" + organization.getId() + "/employees/payslips/"
+                + batch.getPayments().get(0).getId() + "/download";
+        String bearer = "Bearer " + jwtService.generateToken(AuthenticatedUser.from(employeeUser), 60_000);
+
+        String etag = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void refusesBatchesThatAreNotApproved() {
+        Organization organization = activeOrganization();
+        User orgAdmin = user(Role.ORG_ADMIN, organization.getId());
+        PayrollBatch batch = payrollBatch(organization, orgAdmin, List.of(employee(organization)), PayrollStatus.COMPLETED, 2025, 1);
+        batch.setStatus(PayrollStatus.PENDING_APPROVAL);
+        payrollBatchRepository.save(batch);
+
+        authenticateAs(orgAdmin);
+        assertThatThrownBy(() -> payslipArchiveService.startArchive(batch.getId()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private PayslipArchiveStatusResponse awaitFinished(Long payrollBatchId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        PayslipArchiveStatusResponse status = payslipArchiveService.getArchiveStatus(payrollBatchId);
+        while (!List.of("COMPLETED", "FAILED").contains(status.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            status = payslipArchiveService.getArchiveStatus(payrollBatchId);
+        }
+        return status;
+    }
+
+    private static String text(byte[] pdf) throws Exception {
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            return PdfTextExtractor.getTextFromPage(document.getFirstPage());
+        }
+    }
+
+    private static List<String> zipEntries(Path archive) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(archive))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,125 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.PayrollBatch;
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.support.TestFixtures;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payslip rendering from the compiled template, and the full layout that a name too long for its
+ * template field falls back to. The throughput comparison of the two is a benchmark: it only runs
+ * with {@code mvn test -Pbenchmark}, and checks the template keeps a clear lead over the layout.
+ */
+class PayslipRenderingThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PayslipRenderingThroughputTest.class);
+    private static final int WARM_UP = 200;
+    private static final int PAYSLIPS = 1_000;
+
+    private PayslipPdfService payslipPdfService;
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ImageData logo = ImageDataFactory.create(png());
+        OrganizationLogoCache logos = new OrganizationLogoCache() {
+            @Override
+            public Optional<ImageData> getLogo(Organization organization) {
+                return Optional.of(logo);
+            }
+        };
+        PdfTemplateCache templates = new PdfTemplateCache(logos);
+        ReflectionTestUtils.setField(templates, "maxSize", 10L);
+        ReflectionTestUtils.setField(templates, "idleMinutes", 10L);
+        templates.init();
+        // Repositories and the PDF cache are only used by generatePayslip
+        payslipPdfService = new PayslipPdfService(null, null, null, logos, templates);
+        organization = Organization.builder().id(1).companyName("Acme Payroll Pvt Ltd").build();
+    }
+
+    @Test
+    void longValuesFallBackToTheFullLayout() throws IOException {
+        PayrollPayment payment = payment("Asha Verma ".repeat(8).trim());
+
+        assertThat(text(payslipPdfService.renderPayslip(payment)))
+                .contains("Asha Verma Asha Verma", "42900.00", "For the month of March 2025");
+        assertThat(text(payslipPdfService.renderPayslip(payment("Asha Verma"))))
+                .contains("Asha Verma", "46500.00", "E-1001", "Page 1 of 1");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void templatedPayslipThroughput() {
+        double templated = payslipsPerSecond(payment("Asha Verma"));
+        double laidOut = payslipsPerSecond(payment("Asha Verma ".repeat(8).trim()));
+
+        log.info("Payslips per second on one thread: {} from the template, {} with the full layout",
+                Math.round(templated), Math.round(laidOut));
+        // About five times faster when measured; a factor of two leaves room for noisy machines
+        assertThat(templated).isGreaterThan(2 * laidOut);
+    }
+
+    private double payslipsPerSecond(PayrollPayment payment) {
+        for (int i = 0; i < WARM_UP; i++) {
+            payslipPdfService.renderPayslip(payment);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PAYSLIPS; i++) {
+            payslipPdfService.renderPayslip(payment);
+        }
+        return PAYSLIPS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private PayrollPayment payment(String employeeName) {
+        Employee employee = Employee.builder()
+                .user(User.builder().fullName(employeeName).build())
+                .employeeCode("E-1001")
+                .jobTitle("Engineer")
+                .department("Engineering")
+                .dateOfJoining(LocalDate.of(2021, 6, 1))
+                .build();
+        PayrollBatch batch = TestFixtures.payrollBatch(organization, null, List.of(employee), PayrollStatus.COMPLETED, 2025, 3);
+        batch.setId(1L);
+        PayrollPayment payment = batch.getPayments().get(0);
+        payment.setId(1L);
+        return payment;
+    }
+
+    private static String text(byte[] pdf) throws IOException {
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            return PdfTextExtractor.getTextFromPage(document.getFirstPage());
+        }
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(240, 80, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,73 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.dto.RenderedPdf;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderedPdfCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rendersOncePerVersion() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(directory.toString(), 1024);
+        AtomicInteger renders = new AtomicInteger();
+
+        RenderedPdf first = cache.getOrRender("invoice", 1, "v1", () -> bytes(10, renders));
+        RenderedPdf second = cache.getOrRender("invoice", 1, "v1", () -> bytes(10, renders));
+        RenderedPdf changed = cache.getOrRender("invoice", 1, "v2", () -> bytes(10, renders));
+
+        assertThat(renders).hasValue(2);
+        assertThat(second.etag()).isEqualTo(first.etag());
+        assertThat(second.content()).isEqualTo(first.content());
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void skipsReadingAndRenderingWhenTheClientHasTheVersion() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(directory.toString(), 1024);
+        AtomicInteger renders = new AtomicInteger();
+        String etag = cache.getOrRender("invoice", 1, "v1", () -> bytes(10, renders)).etag();
+
+        RenderedPdf current = cache.getOrRender("invoice", 1, "v1", etag::equals, () -> bytes(10, renders));
+        RenderedPdf changed = cache.getOrRender("invoice", 1, "v2", etag::equals, () -> bytes(10, renders));
+
+        assertThat(current.isNotModified()).isTrue();
+        assertThat(current.etag()).isEqualTo(etag);
+        assertThat(changed.isNotModified()).isFalse();
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondSizeLimit() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(directory.toString(), 250);
+        AtomicInteger renders = new AtomicInteger();
+
+        cache.getOrRender("payslip", 1, "v", () -> bytes(100, renders));
+        cache.getOrRender("payslip", 2, "v", () -> bytes(100, renders));
+        cache.getOrRender("payslip", 1, "v", () -> bytes(100, renders)); // 1 is now the most recent
+        cache.getOrRender("payslip", 3, "v", () -> bytes(100, renders)); // evicts 2
+        assertThat(renders).hasValue(3);
+
+        cache.getOrRender("payslip", 1, "v", () -> bytes(100, renders));
+        assertThat(renders).hasValue(3);
+        cache.getOrRender("payslip", 2, "v", () -> bytes(100, renders));
+        assertThat(renders).hasValue(4);
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+    }
+
+    private static byte[] bytes(int size, AtomicInteger renders) {
+        renders.incrementAndGet();
+        return new byte[size];
+    }
+}
@@ -0,0 +1,8 @@
+package com.aurionpro.papms.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Same stress scenario against the sharded-balance ledger
+@TestPropertySource(properties = {"app.ledger.mode=SHARDED", "app.ledger.shard-count=4"})
+class ShardedLedgerConcurrencyTest extends TransactionServiceConcurrencyTest {
+}
@@ -0,0 +1,97 @@
+package com.aurionpro.papms.service;
+
+import com.aurionpro.papms.Enum.OrganizationStatus;
+import com.aurionpro.papms.Enum.TransactionSourceType;
+import com.aurionpro.papms.Enum.TransactionType;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.Transaction;
+import com.aurionpro.papms.repository.OrganizationRepository;
+import com.aurionpro.papms.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransactionServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 50;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("500.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentDebitsAndCreditsKeepBalanceEqualToLedger() throws Exception {
+        Organization organization = organizationRepository.save(Organization.builder()
+                .companyName("Ledger Stress " + System.nanoTime())
+                .contactEmail("ledger@test.local")
+                .status(OrganizationStatus.ACTIVE)
+                .build());
+        Integer organizationId = organization.getId();
+
+        // Opening balance goes through the ledger as well, so the journal explains the whole balance
+        transactionService.processCredit(organization, OPENING_BALANCE, "Opening balance",
+                TransactionSourceType.MANUAL_ADJUSTMENT, 0L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                Organization org = organizationRepository.findById(organizationId).orElseThrow();
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    BigDecimal amount = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 40));
+                    if (ThreadLocalRandom.current().nextBoolean()) {
+                        transactionService.processCredit(org, amount, "credit", TransactionSourceType.INVOICE, (long) i);
+                    } else {
+                        try {
+                            transactionService.processDebit(org, amount, "debit", TransactionSourceType.VENDOR_PAYMENT, (long) i);
+                        } catch (IllegalStateException insufficientFunds) {
+                            // expected once the balance runs low
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal ledgerBalance = BigDecimal.ZERO;
+        for (Transaction transaction : transactionRepository.findAll()) {
+            if (!transaction.getOrganization().getId().equals(organizationId)) {
+                continue;
+            }
+            ledgerBalance = transaction.getTransactionType() == TransactionType.CREDIT
+                    ? ledgerBalance.add(transaction.getAmount())
+                    : ledgerBalance.subtract(transaction.getAmount());
+        }
+
+        BigDecimal finalBalance = transactionService.getCurrentBalance(organizationId);
+        assertThat(finalBalance).isEqualByComparingTo(ledgerBalance);
+        assertThat(finalBalance).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,140 @@
+package com.aurionpro.papms.support;
+
+import com.aurionpro.papms.Enum.OrganizationStatus;
+import com.aurionpro.papms.Enum.OwnerType;
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.Enum.Role;
+import com.aurionpro.papms.entity.BankAccount;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.PayrollBatch;
+import com.aurionpro.papms.entity.SalaryStructure;
+import com.aurionpro.papms.entity.User;
+import com.aurionpro.papms.repository.AppUserRepository;
+import com.aurionpro.papms.repository.BankAccountRepository;
+import com.aurionpro.papms.repository.EmployeeRepository;
+import com.aurionpro.papms.repository.OrganizationRepository;
+import com.aurionpro.papms.repository.PayrollBatchRepository;
+import com.aurionpro.papms.repository.SalaryStructureRepository;
+import com.aurionpro.papms.security.auth.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for tests against the full application context and the in-memory database, with
+ * factories for the entities most tests start from. Every subclass shares one application context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class IntegrationTestSupport {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    protected OrganizationRepository organizationRepository;
+
+    @Autowired
+    protected AppUserRepository userRepository;
+
+    @Autowired
+    protected EmployeeRepository employeeRepository;
+
+    @Autowired
+    protected BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    protected SalaryStructureRepository salaryStructureRepository;
+
+    @Autowired
+    protected PayrollBatchRepository payrollBatchRepository;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Authenticates the current thread as the given user, the way JwtAuthFilter does for a request.
+     */
+    protected void authenticateAs(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    protected String unique(String prefix) {
+        return prefix + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    protected Organization activeOrganization() {
+        return organizationRepository.save(Organization.builder()
+                .companyName(unique("Org"))
+                .contactEmail("org@test.local")
+                .status(OrganizationStatus.ACTIVE)
+                .build());
+    }
+
+    protected User user(Role role, Integer organizationId) {
+        return userRepository.save(newUser(role, organizationId));
+    }
+
+    private User newUser(Role role, Integer organizationId) {
+        String username = unique(role.name().toLowerCase());
+        return User.builder()
+                .username(username)
+                .password("{noop}unused")
+                .fullName(username)
+                .email(username + "@test.local")
+                .role(role)
+                .organizationId(organizationId)
+                .requiresPasswordChange(false)
+                .build();
+    }
+
+    /**
+     * An active employee with a primary bank account and an active salary structure.
+     */
+    protected Employee employee(Organization organization) {
+        // Persisted through the employee's cascade
+        User user = newUser(Role.EMPLOYEE, organization.getId());
+        Employee employee = employeeRepository.save(Employee.builder()
+                .user(user)
+                .organization(organization)
+                .employeeCode(unique("E"))
+                .dateOfJoining(LocalDate.now())
+                .department("Engineering")
+                .jobTitle("Engineer")
+                .build());
+        bankAccountRepository.save(BankAccount.builder()
+                .employee(employee)
+                .ownerType(OwnerType.EMPLOYEE)
+                .accountHolderName(user.getFullName())
+                .accountNumber(unique("ACC"))
+                .bankName("Test Bank")
+                .ifscCode("TEST0000001")
+                .build());
+        salaryStructureRepository.save(SalaryStructure.builder()
+                .employee(employee)
+                .basicSalary(new BigDecimal("30000.00"))
+                .effectiveFromDate(LocalDate.now().minusMonths(1))
+                .build());
+        return employee;
+    }
+
+    /**
+     * A saved payroll batch with one processed payment per employee; see {@link TestFixtures#payrollBatch}.
+     */
+    protected PayrollBatch payrollBatch(Organization organization, User submittedBy, List<Employee> employees,
+                                        PayrollStatus status, int year, int month) {
+        return payrollBatchRepository.save(TestFixtures.payrollBatch(organization, submittedBy, employees, status, year, month));
+    }
+}
@@ -0,0 +1,19 @@
+package com.aurionpro.papms.support;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the SMTP-backed mail sender in test contexts, so tests that trigger mail do not try to
+ * reach a server that is not there and retry in the background.
+ */
+@Configuration
+@ConditionalOnProperty(name = "test.mail.stub.enabled", havingValue = "true", matchIfMissing = true)
+public class MailStubConfiguration {
+
+    @Bean
+    public RecordingMailSender recordingMailSender() {
+        return new RecordingMailSender();
+    }
+}
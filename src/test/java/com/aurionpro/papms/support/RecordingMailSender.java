@@ -0,0 +1,44 @@
+package com.aurionpro.papms.support;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Mail sender for tests that keeps the messages instead of opening an SMTP connection. Registered
+ * in every test context by {@link MailStubConfiguration}; tests that need a real SMTP server
+ * switch it off with {@code test.mail.stub.enabled=false}.
+ */
+public class RecordingMailSender extends JavaMailSenderImpl {
+
+    private final Queue<MimeMessage> sent = new ConcurrentLinkedQueue<>();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        for (MimeMessage message : mimeMessages) {
+            try {
+                // Same as JavaMailSenderImpl: saveChanges() assigns a new Message-ID, so a preset one is put back
+                String messageId = message.getMessageID();
+                message.saveChanges();
+                if (messageId != null) {
+                    message.setHeader("Message-ID", messageId);
+                }
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+            sent.add(message);
+        }
+    }
+
+    public List<MimeMessage> sent() {
+        return List.copyOf(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package com.aurionpro.papms.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.ThrowingConsumer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base class for statement-budget tests. {@link #assertStatementsAtMost} fails when a call issues
+ * more SQL statements than its budget, which is how an N+1 regression shows up once the seeded
+ * data has more rows than the budget. Hibernate statistics are switched on for all tests in the
+ * test application.properties, so these tests share the context of {@link IntegrationTestSupport}.
+ */
+public abstract class StatementBudgetTestSupport extends IntegrationTestSupport {
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Runs the call once to warm caches, then again while counting statements, and checks the count.
+     */
+    protected <T> T assertStatementsAtMost(long budget, String description, Callable<T> call) throws Exception {
+        call.call();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = call.call();
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements for %s", description)
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
+
+    protected <T> void assertStatementsAtMost(long budget, String description, Callable<T> call,
+                                              ThrowingConsumer<T> resultCheck) throws Exception {
+        resultCheck.accept(assertStatementsAtMost(budget, description, call));
+    }
+}
@@ -0,0 +1,62 @@
+package com.aurionpro.papms.support;
+
+import com.aurionpro.papms.Enum.PaymentStatus;
+import com.aurionpro.papms.Enum.PayrollStatus;
+import com.aurionpro.papms.entity.Employee;
+import com.aurionpro.papms.entity.Organization;
+import com.aurionpro.papms.entity.PayrollBatch;
+import com.aurionpro.papms.entity.PayrollPayment;
+import com.aurionpro.papms.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unsaved entities for tests, shared by the database-backed tests through
+ * {@link IntegrationTestSupport} and by the tests that need no database.
+ */
+public final class TestFixtures {
+
+    public static final BigDecimal BASIC_SALARY = new BigDecimal("30000.00");
+    public static final BigDecimal HRA = new BigDecimal("12000.00");
+    public static final BigDecimal DA = new BigDecimal("3000.00");
+    public static final BigDecimal OTHER_ALLOWANCES = new BigDecimal("1500.00");
+    public static final BigDecimal PF_CONTRIBUTION = new BigDecimal("3600.00");
+    public static final BigDecimal NET_SALARY = new BigDecimal("42900.00");
+
+    private TestFixtures() {
+    }
+
+    /**
+     * A payroll batch with one processed payment per employee, all with the same amounts,
+     * paid at the end of the payroll month.
+     */
+    public static PayrollBatch payrollBatch(Organization organization, User submittedBy, List<Employee> employees,
+                                            PayrollStatus status, int year, int month) {
+        PayrollBatch batch = PayrollBatch.builder()
+                .organization(organization)
+                .payrollMonth(month)
+                .payrollYear(year)
+                .status(status)
+                .submittedByUser(submittedBy)
+                .totalEmployees(employees.size())
+                .totalAmount(NET_SALARY.multiply(BigDecimal.valueOf(employees.size())))
+                .build();
+        for (Employee employee : employees) {
+            batch.getPayments().add(PayrollPayment.builder()
+                    .payrollBatch(batch)
+                    .employee(employee)
+                    .basicSalary(BASIC_SALARY)
+                    .hra(HRA)
+                    .da(DA)
+                    .otherAllowances(OTHER_ALLOWANCES)
+                    .pfContribution(PF_CONTRIBUTION)
+                    .netSalaryPaid(NET_SALARY)
+                    .status(PaymentStatus.PROCESSED)
+                    .processedAt(LocalDate.of(year, month, 1).plusMonths(1).minusDays(1).atTime(10, 0))
+                    .build());
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,53 @@
+package com.aurionpro.papms.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A Bloom filter never forgets a key and stays close to the false positive rate it was sized for.
+ */
+class BloomFilterTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void findsEveryKeyAndFewOthers() {
+        BloomFilter filter = BloomFilter.create(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < KEYS; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+        long falsePositives = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (filter.mightContain("account" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(KEYS / 50);
+        assertThat(filter.sizeInBytes()).isLessThan(2L * KEYS);
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    void countsOnlyKeysThatSetNewBits() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+        for (int i = 0; i < 100; i++) {
+            assertThat(filter.put("user" + i)).isTrue();
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(filter.put("user" + i)).isFalse();
+            }
+        }
+        assertThat(filter.isSaturated()).isFalse();
+
+        for (int i = 100; i < 200; i++) {
+            filter.put("user" + i);
+        }
+        assertThat(filter.isSaturated()).isTrue();
+    }
+}
@@ -0,0 +1,86 @@
+package com.aurionpro.papms.utils;
+
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Vector;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.EventType;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A filled template must put each value where laying the document out with that value would.
+ */
+class PdfTemplateTest {
+
+    private static final PdfTemplate.Layout LAYOUT = (document, fields) -> {
+        document.add(fields.apply("period").setTextAlignment(TextAlignment.CENTER).setItalic());
+        Table table = new Table(UnitValue.createPercentArray(new float[]{1, 2, 1, 1})).useAllAvailableWidth();
+        table.addCell(PdfStylingHelper.createLabelCell("Name"));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply("name"), TextAlignment.LEFT));
+        table.addCell(PdfStylingHelper.createLabelCell("Total"));
+        table.addCell(PdfStylingHelper.createValueCell(fields.apply("total"), TextAlignment.RIGHT).setBold());
+        document.add(table);
+    };
+
+    @Test
+    void filledFieldsLandWhereTheLayoutPutsThem() throws Exception {
+        Map<String, String> values = Map.of("period", "For the month of March 2025", "name", "Asha Verma", "total", "46500.00");
+
+        byte[] filled = PdfTemplate.compile(PageSize.A4, LAYOUT).fill(values).orElseThrow();
+        byte[] laidOut = PdfTemplate.render(PageSize.A4, LAYOUT, values);
+
+        List<TextChunk> expected = textChunks(laidOut);
+        assertThat(expected).extracting(TextChunk::text).contains("Asha Verma", "46500.00", "For the month of March 2025");
+        assertThat(textChunks(filled)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void valueTooWideForItsFieldIsNotFilled() {
+        PdfTemplate template = PdfTemplate.compile(PageSize.A4, LAYOUT);
+
+        assertThat(template.fill(Map.of("name", "Asha Verma ".repeat(10)))).isEmpty();
+        assertThat(template.fill(Map.of("name", "Asha Verma"))).isPresent();
+    }
+
+    // Position rounded to a point, which hides float noise but not a misplaced field
+    private record TextChunk(String text, long x, long y, boolean bold) {
+    }
+
+    private static List<TextChunk> textChunks(byte[] pdf) throws Exception {
+        List<TextChunk> chunks = new ArrayList<>();
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            new PdfCanvasProcessor(new IEventListener() {
+                @Override
+                public void eventOccurred(IEventData data, EventType type) {
+                    TextRenderInfo info = (TextRenderInfo) data;
+                    if (!info.getText().isBlank()) {
+                        Vector start = info.getBaseline().getStartPoint();
+                        chunks.add(new TextChunk(info.getText(), Math.round(start.get(0)), Math.round(start.get(1)),
+                                info.getTextRenderMode() != 0));
+                    }
+                }
+
+                @Override
+                public Set<EventType> getSupportedEvents() {
+                    return Set.of(EventType.RENDER_TEXT);
+                }
+            }).processPageContent(document.getFirstPage());
+        }
+        return chunks;
+    }
+}